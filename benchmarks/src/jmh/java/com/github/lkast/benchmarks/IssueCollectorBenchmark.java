@@ -0,0 +1,120 @@
+package com.github.lkast.benchmarks;
+
+import com.github.lkast.IssueManager;
+import com.github.lkast.collector.CollectorConfig;
+import com.github.lkast.collector.IssueCollector;
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Severity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Load test of the {@link IssueCollector} on localhost.
+ * <p>
+ * Each benchmark thread acts as one client posting issues over its own connection, and the sink only counts the
+ * issues. Comparing the throughput of the single-threaded and the {@code Threads.MAX} variants, which use one
+ * client per core, shows how the collector scales with cores. Clients and collector share the machine, so the
+ * numbers are a lower bound for a dedicated collector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IssueCollectorBenchmark {
+    @Param({"1", "100"})
+    public int batchSize;
+
+    private IssueCollector collector;
+    private final LongAdder received = new LongAdder();
+    private URI issueUri;
+    private URI batchUri;
+    private String issueJson;
+    private String batchNdjson;
+
+    @State(Scope.Thread)
+    public static class Client {
+        private HttpClient httpClient;
+
+        @Setup
+        public void setUp() {
+            httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        }
+
+        @TearDown
+        public void tearDown() {
+            httpClient.close();
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        IssueManager issueManager = new IssueManager("benchmark-service", "Benchmark Service");
+        CollectorConfig config = new CollectorConfig(16 * 1024 * 1024, 4096, 1024);
+        collector = new IssueCollector(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), config, issueManager, issues -> {
+            received.add(issues.size());
+            return true;
+        });
+        String base = "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + collector.getAddress().getPort();
+        issueUri = URI.create(base + IssueCollector.ISSUE_PATH);
+        batchUri = URI.create(base + IssueCollector.BATCH_PATH);
+        Issue issue = issueManager.createIssue(issueManager.getIssueMapper().getIssueType(IssueName.SERVICE_ISSUE), Severity.ERROR);
+        issueJson = issue.toJsonString();
+        batchNdjson = IntStream.range(0, batchSize).mapToObj(i -> issueJson).collect(Collectors.joining("\n", "", "\n"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        collector.close();
+    }
+
+    private int post(Client client, URI uri, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        HttpResponse<Void> response = client.httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 202) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    @Benchmark
+    public int postIssue(Client client) throws IOException, InterruptedException {
+        return post(client, issueUri, issueJson);
+    }
+
+    @Benchmark
+    public int postBatch(Client client) throws IOException, InterruptedException {
+        return post(client, batchUri, batchNdjson);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int postIssuePerCore(Client client) throws IOException, InterruptedException {
+        return post(client, issueUri, issueJson);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int postBatchPerCore(Client client) throws IOException, InterruptedException {
+        return post(client, batchUri, batchNdjson);
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.lkast.benchmarks;
+
+import com.github.lkast.IssueManager;
+import com.github.lkast.model.Issue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating issues from exceptions and HTTP status codes.
+ * <p>
+ * Issues created from exceptions render their details lazily, so the {@code *Rendered} benchmarks additionally
+ * read the details to include the stack trace rendering. The stack depth is the number of frames added on top
+ * of the JMH frames.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IssueCreationBenchmark {
+    @Param({"5", "200"})
+    public int stackDepth;
+
+    private IssueManager issueManager;
+    private IllegalArgumentException exception;
+
+    @Setup
+    public void setUp() {
+        issueManager = new IssueManager("benchmark-service", "Benchmark Service");
+        exception = throwAtDepth(stackDepth);
+    }
+
+    private static IllegalArgumentException throwAtDepth(int depth) {
+        if (depth > 0) {
+            return throwAtDepth(depth - 1);
+        }
+        return new IllegalArgumentException("Invalid benchmark argument");
+    }
+
+    @Benchmark
+    public Issue createIssueFromException() {
+        return issueManager.createIssueFromException(exception);
+    }
+
+    @Benchmark
+    public String createIssueFromExceptionRendered() {
+        return issueManager.createIssueFromException(exception).getDetails();
+    }
+
+    @Benchmark
+    public Issue createIssueFromExceptionClass() {
+        return issueManager.createIssueFromException(IllegalArgumentException.class, "Invalid benchmark argument");
+    }
+
+    @Benchmark
+    public Issue createIssueFromHttpStatusString() {
+        return issueManager.createIssueFromHttpStatus("404 Not Found");
+    }
+
+    @Benchmark
+    public Issue createIssueFromHttpStatusInt() {
+        return issueManager.createIssueFromHttpStatus(503);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Issue createIssueFromExceptionConcurrent() {
+        return issueManager.createIssueFromException(exception);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String createIssueFromExceptionRenderedConcurrent() {
+        return issueManager.createIssueFromException(exception).getDetails();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Issue createIssueFromHttpStatusConcurrent() {
+        return issueManager.createIssueFromHttpStatus(503);
+    }
+}
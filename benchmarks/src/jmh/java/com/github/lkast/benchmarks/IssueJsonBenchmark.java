@@ -0,0 +1,81 @@
+package com.github.lkast.benchmarks;
+
+import com.github.lkast.IssueManager;
+import com.github.lkast.IssueMapper;
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Severity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serializing issues to JSON and deserializing them again.
+ * The cause chain length is the number of cause issues nested below the serialized issue.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IssueJsonBenchmark {
+    @Param({"0", "10"})
+    public int causeChainLength;
+
+    private IssueManager issueManager;
+    private Issue issue;
+    private String json;
+    private byte[] jsonBytes;
+
+    @Setup
+    public void setUp() {
+        issueManager = new IssueManager("benchmark-service", "Benchmark Service");
+        IssueMapper issueMapper = issueManager.getIssueMapper();
+        UUID correlationID = UUID.randomUUID();
+        Issue causeIssue = null;
+        for (int i = 0; i < causeChainLength; i++) {
+            causeIssue = issueManager.createIssue(issueMapper.getIssueType(IssueName.DATABASE_ISSUE), Severity.ERROR,
+                    Instant.now(), causeIssue, "Connection refused", correlationID);
+        }
+        issue = issueManager.createIssue(issueMapper.getIssueType(IssueName.SERVICE_ISSUE), Severity.FAILURE,
+                Instant.now(), causeIssue, "Caused by HTTP Error: 503 Service Unavailable", correlationID);
+        json = issue.toJsonString();
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String toJsonString() {
+        return issue.toJsonString();
+    }
+
+    @Benchmark
+    public Issue createIssueFromJsonString() {
+        return issueManager.createIssueFromJson(json);
+    }
+
+    @Benchmark
+    public Issue createIssueFromJsonBytes() {
+        return issueManager.createIssueFromJson(jsonBytes);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String toJsonStringConcurrent() {
+        return issue.toJsonString();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Issue createIssueFromJsonStringConcurrent() {
+        return issueManager.createIssueFromJson(json);
+    }
+}
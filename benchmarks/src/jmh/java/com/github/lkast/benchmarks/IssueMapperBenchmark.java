@@ -0,0 +1,131 @@
+package com.github.lkast.benchmarks;
+
+import com.github.lkast.IssueMapper;
+import com.github.lkast.model.IssueCategory;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.IssueType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookups and reverse lookups of the {@link IssueMapper}.
+ * All lookups are expected to be served from tables built once in the constructor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IssueMapperBenchmark {
+    private IssueMapper issueMapper;
+
+    @Setup
+    public void setUp() {
+        issueMapper = new IssueMapper();
+    }
+
+    @Benchmark
+    public IssueName getIssueNameFromHttpString() {
+        return issueMapper.getIssueNameFromHttp("404");
+    }
+
+    @Benchmark
+    public IssueName getIssueNameFromHttpStringWildcard() {
+        return issueMapper.getIssueNameFromHttp("503");
+    }
+
+    @Benchmark
+    public IssueName getIssueNameFromHttpInt() {
+        return issueMapper.getIssueNameFromHttp(404);
+    }
+
+    @Benchmark
+    public IssueName getIssueNameFromExceptionString() {
+        return issueMapper.getIssueNameFromException("java.lang.IllegalArgumentException");
+    }
+
+    @Benchmark
+    public IssueName getIssueNameFromExceptionClass() {
+        return issueMapper.getIssueNameFromException(IllegalArgumentException.class);
+    }
+
+    @Benchmark
+    public IssueName getIssueNameFromExceptionSubclass() {
+        return issueMapper.getIssueNameFromException(NumberFormatException.class);
+    }
+
+    @Benchmark
+    public String getHttpStatusFromIssueName() {
+        return issueMapper.getHttpStatusFromIssueName(IssueName.RESOURCE_ISSUE);
+    }
+
+    @Benchmark
+    public String getExceptionFromIssueName() {
+        return issueMapper.getExceptionFromIssueName(IssueName.VALIDATION_ISSUE);
+    }
+
+    @Benchmark
+    public List<String> getExceptionsFromIssueName() {
+        return issueMapper.getExceptionsFromIssueName(IssueName.VALIDATION_ISSUE);
+    }
+
+    @Benchmark
+    public IssueType getIssueTypeFromExceptionString() {
+        return issueMapper.getIssueTypeFromException("java.lang.IllegalArgumentException");
+    }
+
+    @Benchmark
+    public IssueType getIssueTypeFromExceptionClass() {
+        return issueMapper.getIssueTypeFromException(IllegalArgumentException.class);
+    }
+
+    @Benchmark
+    public IssueType getIssueTypeFromHttpString() {
+        return issueMapper.getIssueTypeFromHttp("404");
+    }
+
+    @Benchmark
+    public IssueType getIssueTypeFromHttpInt() {
+        return issueMapper.getIssueTypeFromHttp(404);
+    }
+
+    @Benchmark
+    public String getDescriptionForIssue() {
+        return issueMapper.getDescriptionForIssue(IssueName.DATABASE_ISSUE);
+    }
+
+    @Benchmark
+    public IssueCategory getCategoryForIssue() {
+        return issueMapper.getCategoryForIssue(IssueName.DATABASE_ISSUE);
+    }
+
+    @Benchmark
+    public IssueType getIssueType() {
+        return issueMapper.getIssueType(IssueName.DATABASE_ISSUE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public IssueType getIssueTypeFromExceptionClassConcurrent() {
+        return issueMapper.getIssueTypeFromException(IllegalArgumentException.class);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public IssueType getIssueTypeFromHttpStringConcurrent() {
+        return issueMapper.getIssueTypeFromHttp("404");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String getHttpStatusFromIssueNameConcurrent() {
+        return issueMapper.getHttpStatusFromIssueName(IssueName.RESOURCE_ISSUE);
+    }
+}
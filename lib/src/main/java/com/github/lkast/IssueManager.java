@@ -1,23 +1,38 @@
 package com.github.lkast;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.lkast.details.DetailsPolicy;
+import com.github.lkast.details.ExceptionDetailsRenderer;
+import com.github.lkast.details.StackTraceStore;
 import com.github.lkast.exceptions.IssueMappingException;
+import com.github.lkast.id.IssueIdGenerator;
 import com.github.lkast.model.Issue;
 import com.github.lkast.model.IssueType;
 import com.github.lkast.model.Service;
 import com.github.lkast.model.Severity;
+import com.github.lkast.monitoring.IssueCreationEvent;
+import com.github.lkast.monitoring.IssueMetrics;
+import com.github.lkast.ratelimit.IssueRateLimiter;
+import com.github.lkast.serialization.IssueJson;
+import com.github.lkast.time.CoarseClock;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.time.Clock;
 import java.time.Instant;
-import java.util.Arrays;
 import java.util.UUID;
 
 public class IssueManager {
-    private final IssueMapper issueMapper = new IssueMapper();
-    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private static final String SOURCE_DIRECT = "direct";
+    private static final String SOURCE_EXCEPTION = "exception";
+    private static final String SOURCE_HTTP = "http";
 
+    private final IssueMapper issueMapper;
     private final Service service;
+    private volatile ExceptionDetailsRenderer detailsRenderer = new ExceptionDetailsRenderer(DetailsPolicy.FULL);
+    private volatile IssueIdGenerator issueIdGenerator = IssueIdGenerator.timeOrdered();
+    private volatile Clock clock = Clock.systemUTC();
+    private volatile IssueRateLimiter rateLimiter;
+    private volatile IssueMetrics metrics;
 
     /**
      * Constructs a new IssueManager object with the provided service ID and service name.
@@ -26,18 +41,151 @@ public class IssueManager {
      * @param serviceName The name of the service.
      */
     public IssueManager(String serviceId, String serviceName) {
+        this(serviceId, serviceName, new IssueMapper());
+    }
+
+    /**
+     * Constructs a new IssueManager object that maps issues with the provided IssueMapper, e.g. one that
+     * loads its mappings from a directory and reloads them on change. The mapper can be shared between managers.
+     *
+     * @param serviceId   The ID of the service.
+     * @param serviceName The name of the service.
+     * @param issueMapper The mapper resolving the types of created issues.
+     * @throws IllegalArgumentException if issueMapper is null.
+     */
+    public IssueManager(String serviceId, String serviceName, IssueMapper issueMapper) {
+        if (issueMapper == null) {
+            throw new IllegalArgumentException("IssueMapper cannot be null");
+        }
+        this.issueMapper = issueMapper;
         this.service = new Service(serviceId, serviceName);
     }
 
+    public IssueMapper getIssueMapper() {
+        return issueMapper;
+    }
+
+    /**
+     * Sets the policy used to render the details of issues created from exceptions.
+     * By default, the complete stack trace is rendered ({@link DetailsPolicy#FULL}).
+     *
+     * @param detailsPolicy The policy for rendering exception details.
+     * @throws IllegalArgumentException if detailsPolicy is null.
+     */
+    public void setDetailsPolicy(DetailsPolicy detailsPolicy) {
+        this.detailsRenderer = new ExceptionDetailsRenderer(detailsPolicy, detailsRenderer.getStackTraceStore());
+    }
+
+    public DetailsPolicy getDetailsPolicy() {
+        return detailsRenderer.getPolicy();
+    }
+
+    /**
+     * Sets the store in which the stack traces of issues created from exceptions are interned. By default, no store
+     * is set and the stack trace is rendered into the details of every issue.
+     * <p>
+     * With a store, the details only contain the exception's class name, message, cause and suppressed exceptions,
+     * and the digest of the stack trace. Identical stack traces are kept only once in the store, and exceptions thrown
+     * from the same place again reuse the stack trace rendered before. The stack traces of a batch of issues can be
+     * collected with {@link StackTraceStore#tracesOf(java.util.Collection)}.
+     *
+     * @param stackTraceStore The store for the stack traces, or null to render them into the details.
+     */
+    public void setStackTraceStore(StackTraceStore stackTraceStore) {
+        this.detailsRenderer = new ExceptionDetailsRenderer(detailsRenderer.getPolicy(), stackTraceStore);
+    }
+
+    public StackTraceStore getStackTraceStore() {
+        return detailsRenderer.getStackTraceStore();
+    }
+
+    /**
+     * Sets the generator for the IDs of created issues. By default, time-ordered version 7 UUIDs are generated
+     * ({@link IssueIdGenerator#timeOrdered()}). Use {@link IssueIdGenerator#random()} for random version 4 UUIDs.
+     * Issues created from JSON keep their original ID.
+     *
+     * @param issueIdGenerator The generator for issue IDs.
+     * @throws IllegalArgumentException if issueIdGenerator is null.
+     */
+    public void setIssueIdGenerator(IssueIdGenerator issueIdGenerator) {
+        if (issueIdGenerator == null) {
+            throw new IllegalArgumentException("IssueIdGenerator cannot be null");
+        }
+        this.issueIdGenerator = issueIdGenerator;
+    }
+
+    public IssueIdGenerator getIssueIdGenerator() {
+        return issueIdGenerator;
+    }
+
+    /**
+     * Sets the clock providing the timestamps of issues that are created without an explicit timestamp.
+     * By default, the system UTC clock is used. Under very high issue rates a {@link CoarseClock} avoids a
+     * high-resolution clock read and an {@link Instant} allocation per issue, and a fixed clock makes
+     * timestamps deterministic in tests.
+     *
+     * @param clock The clock to use.
+     * @throws IllegalArgumentException if clock is null.
+     */
+    public void setClock(Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.clock = clock;
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Sets the rate limiter for created issues. By default, no rate limiter is set.
+     * <p>
+     * Issues rejected by the rate limiter are not created, and the create methods return null instead.
+     * The check happens before anything else is done, e.g. before a timestamp is taken or an ID is generated.
+     * Issues created from JSON are never rate limited.
+     *
+     * @param rateLimiter The rate limiter to use, or null to disable rate limiting.
+     */
+    public void setRateLimiter(IssueRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    public IssueRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Sets the metrics recording created issues and issues rejected by the rate limiter. By default, no metrics
+     * are recorded, which costs a single volatile read per created issue.
+     * <p>
+     * Independent of the metrics, every create call emits an {@link IssueCreationEvent} for JDK Flight Recorder
+     * if that event is enabled.
+     *
+     * @param metrics The metrics to record to, or null to disable recording.
+     */
+    public void setMetrics(IssueMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public IssueMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Creates an Issue object with the given parameters.
      *
      * @param issueType The type of the issue.
      * @param severity  The severity level of the issue.
-     * @return The created Issue object.
+     * @return The created Issue object, or null if it was rejected by the rate limiter.
      */
     public Issue createIssue(IssueType issueType, Severity severity) {
-        return new Issue(issueType, severity, service, Instant.now());
+        IssueCreationEvent event = new IssueCreationEvent();
+        event.begin();
+        if (!isPermitted(issueType, severity)) {
+            return null;
+        }
+        return created(newIssue(issueType, severity, clock.instant(), null, null, null), event, SOURCE_DIRECT);
     }
 
     /**
@@ -46,10 +194,15 @@ public class IssueManager {
      * @param issueType  The type of the issue.
      * @param severity   The severity level of the issue.
      * @param timeStamp  The timestamp of the issue.
-     * @return The created Issue object.
+     * @return The created Issue object, or null if it was rejected by the rate limiter.
      */
     public Issue createIssue(IssueType issueType, Severity severity, Instant timeStamp) {
-        return new Issue(issueType, severity, service, timeStamp);
+        IssueCreationEvent event = new IssueCreationEvent();
+        event.begin();
+        if (!isPermitted(issueType, severity)) {
+            return null;
+        }
+        return created(newIssue(issueType, severity, timeStamp, null, null, null), event, SOURCE_DIRECT);
     }
 
     /**
@@ -61,10 +214,15 @@ public class IssueManager {
      * @param causeIssue    The issue that caused this issue (can be null).
      * @param note          Additional note or details about the issue (can be null).
      * @param correlationID The correlation ID of the issue (can be null).
-     * @return The created Issue object.
+     * @return The created Issue object, or null if it was rejected by the rate limiter.
      */
     public Issue createIssue(IssueType issueType, Severity severity, Instant timeStamp, Issue causeIssue, String note, UUID correlationID) {
-        return new Issue(issueType, severity, service, timeStamp, causeIssue, note, correlationID);
+        IssueCreationEvent event = new IssueCreationEvent();
+        event.begin();
+        if (!isPermitted(issueType, severity)) {
+            return null;
+        }
+        return created(newIssue(issueType, severity, timeStamp, causeIssue, note, correlationID), event, SOURCE_DIRECT);
     }
 
     /**
@@ -75,18 +233,52 @@ public class IssueManager {
      * @throws IssueMappingException If an error occurs while processing the JSON.
      */
     public Issue createIssueFromJson(String json) {
-        try {
-            return objectMapper.readValue(json, Issue.class);
-        } catch (JsonProcessingException e) {
-            throw new IssueMappingException("Error occurred while processing JSON", e);
-        }
+        return IssueJson.read(json);
+    }
+
+    /**
+     * Creates an Issue object by deserializing UTF-8 encoded JSON.
+     *
+     * @param json The JSON representation of an Issue object.
+     * @return The deserialized Issue object.
+     * @throws IssueMappingException If an error occurs while processing the JSON.
+     */
+    public Issue createIssueFromJson(byte[] json) {
+        return IssueJson.read(json);
+    }
+
+    /**
+     * Creates an Issue object by deserializing the remaining bytes of a buffer containing UTF-8 encoded JSON.
+     * Heap buffers are read in place without copying.
+     *
+     * @param json The buffer containing the JSON representation of an Issue object.
+     * @return The deserialized Issue object.
+     * @throws IssueMappingException If an error occurs while processing the JSON.
+     */
+    public Issue createIssueFromJson(ByteBuffer json) {
+        return IssueJson.read(json);
+    }
+
+    /**
+     * Creates an Issue object by deserializing UTF-8 encoded JSON from a stream.
+     * The stream is not closed.
+     *
+     * @param inputStream The stream containing the JSON representation of an Issue object.
+     * @return The deserialized Issue object.
+     * @throws IssueMappingException If an error occurs while reading or processing the JSON.
+     */
+    public Issue createIssueFromJson(InputStream inputStream) {
+        return IssueJson.read(inputStream);
     }
 
     /**
      * Creates an Issue object based on the provided Exception.
+     * <p>
+     * The details containing the stack trace are rendered lazily according to the
+     * configured {@link DetailsPolicy} when they are first read or serialized.
      *
      * @param exception The Exception object from which to create the Issue.
-     * @return The created Issue object.
+     * @return The created Issue object, or null if it was rejected by the rate limiter.
      * @throws IllegalArgumentException If exception is null.
      * @throws IssueMappingException If no IssueType mapping is found for the exception.
      */
@@ -94,40 +286,60 @@ public class IssueManager {
         if (exception == null) {
             throw new IllegalArgumentException("Exception cannot be null");
         }
-        String exceptionClassName = exception.getClass().getName();
-        IssueType issueType = issueMapper.getIssueTypeFromException(exceptionClassName);
+        IssueCreationEvent event = new IssueCreationEvent();
+        event.begin();
+        IssueType issueType = issueMapper.getIssueTypeFromException(exception.getClass());
         if (issueType == null) {
-            throw new IssueMappingException("No IssueType found for exception: " + exceptionClassName);
+            throw new IssueMappingException("No IssueType found for exception: " + exception.getClass().getName());
         }
         Severity severity = Severity.ERROR; // Exceptions are treated as errors
-        Instant timeStamp = Instant.now();
+        if (!isPermitted(issueType, severity)) {
+            return null;
+        }
+        Instant timeStamp = clock.instant();
 
-        StringBuilder detailsBuilder = new StringBuilder();
-        detailsBuilder.append("Caused by ").append(exception.getClass().getName()).append("\n");
-        detailsBuilder.append("Exception message: ").append(exception.getMessage()).append("\n");
+        // The details are only rendered once they are read or serialized
+        ExceptionDetailsRenderer renderer = detailsRenderer;
+        return created(new Issue(issueIdGenerator.nextId(), issueType, severity, service, timeStamp, null, () -> renderer.render(exception), null), event, SOURCE_EXCEPTION);
+    }
 
-        Throwable cause = exception.getCause();
-        if (cause != null) {
-            detailsBuilder.append("Cause: ").append(cause).append("\n");
+    /**
+     * Creates an Issue object based on the provided exception class, without an exception instance.
+     * <p>
+     * This is a fast path for callers that only know the exception type, e.g. when an error
+     * is reported without a stack trace. The details only contain the class name and the message.
+     *
+     * @param exceptionClass The class of the exception from which to create the Issue.
+     * @param message        The exception message (can be null).
+     * @return The created Issue object, or null if it was rejected by the rate limiter.
+     * @throws IllegalArgumentException If exceptionClass is null.
+     * @throws IssueMappingException If no IssueType mapping is found for the exception class.
+     */
+    public Issue createIssueFromException(Class<? extends Throwable> exceptionClass, String message) {
+        if (exceptionClass == null) {
+            throw new IllegalArgumentException("Exception class cannot be null");
         }
-
-        Throwable[] suppressed = exception.getSuppressed();
-        if (suppressed.length > 0) {
-            detailsBuilder.append("Suppressed exceptions: ").append(Arrays.toString(suppressed)).append("\n");
+        IssueCreationEvent event = new IssueCreationEvent();
+        event.begin();
+        IssueType issueType = issueMapper.getIssueTypeFromException(exceptionClass);
+        if (issueType == null) {
+            throw new IssueMappingException("No IssueType found for exception: " + exceptionClass.getName());
         }
-
-        detailsBuilder.append("Stack trace: ").append(Arrays.toString(exception.getStackTrace()));
-
-        String details = detailsBuilder.toString();
-
-        return new Issue(issueType, severity, service, timeStamp, details);
+        Severity severity = Severity.ERROR; // Exceptions are treated as errors
+        if (!isPermitted(issueType, severity)) {
+            return null;
+        }
+        Instant timeStamp = clock.instant();
+        String details = "Caused by " + exceptionClass.getName() + "\n" +
+                "Exception message: " + message;
+        return created(newIssue(issueType, severity, timeStamp, null, details, null), event, SOURCE_EXCEPTION);
     }
 
     /**
      * Creates an Issue object based on the provided HTTP status code.
      *
      * @param httpStatus The HTTP status code.
-     * @return The created Issue object.
+     * @return The created Issue object, or null if it was rejected by the rate limiter.
      * @throws IllegalArgumentException if httpStatus is null or empty.
      */
     public Issue createIssueFromHttpStatus(String httpStatus) {
@@ -135,11 +347,64 @@ public class IssueManager {
             throw new IllegalArgumentException("HTTP Status cannot be null or empty.");
         }
 
-        String httpStatusCode = httpStatus.split(" ")[0]; // Extract the status code from httpStatus string
+        IssueCreationEvent event = new IssueCreationEvent();
+        event.begin();
+        int separator = httpStatus.indexOf(' ');
+        String httpStatusCode = separator < 0 ? httpStatus : httpStatus.substring(0, separator); // Extract the status code from httpStatus string
         IssueType issueType = issueMapper.getIssueTypeFromHttp(httpStatusCode);
         Severity severity = Severity.ERROR; // Http errors are treated as issues
-        Instant timeStamp = Instant.now();
+        if (!isPermitted(issueType, severity)) {
+            return null;
+        }
+        Instant timeStamp = clock.instant();
         String details = "Caused by HTTP Error: " + httpStatus;
-        return new Issue(issueType, severity, service, timeStamp, details);
+        return created(newIssue(issueType, severity, timeStamp, null, details, null), event, SOURCE_HTTP);
+    }
+
+    /**
+     * Creates an Issue object based on the provided HTTP status code.
+     * <p>
+     * This is the fast path for callers that already hold the status as a number: the IssueType
+     * is looked up in a precomputed table instead of parsing the status.
+     *
+     * @param httpStatus The HTTP status code.
+     * @return The created Issue object, or null if it was rejected by the rate limiter.
+     */
+    public Issue createIssueFromHttpStatus(int httpStatus) {
+        IssueCreationEvent event = new IssueCreationEvent();
+        event.begin();
+        IssueType issueType = issueMapper.getIssueTypeFromHttp(httpStatus);
+        Severity severity = Severity.ERROR; // Http errors are treated as issues
+        if (!isPermitted(issueType, severity)) {
+            return null;
+        }
+        Instant timeStamp = clock.instant();
+        String details = "Caused by HTTP Error: " + httpStatus;
+        return created(newIssue(issueType, severity, timeStamp, null, details, null), event, SOURCE_HTTP);
+    }
+
+    private boolean isPermitted(IssueType issueType, Severity severity) {
+        IssueRateLimiter limiter = rateLimiter;
+        if (limiter == null || issueType == null || severity == null || limiter.tryAcquire(issueType.name(), severity)) {
+            return true;
+        }
+        IssueMetrics issueMetrics = metrics;
+        if (issueMetrics != null) {
+            issueMetrics.recordRejected(issueType, severity);
+        }
+        return false;
+    }
+
+    private Issue created(Issue issue, IssueCreationEvent event, String source) {
+        IssueMetrics issueMetrics = metrics;
+        if (issueMetrics != null) {
+            issueMetrics.recordCreated(issue.getIssueType(), issue.getSeverity());
+        }
+        event.commit(source, issue);
+        return issue;
+    }
+
+    private Issue newIssue(IssueType issueType, Severity severity, Instant timeStamp, Issue causeIssue, String details, UUID correlationID) {
+        return new Issue(issueIdGenerator.nextId(), issueType, severity, service, timeStamp, causeIssue, details, correlationID);
     }
 }
\ No newline at end of file
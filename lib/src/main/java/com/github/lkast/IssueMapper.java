@@ -4,22 +4,51 @@ import com.github.lkast.exceptions.IssueMappingException;
 import com.github.lkast.model.IssueCategory;
 import com.github.lkast.model.IssueName;
 import com.github.lkast.model.IssueType;
-import org.yaml.snakeyaml.Yaml;
+import com.github.lkast.monitoring.IssueMappingEvent;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Enumeration;
-import java.util.Map;
-import java.util.Properties;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 /**
  * The IssueMapper class is responsible for mapping issues between different representations.
  * It provides methods to retrieve issue names, HTTP statuses, exceptions, descriptions, categories, and issue types.
+ * <p>
+ * All mappings are held in one immutable, fully compiled snapshot. Every lookup reads the current snapshot with a
+ * single volatile read and never takes a lock. A mapper loaded from a directory watches its configuration files and
+ * replaces the snapshot as a whole when they change, so a lookup sees either the old or the new configuration,
+ * never a mix of both.
  */
-public class IssueMapper {
-    private final Properties httpCodeMappings;
-    private final Properties javaExceptionMappings;
+public class IssueMapper implements AutoCloseable {
+    private static final String LOOKUP_HTTP = "http";
+    private static final String LOOKUP_EXCEPTION = "exception";
+    private static final Set<Path> CONFIG_FILES = Set.of(
+            Path.of(MappingSnapshot.ISSUES_FILE),
+            Path.of(MappingSnapshot.HTTP_CODE_MAPPINGS_FILE),
+            Path.of(MappingSnapshot.JAVA_EXCEPTION_MAPPINGS_FILE));
+    // Files are often written in several steps, so a reload waits until the directory was quiet for this long
+    private static final long RELOAD_DELAY_MILLIS = 100;
+
+    private final MappingSnapshot.ResourceOpener opener;
+    private final Path configDirectory;
+    private final Consumer<Exception> errorHandler;
+    private final WatchService watchService;
+    private final LongAdder reloadCount = new LongAdder();
+    private final LongAdder reloadErrorCount = new LongAdder();
+    private volatile MappingSnapshot snapshot;
+    private volatile Exception lastReloadError;
 
     /**
      * The IssueMapper class is responsible for mapping HTTP status codes, exceptions,
@@ -27,107 +56,322 @@ public class IssueMapper {
      * store the mappings and provides methods to retrieve the mappings based on
      * specific inputs.
      * <p>
-     * This class relies on the loadProperties method to load the mappings from
-     * properties files. It throws an IOException if there is an error loading
-     * the properties files.
+     * This constructor loads the mappings bundled on the classpath and does not watch them.
+     * It throws a RuntimeException if there is an error loading the files.
+     * <p>
+     * The issue definitions in issues.yaml are compiled once into canonical
+     * {@link IssueType} instances. Unknown or missing issue names are reported here
+     * as an {@link IssueMappingException} instead of on each lookup.
+     * <p>
+     * All mappings, including the reverse indexes from issue names to HTTP statuses
+     * and exceptions, are immutable after construction and can be read concurrently
+     * without locking.
+     * <p>
+     * If the library was built with the {@code generateMappings} task, the mappings were already parsed and validated
+     * at build time and are taken from the generated tables instead, so no configuration file is read. The generated
+     * tables are shared by all mappers constructed this way.
      */
     public IssueMapper() {
-        this.httpCodeMappings = new Properties();
-        this.javaExceptionMappings = new Properties();
+        this.opener = IssueMapper.class.getClassLoader()::getResourceAsStream;
+        this.configDirectory = null;
+        this.errorHandler = e -> {
+        };
+        this.watchService = null;
+        MappingSnapshot generated = MappingSnapshot.generated();
         try {
-            loadProperties(httpCodeMappings, "httpCodeMappings.properties");
-            loadProperties(javaExceptionMappings, "javaExceptionMappings.properties");
+            this.snapshot = generated != null ? generated : MappingSnapshot.load(opener);
         } catch (IOException e) {
             // Here we wrap the IOException in a RuntimeException.
             // This will crash the program but ensures that errors won't go unnoticed.
-            throw new RuntimeException("Error loading properties files", e);
+            throw new RuntimeException("Error loading mapping files", e);
+        }
+    }
+
+    /**
+     * Constructs an IssueMapper that loads issues.yaml, httpCodeMappings.properties and
+     * javaExceptionMappings.properties from a directory and reloads them when they change.
+     * Errors while reloading are only counted, see {@link #getReloadErrorCount()}.
+     *
+     * @param configDirectory The directory containing the mapping files.
+     * @throws IllegalArgumentException If configDirectory is null or not a directory.
+     * @throws IssueMappingException    If a file contains invalid mappings.
+     * @see #IssueMapper(Path, Consumer)
+     */
+    public IssueMapper(Path configDirectory) {
+        this(configDirectory, e -> {
+        });
+    }
+
+    /**
+     * Constructs an IssueMapper that loads issues.yaml, httpCodeMappings.properties and
+     * javaExceptionMappings.properties from a directory and reloads them when they change.
+     * <p>
+     * All three files must exist in the directory. A daemon thread watches the directory and, once changes have
+     * settled, loads and validates all files into a new snapshot, which then replaces the current one with a single
+     * volatile write. If a file is missing, unreadable or invalid, the current snapshot stays in place and the error
+     * is passed to the error handler. The thread runs until {@link #close()} is called.
+     * <p>
+     * Issues keep the {@link IssueType} they were created with, so a reload only affects issues created afterwards.
+     *
+     * @param configDirectory The directory containing the mapping files.
+     * @param errorHandler    The handler of errors while reloading, called on the watching thread.
+     * @throws IllegalArgumentException If configDirectory or errorHandler is null, or configDirectory is not a directory.
+     * @throws IssueMappingException    If a file contains invalid mappings.
+     */
+    public IssueMapper(Path configDirectory, Consumer<Exception> errorHandler) {
+        if (configDirectory == null || !Files.isDirectory(configDirectory)) {
+            throw new IllegalArgumentException("Config directory must be an existing directory");
+        }
+        if (errorHandler == null) {
+            throw new IllegalArgumentException("Error handler cannot be null");
+        }
+        this.configDirectory = configDirectory;
+        this.opener = filename -> openConfigFile(configDirectory.resolve(filename));
+        this.errorHandler = errorHandler;
+        try {
+            this.snapshot = MappingSnapshot.load(opener);
+            this.watchService = configDirectory.getFileSystem().newWatchService();
+            configDirectory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new RuntimeException("Error loading mapping files from " + configDirectory, e);
+        }
+        Thread thread = new Thread(this::watch, "iml-mapping-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static InputStream openConfigFile(Path file) throws IOException {
+        try {
+            return Files.newInputStream(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = affectsConfigFiles(key);
+                while (changed) {
+                    // Wait until no further change arrives within the delay
+                    WatchKey next = watchService.poll(RELOAD_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    affectsConfigFiles(next);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // The mapper was closed
+        }
+    }
+
+    private static boolean affectsConfigFiles(WatchKey key) {
+        boolean affected = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || CONFIG_FILES.contains((Path) event.context())) {
+                affected = true;
+            }
         }
+        key.reset();
+        return affected;
     }
 
     /**
-     * Loads properties from a specified file into a Properties object.
+     * Loads and validates all mapping files again and replaces the current mappings if they are valid.
+     * This is done automatically for mappers loaded from a directory, but can also be triggered explicitly.
+     * <p>
+     * If loading fails, the current mappings stay in place and the error is passed to the error handler.
      *
-     * @param properties The Properties object to load the properties into.
-     * @param filename   The name of the file to load the properties from.
-     * @throws IOException If an I/O error occurs while loading the properties.
+     * @return true if the mappings were replaced, false if loading failed.
      */
-    private void loadProperties(Properties properties, String filename) throws IOException {
-        // Use try-with-resources to ensure the InputStream gets closed
-        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(filename)) {
-            if (inputStream != null) {
-                properties.load(inputStream);
-            } else {
-                throw new IOException("Couldn't load " + filename + " file");
+    public synchronized boolean reload() {
+        MappingSnapshot loaded;
+        try {
+            loaded = MappingSnapshot.load(opener);
+        } catch (IOException | RuntimeException e) {
+            reloadErrorCount.increment();
+            lastReloadError = e;
+            try {
+                errorHandler.accept(e);
+            } catch (RuntimeException handlerError) {
+                // A failing handler must not stop the watching thread
+            }
+            return false;
+        }
+        snapshot = loaded;
+        reloadCount.increment();
+        return true;
+    }
+
+    /**
+     * @return The directory the mappings are loaded from, or null if they are loaded from the classpath.
+     */
+    public Path getConfigDirectory() {
+        return configDirectory;
+    }
+
+    /**
+     * @return The number of successful reloads.
+     */
+    public long getReloadCount() {
+        return reloadCount.sum();
+    }
+
+    /**
+     * @return The number of reloads that failed and left the previous mappings in place.
+     */
+    public long getReloadErrorCount() {
+        return reloadErrorCount.sum();
+    }
+
+    /**
+     * @return The error of the last failed reload, or null if no reload failed.
+     */
+    public Exception getLastReloadError() {
+        return lastReloadError;
+    }
+
+    /**
+     * Stops watching the configuration directory. The current mappings remain usable.
+     * Does nothing for mappers loaded from the classpath.
+     */
+    @Override
+    public void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                // Nothing left to clean up
             }
         }
     }
 
     /**
      * Retrieves the {@link IssueName} associated with the given HTTP status.
+     * <p>
+     * Keys of httpCodeMappings.properties are matched exactly first. Three-digit status codes without an exact match
+     * fall back to the ranges and classes, e.g. {@code 5xx}, declared in the file.
      *
      * @param httpStatus The HTTP status code.
-     * @return The {@link IssueName} associated with the HTTP status.
+     * @return The {@link IssueName} associated with the HTTP status, or {@link IssueName#UNSPECIFIED_ISSUE} if no mapping is found.
      * @throws IllegalArgumentException if httpStatus is null.
-     * @throws IssueMappingException if no mapping is found for the HTTP status.
      */
     public IssueName getIssueNameFromHttp(String httpStatus) {
         if (httpStatus == null) {
             throw new IllegalArgumentException("HTTP status cannot be null");
         }
 
-        String issueString = this.httpCodeMappings.getProperty(httpStatus);
-
-        if (issueString == null) {
-            return IssueName.UNSPECIFIED_ISSUE;
-        }
+        IssueMappingEvent event = new IssueMappingEvent();
+        event.begin();
+        IssueName issueName = snapshot.issueNameFromHttp(httpStatus);
+        event.commit(LOOKUP_HTTP, httpStatus, issueName);
+        return issueName;
+    }
 
-        try {
-            return IssueName.valueOf(issueString);
-        } catch (IllegalArgumentException e) {
-            throw new IssueMappingException("Invalid issue name:" + issueString, e);
-        }
+    /**
+     * Retrieves the {@link IssueName} associated with the given HTTP status.
+     *
+     * @param httpStatus The HTTP status code.
+     * @return The {@link IssueName} associated with the HTTP status, or {@link IssueName#UNSPECIFIED_ISSUE} if no mapping is found.
+     * @see #getIssueTypeFromHttp(int)
+     */
+    public IssueName getIssueNameFromHttp(int httpStatus) {
+        return getIssueTypeFromHttp(httpStatus).name();
     }
 
     /**
      * Retrieves the {@link IssueName} associated with the given exception.
      *
+     * @param exception The fully qualified class name of the exception.
+     * @return The {@link IssueName} associated with the exception, or {@link IssueName#UNSPECIFIED_ISSUE} if no mapping is found.
+     * @throws IllegalArgumentException if exception is null.
      */
     public IssueName getIssueNameFromException(String exception) {
         if (exception == null) {
             throw new IllegalArgumentException("Exception cannot be null");
         }
 
-        String issueString = this.javaExceptionMappings.getProperty(exception);
-
-        if (issueString == null) {
-            return IssueName.UNSPECIFIED_ISSUE;
-        }
+        IssueMappingEvent event = new IssueMappingEvent();
+        event.begin();
+        IssueName issueName = snapshot.javaExceptionMappings.getOrDefault(exception, IssueName.UNSPECIFIED_ISSUE);
+        event.commit(LOOKUP_EXCEPTION, exception, issueName);
+        return issueName;
+    }
 
-        try {
-            return IssueName.valueOf(issueString);
-        } catch (IllegalArgumentException e) {
-            throw new IssueMappingException("Invalid issue name:" + issueString, e);
+    /**
+     * Retrieves the {@link IssueName} associated with the given exception class.
+     * <p>
+     * Unlike {@link #getIssueNameFromException(String)}, the class hierarchy is taken into account:
+     * if the class itself is not mapped, the nearest mapped superclass or interface is used.
+     * The result is cached per class, so repeated lookups do not hash any class names.
+     *
+     * @param exceptionClass The class of the exception.
+     * @return The {@link IssueName} associated with the exception class, or {@link IssueName#UNSPECIFIED_ISSUE} if no mapping is found.
+     * @throws IllegalArgumentException if exceptionClass is null.
+     */
+    public IssueName getIssueNameFromException(Class<? extends Throwable> exceptionClass) {
+        if (exceptionClass == null) {
+            throw new IllegalArgumentException("Exception class cannot be null");
         }
+        IssueMappingEvent event = new IssueMappingEvent();
+        event.begin();
+        IssueName issueName = snapshot.issueNameByExceptionClass.get(exceptionClass);
+        event.commit(LOOKUP_EXCEPTION, exceptionClass.getName(), issueName);
+        return issueName;
     }
 
     /**
      * Retrieves the HTTP status code associated with the given IssueName.
+     * <p>
+     * If several HTTP status codes map to the same IssueName, the one declared first
+     * in httpCodeMappings.properties is returned. If the IssueName is only mapped by a range or class,
+     * its first status code is returned, e.g. {@code 500} for {@code 5xx}.
      *
      * @param issueName The IssueName for which to retrieve the HTTP status code.
      * @return The HTTP status code associated with the IssueName, or null if no match is found.
+     * @throws IllegalArgumentException if issueName is null.
      */
     public String getHttpStatusFromIssueName(IssueName issueName) {
-        return getFirstKeyMatchByValue(issueName, httpCodeMappings);
+        if (issueName == null) {
+            throw new IllegalArgumentException("IssueName cannot be null");
+        }
+        return snapshot.httpStatusByIssueName.get(issueName);
     }
 
     /**
      * Retrieves the exception name associated with the given IssueName.
+     * <p>
+     * If several exceptions map to the same IssueName, the one declared first
+     * in javaExceptionMappings.properties is returned.
      *
      * @param issueName The IssueName for which to retrieve the exception name.
      * @return The exception name associated with the IssueName, or null if no match is found.
+     * @throws IllegalArgumentException if issueName is null.
      */
     public String getExceptionFromIssueName(IssueName issueName) {
-        return getFirstKeyMatchByValue(issueName, javaExceptionMappings);
+        List<String> exceptions = getExceptionsFromIssueName(issueName);
+        return exceptions.isEmpty() ? null : exceptions.get(0);
+    }
+
+    /**
+     * Retrieves all exception names associated with the given IssueName.
+     *
+     * @param issueName The IssueName for which to retrieve the exception names.
+     * @return An unmodifiable list of exception names in the order they are declared
+     * in javaExceptionMappings.properties, or an empty list if no match is found.
+     * @throws IllegalArgumentException if issueName is null.
+     */
+    public List<String> getExceptionsFromIssueName(IssueName issueName) {
+        if (issueName == null) {
+            throw new IllegalArgumentException("IssueName cannot be null");
+        }
+        return snapshot.exceptionsByIssueName.getOrDefault(issueName, List.of());
     }
 
     /**
@@ -139,8 +383,36 @@ public class IssueMapper {
      * @throws IssueMappingException if no mapping is found for the exception name.
      */
     public IssueType getIssueTypeFromException(String exception) {
-        IssueName issueName = getIssueNameFromException(exception);
-        return new IssueType(issueName, getDescriptionForIssue(issueName), getCategoryForIssue(issueName));
+        if (exception == null) {
+            throw new IllegalArgumentException("Exception cannot be null");
+        }
+        // Read the snapshot once, so the name and the type come from the same configuration
+        MappingSnapshot current = snapshot;
+        IssueMappingEvent event = new IssueMappingEvent();
+        event.begin();
+        IssueName issueName = current.javaExceptionMappings.getOrDefault(exception, IssueName.UNSPECIFIED_ISSUE);
+        event.commit(LOOKUP_EXCEPTION, exception, issueName);
+        return current.issueTypes.get(issueName);
+    }
+
+    /**
+     * Retrieves the IssueType based on the provided exception class, taking its class hierarchy into account.
+     *
+     * @param exceptionClass The class of the exception.
+     * @return The IssueType object representing the issue.
+     * @throws IllegalArgumentException if exceptionClass is null.
+     * @see #getIssueNameFromException(Class)
+     */
+    public IssueType getIssueTypeFromException(Class<? extends Throwable> exceptionClass) {
+        if (exceptionClass == null) {
+            throw new IllegalArgumentException("Exception class cannot be null");
+        }
+        MappingSnapshot current = snapshot;
+        IssueMappingEvent event = new IssueMappingEvent();
+        event.begin();
+        IssueName issueName = current.issueNameByExceptionClass.get(exceptionClass);
+        event.commit(LOOKUP_EXCEPTION, exceptionClass.getName(), issueName);
+        return current.issueTypes.get(issueName);
     }
 
     /**
@@ -152,61 +424,46 @@ public class IssueMapper {
      * @throws IssueMappingException if no mapping is found for the HTTP status code.
      */
     public IssueType getIssueTypeFromHttp(String httpStatus) {
-        IssueName issueName = getIssueNameFromHttp(httpStatus);
-        return new IssueType(issueName, getDescriptionForIssue(issueName), getCategoryForIssue(issueName));
+        if (httpStatus == null) {
+            throw new IllegalArgumentException("HTTP status cannot be null");
+        }
+        MappingSnapshot current = snapshot;
+        IssueMappingEvent event = new IssueMappingEvent();
+        event.begin();
+        IssueName issueName = current.issueNameFromHttp(httpStatus);
+        event.commit(LOOKUP_HTTP, httpStatus, issueName);
+        return current.issueTypes.get(issueName);
     }
 
     /**
-     * Retrieves the first key that matches the given value in the provided properties.
+     * Retrieves the IssueType based on the provided HTTP status code.
+     * <p>
+     * The IssueTypes of all status codes from 100 to 599 are precomputed,
+     * including range and class fallbacks, so this lookup is a single array access.
      *
-     * @param issueName   the IssueName to match against the property values
-     * @param properties  the Properties object to search for the matching key
-     * @return the first key that matches the given value, or null if no match is found
+     * @param httpStatus The HTTP status code.
+     * @return The IssueType object representing the issue, or the one of {@link IssueName#UNSPECIFIED_ISSUE}
+     * if the status code is not mapped or outside the valid range.
      */
-    private String getFirstKeyMatchByValue(IssueName issueName, Properties properties) {
-        Enumeration<?> keys = properties.propertyNames();
-        String issueNameString = issueName.name();
-
-        while (keys.hasMoreElements()) {
-            String key = (String) keys.nextElement();
-            String value = properties.getProperty(key);
-
-            if (value.equals(issueNameString)) {
-                return key;
-            }
+    public IssueType getIssueTypeFromHttp(int httpStatus) {
+        IssueMappingEvent event = new IssueMappingEvent();
+        event.begin();
+        IssueType issueType = snapshot.issueTypeForHttpStatus(httpStatus);
+        if (event.shouldCommit()) {
+            event.commit(LOOKUP_HTTP, Integer.toString(httpStatus), issueType.name());
         }
-
-        return null;
+        return issueType;
     }
 
     /**
      * Retrieves the description for a specific issue.
      *
      * @param issueName The name of the issue.
-     * @return The description of the issue, or null if no description is found.
+     * @return The description of the issue.
      * @throws IllegalArgumentException if the issueName is null.
      */
     public String getDescriptionForIssue(IssueName issueName) {
-        if (issueName == null) {
-            throw new IllegalArgumentException("IssueName cannot be null");
-        }
-
-        Yaml yaml = new Yaml();
-        InputStream inputStream = IssueMapper.class
-                .getClassLoader()
-                .getResourceAsStream("issues.yaml");
-
-        Map<String, Map<String, Map<String, String>>> mappings = yaml.load(inputStream);
-
-        for (Map.Entry<String, Map<String, Map<String, String>>> entry : mappings.entrySet()) {
-            Map<String, Map<String, String>> issues = entry.getValue();
-            for (Map.Entry<String, Map<String, String>> issue : issues.entrySet()) {
-                if (issue.getKey().equalsIgnoreCase(issueName.name())) {
-                    return issue.getValue().get("Description");
-                }
-            }
-        }
-        return null;
+        return getIssueType(issueName).description();
     }
 
 
@@ -216,38 +473,25 @@ public class IssueMapper {
      * @param issueName The name of the issue.
      * @return The category of the issue.
      * @throws IllegalArgumentException if the issueName is null.
-     * @throws IssueMappingException if no mapping is found for the issueName.
      */
     public IssueCategory getCategoryForIssue(IssueName issueName) {
+        return getIssueType(issueName).category();
+    }
+
+    /**
+     * Retrieves the canonical {@link IssueType} for a given issue name.
+     * <p>
+     * The returned instance is shared by all callers of this mapper until the mappings are reloaded,
+     * so lookups neither parse the configuration nor allocate.
+     *
+     * @param issueName The name of the issue.
+     * @return The IssueType registered for the issue name.
+     * @throws IllegalArgumentException if the issueName is null.
+     */
+    public IssueType getIssueType(IssueName issueName) {
         if (issueName == null) {
             throw new IllegalArgumentException("IssueName cannot be null");
         }
-
-        Yaml yaml = new Yaml();
-        InputStream inputStream;
-        try {
-            inputStream = IssueMapper.class
-                    .getClassLoader()
-                    .getResourceAsStream("issues.yaml");
-
-            if (inputStream == null) {
-                throw new FileNotFoundException("issues.yaml does not exist");
-            }
-
-            Map<String, Map<String, Map<String, String>>> mappings = yaml.load(inputStream);
-            for (Map.Entry<String, Map<String, Map<String, String>>> entry : mappings.entrySet()) {
-                String potentialCategory = entry.getKey();
-                Map<String, Map<String, String>> issues = entry.getValue();
-                for (Map.Entry<String, Map<String, String>> issue : issues.entrySet()) {
-                    // If we found the issue under this category, return this category.
-                    if (issue.getKey().toUpperCase().equals(issueName.name())) {
-                        return IssueCategory.valueOf(potentialCategory.toUpperCase());
-                    }
-                }
-            }
-        } catch (FileNotFoundException e) {
-            throw new IssueMappingException("File not found", e);
-        }
-        throw new IssueMappingException("No Issue found for: " + issueName);
+        return snapshot.issueTypes.get(issueName);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,420 @@
+package com.github.lkast;
+
+import com.github.lkast.exceptions.IssueMappingException;
+import com.github.lkast.model.IssueCategory;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.IssueType;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * An immutable, fully compiled set of mappings, loaded from issues.yaml, httpCodeMappings.properties
+ * and javaExceptionMappings.properties.
+ * <p>
+ * A snapshot is either compiled completely or not at all: any invalid file fails {@link #load(ResourceOpener)},
+ * so an {@link IssueMapper} never publishes a partially applied configuration. All fields are final and
+ * the collections are unmodifiable, so a snapshot can be read concurrently without locking.
+ */
+final class MappingSnapshot {
+    static final String ISSUES_FILE = "issues.yaml";
+    static final String HTTP_CODE_MAPPINGS_FILE = "httpCodeMappings.properties";
+    static final String JAVA_EXCEPTION_MAPPINGS_FILE = "javaExceptionMappings.properties";
+    static final int MIN_HTTP_STATUS = 100;
+    static final int MAX_HTTP_STATUS = 599;
+    static final String GENERATED_MAPPINGS_CLASS = "com.github.lkast.GeneratedMappings";
+
+    final Map<String, IssueName> httpCodeMappings;
+    final Map<String, IssueName> javaExceptionMappings;
+    final Map<IssueName, String> httpStatusByIssueName;
+    final Map<IssueName, List<String>> exceptionsByIssueName;
+    final Map<IssueName, IssueType> issueTypes;
+    final IssueType[] issueTypesByHttpStatus;
+    // Cached per snapshot, so a reload also discards the resolved class hierarchies
+    final ClassValue<IssueName> issueNameByExceptionClass = new ClassValue<>() {
+        @Override
+        protected IssueName computeValue(Class<?> type) {
+            return resolveIssueNameFromException(type);
+        }
+    };
+
+    /**
+     * Opens a configuration file by its name.
+     */
+    @FunctionalInterface
+    interface ResourceOpener {
+        /**
+         * @param filename The name of the configuration file.
+         * @return The content of the file, or null if it does not exist.
+         * @throws IOException If the file cannot be opened.
+         */
+        InputStream open(String filename) throws IOException;
+    }
+
+    private MappingSnapshot(Map<String, IssueName> httpCodeMappings, Map<String, IssueName> javaExceptionMappings,
+                            Map<IssueName, IssueType> issueTypes) {
+        this.httpCodeMappings = httpCodeMappings;
+        this.javaExceptionMappings = javaExceptionMappings;
+        this.issueTypes = issueTypes;
+        this.httpStatusByIssueName = httpStatusByIssueName(httpCodeMappings);
+        this.issueTypesByHttpStatus = compileHttpStatusTable(httpCodeMappings, issueTypes);
+        this.exceptionsByIssueName = keysByIssueName(javaExceptionMappings);
+    }
+
+    /**
+     * Loads and compiles all configuration files.
+     *
+     * @param opener The opener of the configuration files.
+     * @return The compiled snapshot.
+     * @throws IOException           If a file does not exist or cannot be read.
+     * @throws IssueMappingException If a file contains invalid mappings.
+     */
+    static MappingSnapshot load(ResourceOpener opener) throws IOException {
+        Map<String, IssueName> httpCodeMappings = loadProperties(opener, HTTP_CODE_MAPPINGS_FILE);
+        Map<String, IssueName> javaExceptionMappings = loadProperties(opener, JAVA_EXCEPTION_MAPPINGS_FILE);
+        Map<IssueName, IssueType> issueTypes = loadIssueTypes(opener, ISSUES_FILE);
+        return new MappingSnapshot(httpCodeMappings, javaExceptionMappings, issueTypes);
+    }
+
+    /**
+     * Compiles mappings that were already parsed, e.g. by the generated {@value #GENERATED_MAPPINGS_CLASS} class.
+     *
+     * @param httpCodeMappings      The HTTP mappings in declaration order.
+     * @param javaExceptionMappings The exception mappings in declaration order.
+     * @param issueTypes            The IssueType of every IssueName.
+     * @return The compiled snapshot.
+     * @throws IssueMappingException If an IssueName has no IssueType.
+     */
+    static MappingSnapshot of(Map<String, IssueName> httpCodeMappings, Map<String, IssueName> javaExceptionMappings,
+                              Map<IssueName, IssueType> issueTypes) {
+        for (IssueName issueName : IssueName.values()) {
+            if (!issueTypes.containsKey(issueName)) {
+                throw new IssueMappingException("No Issue found for: " + issueName);
+            }
+        }
+        return new MappingSnapshot(Collections.unmodifiableMap(httpCodeMappings),
+                Collections.unmodifiableMap(javaExceptionMappings), Collections.unmodifiableMap(issueTypes));
+    }
+
+    /**
+     * Returns the mappings compiled into the {@value #GENERATED_MAPPINGS_CLASS} class by the {@code generateMappings}
+     * build task. They are created from literals, so neither the configuration files nor SnakeYAML are loaded.
+     * <p>
+     * The class is looked up reflectively, so the library still works when it was built without the task.
+     * The snapshot is created once and shared, since it is immutable.
+     *
+     * @return The generated snapshot, or null if the class is not present.
+     * @throws IssueMappingException If the generated class cannot be used.
+     */
+    static MappingSnapshot generated() {
+        return GeneratedHolder.SNAPSHOT;
+    }
+
+    private static final class GeneratedHolder {
+        static final MappingSnapshot SNAPSHOT = loadGenerated();
+
+        private static MappingSnapshot loadGenerated() {
+            try {
+                Class<?> type = Class.forName(GENERATED_MAPPINGS_CLASS, true, MappingSnapshot.class.getClassLoader());
+                Method snapshot = type.getDeclaredMethod("snapshot");
+                snapshot.setAccessible(true);
+                return (MappingSnapshot) snapshot.invoke(null);
+            } catch (ClassNotFoundException e) {
+                return null;
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw new IssueMappingException("Error loading " + GENERATED_MAPPINGS_CLASS, e);
+            }
+        }
+    }
+
+    /**
+     * Loads and compiles the configuration files bundled on the classpath.
+     *
+     * @return The compiled snapshot.
+     * @throws IOException If a file does not exist or cannot be read.
+     */
+    static MappingSnapshot loadFromClasspath() throws IOException {
+        return load(MappingSnapshot.class.getClassLoader()::getResourceAsStream);
+    }
+
+    IssueType issueTypeForHttpStatus(int httpStatus) {
+        if (httpStatus < MIN_HTTP_STATUS || httpStatus > MAX_HTTP_STATUS) {
+            return issueTypes.get(IssueName.UNSPECIFIED_ISSUE);
+        }
+        return issueTypesByHttpStatus[httpStatus - MIN_HTTP_STATUS];
+    }
+
+    IssueName issueNameFromHttp(String httpStatus) {
+        IssueName issueName = httpCodeMappings.get(httpStatus);
+        if (issueName == null) {
+            int status = parseHttpStatusCode(httpStatus);
+            issueName = status < 0 ? IssueName.UNSPECIFIED_ISSUE : issueTypeForHttpStatus(status).name();
+        }
+        return issueName;
+    }
+
+    /**
+     * Loads the mappings of a properties file, keeping the order in which the keys are declared.
+     *
+     * @param opener   The opener of the configuration files.
+     * @param filename The name of the file to load the properties from.
+     * @return An unmodifiable map from property key to {@link IssueName}, in declaration order.
+     * @throws IOException           If an I/O error occurs while loading the properties.
+     * @throws IssueMappingException If a property value is not a valid IssueName.
+     */
+    private static Map<String, IssueName> loadProperties(ResourceOpener opener, String filename) throws IOException {
+        Map<String, IssueName> mappings = new LinkedHashMap<>();
+        // Properties itself is an unordered Hashtable, so we capture the entries as they are parsed.
+        Properties properties = new Properties() {
+            @Override
+            public synchronized Object put(Object key, Object value) {
+                return mappings.put((String) key, parseEnum(IssueName.class, (String) value, filename));
+            }
+        };
+        // Use try-with-resources to ensure the InputStream gets closed
+        try (InputStream inputStream = opener.open(filename)) {
+            if (inputStream != null) {
+                properties.load(inputStream);
+            } else {
+                throw new IOException("Couldn't load " + filename + " file");
+            }
+        }
+        return Collections.unmodifiableMap(mappings);
+    }
+
+    /**
+     * Builds a reverse index that maps every IssueName to the first HTTP status code declared for it.
+     * If an IssueName is only mapped by ranges or classes, the first status code of the first range or class is used.
+     *
+     * @param mappings the HTTP mappings in declaration order
+     * @return an unmodifiable map from IssueName to its HTTP status code
+     */
+    private static Map<IssueName, String> httpStatusByIssueName(Map<String, IssueName> mappings) {
+        Map<IssueName, String> index = new EnumMap<>(IssueName.class);
+        mappings.forEach((key, issueName) -> {
+            if (parseHttpStatusRange(key) == null || isHttpStatusCode(key)) {
+                index.putIfAbsent(issueName, key);
+            }
+        });
+        mappings.forEach((key, issueName) -> {
+            int[] range = parseHttpStatusRange(key);
+            if (range != null) {
+                index.putIfAbsent(issueName, String.valueOf(range[0]));
+            }
+        });
+        return Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Compiles the HTTP mappings into a table holding the IssueType of every status code from
+     * {@value #MIN_HTTP_STATUS} to {@value #MAX_HTTP_STATUS}.
+     * <p>
+     * Besides single status codes like {@code 404}, keys can be ranges like {@code 500-504} or classes like {@code 5xx}.
+     * A single status code takes precedence over a range, which takes precedence over a class. Among keys of the same
+     * kind, the one declared first wins. Status codes that are not covered map to {@link IssueName#UNSPECIFIED_ISSUE}.
+     *
+     * @param mappings   the HTTP mappings in declaration order
+     * @param issueTypes the canonical IssueTypes
+     * @return the table, indexed by status code minus {@value #MIN_HTTP_STATUS}
+     */
+    private static IssueType[] compileHttpStatusTable(Map<String, IssueName> mappings, Map<IssueName, IssueType> issueTypes) {
+        IssueType[] table = new IssueType[MAX_HTTP_STATUS - MIN_HTTP_STATUS + 1];
+        // Single status codes first, then ranges, then classes, so that more specific keys win
+        for (int precedence = 0; precedence < 3; precedence++) {
+            for (Map.Entry<String, IssueName> entry : mappings.entrySet()) {
+                String key = entry.getKey();
+                int[] range = parseHttpStatusRange(key);
+                if (range == null || precedence != httpKeyPrecedence(key)) {
+                    continue;
+                }
+                for (int status = Math.max(range[0], MIN_HTTP_STATUS); status <= Math.min(range[1], MAX_HTTP_STATUS); status++) {
+                    if (table[status - MIN_HTTP_STATUS] == null) {
+                        table[status - MIN_HTTP_STATUS] = issueTypes.get(entry.getValue());
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] == null) {
+                table[i] = issueTypes.get(IssueName.UNSPECIFIED_ISSUE);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Parses a key of the HTTP mappings into the range of status codes it covers.
+     *
+     * @param key a single status code like {@code 404}, a range like {@code 500-504} or a class like {@code 5xx}
+     * @return the first and last status code covered by the key, or null if the key is none of the above
+     */
+    private static int[] parseHttpStatusRange(String key) {
+        if (isHttpStatusCode(key)) {
+            int status = parseHttpStatusCode(key);
+            return new int[]{status, status};
+        }
+        if (key.length() == 3 && Character.isDigit(key.charAt(0)) && key.substring(1).equalsIgnoreCase("xx")) {
+            int statusClass = key.charAt(0) - '0';
+            return new int[]{statusClass * 100, statusClass * 100 + 99};
+        }
+        int separator = key.indexOf('-');
+        if (separator > 0 && isHttpStatusCode(key.substring(0, separator)) && isHttpStatusCode(key.substring(separator + 1))) {
+            int from = parseHttpStatusCode(key.substring(0, separator));
+            int to = parseHttpStatusCode(key.substring(separator + 1));
+            if (from > to) {
+                throw new IssueMappingException("Invalid HTTP status range: " + key);
+            }
+            return new int[]{from, to};
+        }
+        return null;
+    }
+
+    /**
+     * Determines the precedence of a valid key of the HTTP mappings.
+     *
+     * @param key a single status code, a range or a class
+     * @return 0 for a single status code, 1 for a range and 2 for a class
+     */
+    private static int httpKeyPrecedence(String key) {
+        if (isHttpStatusCode(key)) {
+            return 0;
+        }
+        return key.indexOf('-') > 0 ? 1 : 2;
+    }
+
+    private static boolean isHttpStatusCode(String value) {
+        return parseHttpStatusCode(value) >= 0;
+    }
+
+    /**
+     * Parses a three-digit HTTP status code without allocating.
+     *
+     * @param value the value to parse
+     * @return the status code, or -1 if the value is not a three-digit number
+     */
+    static int parseHttpStatusCode(String value) {
+        if (value.length() != 3) {
+            return -1;
+        }
+        int status = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            status = status * 10 + (c - '0');
+        }
+        return status;
+    }
+
+    /**
+     * Builds a reverse index that maps every IssueName to all keys declared for it.
+     *
+     * @param mappings the mappings in declaration order
+     * @return an unmodifiable map from IssueName to its keys in declaration order
+     */
+    private static Map<IssueName, List<String>> keysByIssueName(Map<String, IssueName> mappings) {
+        Map<IssueName, List<String>> keys = new EnumMap<>(IssueName.class);
+        mappings.forEach((key, issueName) -> keys.computeIfAbsent(issueName, k -> new ArrayList<>()).add(key));
+
+        Map<IssueName, List<String>> index = new EnumMap<>(IssueName.class);
+        keys.forEach((issueName, list) -> index.put(issueName, List.copyOf(list)));
+        return Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Resolves the mapping of the nearest type in the class hierarchy.
+     * <p>
+     * The hierarchy is searched breadth-first, so a type that is fewer inheritance steps away wins.
+     * On the same level, superclasses are checked before interfaces, which are checked in declaration order.
+     *
+     * @param type The class to resolve.
+     * @return The {@link IssueName} of the nearest mapped type, or {@link IssueName#UNSPECIFIED_ISSUE} if none is mapped.
+     */
+    private IssueName resolveIssueNameFromException(Class<?> type) {
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        queue.add(type);
+        while (!queue.isEmpty()) {
+            Class<?> current = queue.poll();
+            if (!visited.add(current)) {
+                continue;
+            }
+            IssueName issueName = javaExceptionMappings.get(current.getName());
+            if (issueName != null) {
+                return issueName;
+            }
+            if (current.getSuperclass() != null) {
+                queue.add(current.getSuperclass());
+            }
+            queue.addAll(Arrays.asList(current.getInterfaces()));
+        }
+        return IssueName.UNSPECIFIED_ISSUE;
+    }
+
+    /**
+     * Compiles the issue definitions of a YAML file into one canonical {@link IssueType} per {@link IssueName}.
+     * <p>
+     * The file is expected to group issues by category, e.g. {@code INTERNAL_ISSUE: VALIDATION_ISSUE: Description: ...}.
+     *
+     * @param opener   The opener of the configuration files.
+     * @param filename The name of the YAML file to load the issue definitions from.
+     * @return An unmodifiable map containing an IssueType for every IssueName.
+     * @throws IOException           If the file does not exist or cannot be read.
+     * @throws IssueMappingException If the file contains an unknown category or issue name,
+     *                               or does not define every IssueName.
+     */
+    private static Map<IssueName, IssueType> loadIssueTypes(ResourceOpener opener, String filename) throws IOException {
+        Map<String, Map<String, Map<String, String>>> mappings;
+        try (InputStream inputStream = opener.open(filename)) {
+            if (inputStream == null) {
+                throw new IOException("Couldn't load " + filename + " file");
+            }
+            mappings = new Yaml().load(inputStream);
+        }
+        if (mappings == null) {
+            throw new IssueMappingException(filename + " does not define any issues");
+        }
+
+        Map<IssueName, IssueType> issueTypes = new EnumMap<>(IssueName.class);
+        for (Map.Entry<String, Map<String, Map<String, String>>> entry : mappings.entrySet()) {
+            IssueCategory category = parseEnum(IssueCategory.class, entry.getKey(), filename);
+            for (Map.Entry<String, Map<String, String>> issue : entry.getValue().entrySet()) {
+                IssueName issueName = parseEnum(IssueName.class, issue.getKey(), filename);
+                String description = issue.getValue() == null ? null : issue.getValue().get("Description");
+                if (issueTypes.put(issueName, new IssueType(issueName, description, category)) != null) {
+                    throw new IssueMappingException("Duplicate issue in " + filename + ": " + issueName);
+                }
+            }
+        }
+
+        for (IssueName issueName : IssueName.values()) {
+            if (!issueTypes.containsKey(issueName)) {
+                throw new IssueMappingException("No Issue found for: " + issueName + " in " + filename);
+            }
+        }
+        return Collections.unmodifiableMap(issueTypes);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> enumType, String value, String filename) {
+        try {
+            return Enum.valueOf(enumType, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IssueMappingException("Invalid " + enumType.getSimpleName() + " in " + filename + ": " + value, e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.lkast;
+
+import com.github.lkast.exceptions.IssueMappingException;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.IssueType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Generates the source of the {@value MappingSnapshot#GENERATED_MAPPINGS_CLASS} class, run by the
+ * {@code generateMappings} build task.
+ * <p>
+ * The configuration files are loaded with {@link MappingSnapshot#load(MappingSnapshot.ResourceOpener)}, so the build
+ * rejects exactly the mappings that an {@link IssueMapper} would reject at runtime.
+ */
+final class MappingSourceGenerator {
+    private static final String SIMPLE_CLASS_NAME =
+            MappingSnapshot.GENERATED_MAPPINGS_CLASS.substring(MappingSnapshot.GENERATED_MAPPINGS_CLASS.lastIndexOf('.') + 1);
+
+    private MappingSourceGenerator() {
+    }
+
+    /**
+     * @param args The directory containing the configuration files and the root directory of the generated sources.
+     * @throws IOException           If a configuration file does not exist or the source cannot be written.
+     * @throws IssueMappingException If a configuration file contains invalid mappings.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: MappingSourceGenerator <configDirectory> <outputDirectory>");
+        }
+        generate(Path.of(args[0]), Path.of(args[1]));
+    }
+
+    /**
+     * Loads the configuration files of a directory and writes the generated class below the output directory.
+     *
+     * @param configDirectory The directory containing the configuration files.
+     * @param outputDirectory The root directory of the generated sources.
+     * @return The generated source file.
+     * @throws IOException           If a configuration file does not exist or the source cannot be written.
+     * @throws IssueMappingException If a configuration file contains invalid mappings.
+     */
+    static Path generate(Path configDirectory, Path outputDirectory) throws IOException {
+        MappingSnapshot snapshot = MappingSnapshot.load(filename -> open(configDirectory.resolve(filename)));
+        Path output = outputDirectory.resolve(MappingSnapshot.GENERATED_MAPPINGS_CLASS.replace('.', '/') + ".java");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, render(snapshot), StandardCharsets.UTF_8);
+        return output;
+    }
+
+    private static InputStream open(Path file) throws IOException {
+        try {
+            return Files.newInputStream(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Renders the source of a class whose {@code snapshot()} method recreates the given snapshot from literals.
+     *
+     * @param snapshot The loaded snapshot.
+     * @return The Java source.
+     */
+    static String render(MappingSnapshot snapshot) {
+        StringBuilder source = new StringBuilder();
+        source.append("""
+                package com.github.lkast;
+
+                import com.github.lkast.model.IssueCategory;
+                import com.github.lkast.model.IssueName;
+                import com.github.lkast.model.IssueType;
+
+                import java.util.EnumMap;
+                import java.util.LinkedHashMap;
+                import java.util.Map;
+
+                /**
+                 * The mappings of issues.yaml, httpCodeMappings.properties and javaExceptionMappings.properties,
+                 * generated by the generateMappings task. Do not edit.
+                 */
+                final class %1$s {
+                    private %1$s() {
+                    }
+
+                    static MappingSnapshot snapshot() {
+                """.formatted(SIMPLE_CLASS_NAME));
+        renderMappings(source, "httpCodeMappings", snapshot.httpCodeMappings);
+        renderMappings(source, "javaExceptionMappings", snapshot.javaExceptionMappings);
+        source.append("        Map<IssueName, IssueType> issueTypes = new EnumMap<>(IssueName.class);\n");
+        for (IssueType issueType : snapshot.issueTypes.values()) {
+            source.append("        issueTypes.put(IssueName.").append(issueType.name())
+                    .append(", new IssueType(IssueName.").append(issueType.name())
+                    .append(", ").append(literal(issueType.description()))
+                    .append(", IssueCategory.").append(issueType.category()).append("));\n");
+        }
+        source.append("""
+                        return MappingSnapshot.of(httpCodeMappings, javaExceptionMappings, issueTypes);
+                    }
+                }
+                """);
+        return source.toString();
+    }
+
+    private static void renderMappings(StringBuilder source, String variable, Map<String, IssueName> mappings) {
+        source.append("        Map<String, IssueName> ").append(variable).append(" = new LinkedHashMap<>();\n");
+        mappings.forEach((key, issueName) -> source.append("        ").append(variable).append(".put(")
+                .append(literal(key)).append(", IssueName.").append(issueName).append(");\n"));
+    }
+
+    /**
+     * @param value The value (can be null).
+     * @return A Java string literal of the value, with every character outside printable ASCII escaped.
+     */
+    static String literal(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+                }
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
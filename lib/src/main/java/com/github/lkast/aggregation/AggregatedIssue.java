@@ -0,0 +1,28 @@
+package com.github.lkast.aggregation;
+
+import com.github.lkast.model.Issue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The summary of all issues with the same fingerprint within one aggregation window.
+ *
+ * @param fingerprint          The fingerprint shared by the issues.
+ * @param representative       The first issue of the window.
+ * @param count                The number of issues in the window, including the representative.
+ * @param firstTimeStamp       The earliest timestamp of the issues.
+ * @param lastTimeStamp        The latest timestamp of the issues.
+ * @param sampleCorrelationIDs A uniform sample of the correlation IDs of the issues.
+ */
+public record AggregatedIssue(IssueFingerprint fingerprint, Issue representative, long count, Instant firstTimeStamp,
+                              Instant lastTimeStamp, List<UUID> sampleCorrelationIDs) {
+
+    /**
+     * @return The number of issues that were collapsed into the representative.
+     */
+    public long suppressedCount() {
+        return count - 1;
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.lkast.aggregation;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The configuration of an {@link IssueAggregator}.
+ *
+ * @param window                   The length of an aggregation window, starting with the first occurrence of a fingerprint.
+ * @param maxFingerprints          The maximum number of open windows. When exceeded, the oldest window is closed early.
+ * @param maxSampledCorrelationIDs The maximum number of correlation IDs sampled per window.
+ * @param frameworkPackages        Package prefixes whose frames are skipped when looking for the top application frame.
+ */
+public record AggregatorConfig(Duration window, int maxFingerprints, int maxSampledCorrelationIDs, List<String> frameworkPackages) {
+
+    public AggregatorConfig {
+        if (window == null || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        if (maxFingerprints < 1 || maxSampledCorrelationIDs < 0) {
+            throw new IllegalArgumentException("maxFingerprints must be positive and maxSampledCorrelationIDs cannot be negative");
+        }
+        if (frameworkPackages == null) {
+            throw new IllegalArgumentException("frameworkPackages cannot be null");
+        }
+        frameworkPackages = List.copyOf(frameworkPackages);
+    }
+
+    /**
+     * Creates the default configuration: windows of 10 seconds, at most 10000 open windows, 16 sampled correlation IDs
+     * per window, and the JDK packages as framework packages.
+     *
+     * @return The default configuration.
+     */
+    public static AggregatorConfig defaults() {
+        return new AggregatorConfig(Duration.ofSeconds(10), 10_000, 16, List.of("java.", "javax.", "jdk.", "sun.", "com.sun."));
+    }
+}
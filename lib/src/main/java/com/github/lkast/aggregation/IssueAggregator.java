@@ -0,0 +1,336 @@
+package com.github.lkast.aggregation;
+
+import com.github.lkast.model.Issue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Collapses duplicate issues into one {@link AggregatedIssue} per {@link IssueFingerprint} and time window.
+ * <p>
+ * The first issue of a fingerprint opens a window and is reported as new by {@link #offer(Issue)}, so it can be
+ * published right away. Later issues with the same fingerprint are only counted until the window ends. When the window
+ * ends, the summary is passed to the listener on the thread that notices it, usually the next caller of
+ * {@link #offer(Issue)} or {@link #expireWindows()}.
+ * <p>
+ * The number of open windows is bounded. When the bound is exceeded, the oldest window is closed early, so memory
+ * stays flat even if an outage produces many distinct fingerprints.
+ */
+public class IssueAggregator {
+    private final AggregatorConfig config;
+    private final Clock clock;
+    private final Consumer<AggregatedIssue> listener;
+    private final ConcurrentHashMap<IssueFingerprint, Window> windows = new ConcurrentHashMap<>();
+    // Windows in the order they were opened, so the oldest and therefore first expiring window is at the head
+    private final Queue<Window> windowOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates an aggregator using the system clock.
+     *
+     * @param config   The configuration of the aggregator.
+     * @param listener The listener receiving the summaries of closed windows.
+     */
+    public IssueAggregator(AggregatorConfig config, Consumer<AggregatedIssue> listener) {
+        this(config, Clock.systemUTC(), listener);
+    }
+
+    /**
+     * Creates an aggregator.
+     *
+     * @param config   The configuration of the aggregator.
+     * @param clock    The clock measuring the windows.
+     * @param listener The listener receiving the summaries of closed windows.
+     */
+    public IssueAggregator(AggregatorConfig config, Clock clock, Consumer<AggregatedIssue> listener) {
+        if (config == null || clock == null || listener == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        this.config = config;
+        this.clock = clock;
+        this.listener = listener;
+    }
+
+    /**
+     * Aggregates an issue that was not caused by an exception.
+     *
+     * @param issue The issue to aggregate.
+     * @return true if the issue opened a new window and should be published, false if it is a duplicate.
+     */
+    public boolean offer(Issue issue) {
+        return offer(issue, null);
+    }
+
+    /**
+     * Aggregates an issue caused by an exception.
+     *
+     * @param issue     The issue to aggregate.
+     * @param exception The exception that caused the issue (can be null).
+     * @return true if the issue opened a new window and should be published, false if it is a duplicate.
+     */
+    public boolean offer(Issue issue, Throwable exception) {
+        if (issue == null) {
+            throw new IllegalArgumentException("Issue cannot be null");
+        }
+        IssueFingerprint fingerprint = IssueFingerprint.of(issue, exception, config.frameworkPackages());
+        Instant now = clock.instant();
+        expireWindows(now);
+        while (true) {
+            Window window = windows.get(fingerprint);
+            if (window == null) {
+                Window opened = new Window(fingerprint, issue, now.plus(config.window()), config.maxSampledCorrelationIDs());
+                if (windows.putIfAbsent(fingerprint, opened) == null) {
+                    windowOrder.add(opened);
+                    evictOverflow();
+                    return true;
+                }
+            } else if (window.record(issue, now)) {
+                return false;
+            } else {
+                // The window has ended, close it so the next iteration can open a new one
+                close(window);
+            }
+        }
+    }
+
+    /**
+     * Closes all windows that have ended and passes their summaries to the listener.
+     * Call this periodically if issues may stop arriving, so that the last windows are reported.
+     */
+    public void expireWindows() {
+        expireWindows(clock.instant());
+    }
+
+    private void expireWindows(Instant now) {
+        Window head;
+        while ((head = windowOrder.peek()) != null && (head.isClosed() || !now.isBefore(head.end))) {
+            if (windowOrder.remove(head)) {
+                close(head);
+            }
+        }
+    }
+
+    private void evictOverflow() {
+        while (windows.size() > config.maxFingerprints()) {
+            Window oldest = windowOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            close(oldest);
+        }
+    }
+
+    /**
+     * Closes all open windows and passes their summaries to the listener, e.g. on shutdown.
+     */
+    public void closeAll() {
+        Window window;
+        while ((window = windowOrder.poll()) != null) {
+            close(window);
+        }
+    }
+
+    private void close(Window window) {
+        AggregatedIssue aggregatedIssue = window.close();
+        windows.remove(window.fingerprint, window);
+        if (aggregatedIssue != null) {
+            listener.accept(aggregatedIssue);
+        }
+    }
+
+    /**
+     * @return The number of open windows.
+     */
+    public int getOpenWindowCount() {
+        return windows.size();
+    }
+
+    /**
+     * The open window of a fingerprint.
+     * <p>
+     * Duplicates of a hot fingerprint are recorded concurrently by many threads, so the counters are striped over
+     * cells, each with its own lock and its own reservoir of correlation IDs. A thread always records into the same
+     * cell, and cells are only created once a thread records into them. Closing the window closes every cell under its
+     * lock, so a duplicate is either part of the summary or rejected, and merges the cells.
+     */
+    private static final class Window {
+        private static final int CELL_COUNT = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+        // Takes the place of cells that were never created, so threads cannot create them after the window closed
+        private static final Cell CLOSED_CELL = new Cell(0);
+
+        static {
+            CLOSED_CELL.closed = true;
+        }
+
+        private final IssueFingerprint fingerprint;
+        private final Issue representative;
+        private final Instant end;
+        private final int maxSampledCorrelationIDs;
+        private final AtomicReferenceArray<Cell> cells = new AtomicReferenceArray<>(CELL_COUNT);
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Window(IssueFingerprint fingerprint, Issue representative, Instant end, int maxSampledCorrelationIDs) {
+            this.fingerprint = fingerprint;
+            this.representative = representative;
+            this.end = end;
+            this.maxSampledCorrelationIDs = maxSampledCorrelationIDs;
+        }
+
+        /**
+         * @return true if the issue was recorded, false if the window is closed or has ended.
+         */
+        boolean record(Issue issue, Instant now) {
+            if (!now.isBefore(end)) {
+                return false;
+            }
+            Cell cell = cell();
+            synchronized (cell) {
+                if (cell.closed) {
+                    return false;
+                }
+                cell.record(issue);
+            }
+            return true;
+        }
+
+        private Cell cell() {
+            // Spreads the thread IDs, so consecutively started threads use different cells
+            int index = (int) ((Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L) >>> 32) & (CELL_COUNT - 1);
+            Cell cell = cells.get(index);
+            if (cell == null) {
+                Cell created = new Cell(maxSampledCorrelationIDs);
+                cell = cells.compareAndExchange(index, null, created);
+                if (cell == null) {
+                    cell = created;
+                }
+            }
+            return cell;
+        }
+
+        boolean isClosed() {
+            return closed.get();
+        }
+
+        /**
+         * @return The summary of the window, or null if it was already closed.
+         */
+        AggregatedIssue close() {
+            if (!closed.compareAndSet(false, true)) {
+                return null;
+            }
+            Cell summary = new Cell(maxSampledCorrelationIDs);
+            summary.record(representative);
+            List<Cell> closedCells = new ArrayList<>(CELL_COUNT + 1);
+            closedCells.add(summary);
+            for (int i = 0; i < CELL_COUNT; i++) {
+                Cell cell = cells.compareAndExchange(i, null, CLOSED_CELL);
+                if (cell == null || cell == CLOSED_CELL) {
+                    continue;
+                }
+                synchronized (cell) {
+                    cell.closed = true;
+                }
+                closedCells.add(cell);
+            }
+
+            long count = 0;
+            Instant firstTimeStamp = summary.firstTimeStamp;
+            Instant lastTimeStamp = summary.lastTimeStamp;
+            for (Cell cell : closedCells) {
+                count += cell.count;
+                if (cell.count > 0) {
+                    firstTimeStamp = cell.firstTimeStamp.isBefore(firstTimeStamp) ? cell.firstTimeStamp : firstTimeStamp;
+                    lastTimeStamp = cell.lastTimeStamp.isAfter(lastTimeStamp) ? cell.lastTimeStamp : lastTimeStamp;
+                }
+            }
+            return new AggregatedIssue(fingerprint, representative, count, firstTimeStamp, lastTimeStamp,
+                    mergeSamples(closedCells, maxSampledCorrelationIDs));
+        }
+
+        /**
+         * Merges the reservoirs of the cells into one uniform sample. Every pick takes a random correlation ID from a
+         * cell chosen in proportion to the number of correlation IDs the cell has seen and not yet contributed.
+         */
+        private static List<UUID> mergeSamples(List<Cell> cells, int maxSampledCorrelationIDs) {
+            long[] remaining = new long[cells.size()];
+            int[] available = new int[cells.size()];
+            long total = 0;
+            for (int i = 0; i < cells.size(); i++) {
+                remaining[i] = cells.get(i).correlationIDCount;
+                available[i] = (int) Math.min(remaining[i], maxSampledCorrelationIDs);
+                total += remaining[i];
+            }
+            int sampleSize = (int) Math.min(total, maxSampledCorrelationIDs);
+            List<UUID> sample = new ArrayList<>(sampleSize);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (sample.size() < sampleSize) {
+                long pick = random.nextLong(total);
+                int i = 0;
+                while (pick >= remaining[i]) {
+                    pick -= remaining[i++];
+                }
+                // Remove a random element of the cell's reservoir by swapping it with the last available one
+                UUID[] reservoir = cells.get(i).sampledCorrelationIDs;
+                int slot = random.nextInt(available[i]);
+                sample.add(reservoir[slot]);
+                reservoir[slot] = reservoir[--available[i]];
+                remaining[i]--;
+                total--;
+            }
+            return List.copyOf(sample);
+        }
+    }
+
+    /**
+     * The counters of a window recorded by some of the threads. Guarded by its own lock.
+     */
+    private static final class Cell {
+        private final UUID[] sampledCorrelationIDs;
+        private long count;
+        private long correlationIDCount;
+        private Instant firstTimeStamp;
+        private Instant lastTimeStamp;
+        private boolean closed;
+
+        Cell(int maxSampledCorrelationIDs) {
+            this.sampledCorrelationIDs = new UUID[maxSampledCorrelationIDs];
+        }
+
+        void record(Issue issue) {
+            count++;
+            Instant timeStamp = issue.getTimeStamp();
+            if (firstTimeStamp == null || timeStamp.isBefore(firstTimeStamp)) {
+                firstTimeStamp = timeStamp;
+            }
+            if (lastTimeStamp == null || timeStamp.isAfter(lastTimeStamp)) {
+                lastTimeStamp = timeStamp;
+            }
+            sampleCorrelationID(issue.getCorrelationID());
+        }
+
+        private void sampleCorrelationID(UUID correlationID) {
+            if (correlationID == null || sampledCorrelationIDs.length == 0) {
+                return;
+            }
+            // Reservoir sampling, so every correlation ID of the cell has the same chance to be kept
+            correlationIDCount++;
+            if (correlationIDCount <= sampledCorrelationIDs.length) {
+                sampledCorrelationIDs[(int) correlationIDCount - 1] = correlationID;
+            } else {
+                long slot = ThreadLocalRandom.current().nextLong(correlationIDCount);
+                if (slot < sampledCorrelationIDs.length) {
+                    sampledCorrelationIDs[(int) slot] = correlationID;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.lkast.aggregation;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+
+import java.util.List;
+
+/**
+ * Identifies issues that carry the same information, so that duplicates can be aggregated.
+ *
+ * @param issueName      The name of the issue type.
+ * @param serviceId      The ID of the service in which the issue occurred.
+ * @param exceptionClass The class name of the exception that caused the issue (can be null).
+ * @param topFrame       The topmost application frame of the exception, e.g. {@code com.example.Client.send(Client.java:42)} (can be null).
+ */
+public record IssueFingerprint(IssueName issueName, String serviceId, String exceptionClass, String topFrame) {
+
+    public IssueFingerprint {
+        if (issueName == null) {
+            throw new IllegalArgumentException("IssueName cannot be null");
+        }
+    }
+
+    /**
+     * Creates the fingerprint of an issue that was not caused by an exception.
+     *
+     * @param issue The issue.
+     * @return The fingerprint.
+     */
+    public static IssueFingerprint of(Issue issue) {
+        return new IssueFingerprint(issue.getIssueType().name(), issue.getService().id(), null, null);
+    }
+
+    /**
+     * Creates the fingerprint of an issue caused by an exception.
+     *
+     * @param issue             The issue.
+     * @param exception         The exception that caused the issue (can be null).
+     * @param frameworkPackages Package prefixes whose frames are skipped when looking for the top application frame.
+     * @return The fingerprint.
+     */
+    public static IssueFingerprint of(Issue issue, Throwable exception, List<String> frameworkPackages) {
+        if (exception == null) {
+            return of(issue);
+        }
+        StackTraceElement topFrame = findTopFrame(exception.getStackTrace(), frameworkPackages);
+        return new IssueFingerprint(issue.getIssueType().name(), issue.getService().id(), exception.getClass().getName(),
+                topFrame != null ? topFrame.toString() : null);
+    }
+
+    private static StackTraceElement findTopFrame(StackTraceElement[] frames, List<String> frameworkPackages) {
+        for (StackTraceElement frame : frames) {
+            if (!isFrameworkFrame(frame, frameworkPackages)) {
+                return frame;
+            }
+        }
+        // Only framework frames, the topmost one is still better than nothing
+        return frames.length > 0 ? frames[0] : null;
+    }
+
+    private static boolean isFrameworkFrame(StackTraceElement frame, List<String> frameworkPackages) {
+        String className = frame.getClassName();
+        for (String frameworkPackage : frameworkPackages) {
+            if (className.startsWith(frameworkPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
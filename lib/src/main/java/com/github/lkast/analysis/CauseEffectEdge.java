@@ -0,0 +1,14 @@
+package com.github.lkast.analysis;
+
+import com.github.lkast.model.IssueName;
+
+/**
+ * How often issues of one name caused issues of another name.
+ *
+ * @param cause             The name of the causing issues.
+ * @param effect            The name of the caused issues.
+ * @param count             The number of cause-effect links between issues of these names.
+ * @param crossServiceCount The number of these links where cause and effect occurred in different services.
+ */
+public record CauseEffectEdge(IssueName cause, IssueName effect, long count, long crossServiceCount) {
+}
@@ -0,0 +1,16 @@
+package com.github.lkast.analysis;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.Service;
+
+import java.util.Set;
+
+/**
+ * A root cause found by the {@link RootCauseAnalyzer}.
+ *
+ * @param issue            The root cause issue.
+ * @param blastRadius      The number of issues attributed to the root cause, including itself.
+ * @param affectedServices The services in which the attributed issues occurred.
+ */
+public record RootCause(Issue issue, int blastRadius, Set<Service> affectedServices) {
+}
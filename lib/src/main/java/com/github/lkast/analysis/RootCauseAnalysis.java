@@ -0,0 +1,131 @@
+package com.github.lkast.analysis;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The result of a {@link RootCauseAnalyzer} run. Instances are immutable and can be shared between threads.
+ */
+public class RootCauseAnalysis {
+    private static final IssueName[] ISSUE_NAMES = IssueName.values();
+
+    private final Issue[] issues;
+    private final UuidIntMap indexByIssueID;
+    private final int[] groups;
+    private final int[] rootCauses;
+    // The issues of each group, stored contiguously: the issues of group g are members[offsets[g]] to members[offsets[g + 1] - 1]
+    private final int[] offsets;
+    private final int[] members;
+    private final long[] edges;
+
+    RootCauseAnalysis(Issue[] issues, UuidIntMap indexByIssueID, int[] groups, int groupCount, int[] rootCauses, long[] edges) {
+        this.issues = issues;
+        this.indexByIssueID = indexByIssueID;
+        this.groups = groups;
+        this.rootCauses = rootCauses;
+        this.edges = edges;
+        this.offsets = new int[groupCount + 1];
+        for (int group : groups) {
+            offsets[group + 1]++;
+        }
+        for (int g = 0; g < groupCount; g++) {
+            offsets[g + 1] += offsets[g];
+        }
+        this.members = new int[issues.length];
+        int[] next = Arrays.copyOf(offsets, groupCount);
+        for (int i = 0; i < groups.length; i++) {
+            members[next[groups[i]]++] = i;
+        }
+    }
+
+    /**
+     * @return The number of analyzed issues, including cause issues that were not part of the analyzed set.
+     */
+    public int getIssueCount() {
+        return issues.length;
+    }
+
+    /**
+     * @return The number of root causes.
+     */
+    public int getRootCauseCount() {
+        return rootCauses.length;
+    }
+
+    /**
+     * Finds the root cause of an issue.
+     *
+     * @param issueID The ID of an analyzed issue.
+     * @return The root cause issue, which is the issue itself if it is a root cause, or null if the issue was not analyzed.
+     */
+    public Issue getRootCause(UUID issueID) {
+        int index = indexByIssueID.get(issueID);
+        return index >= 0 ? issues[rootCauses[groups[index]]] : null;
+    }
+
+    /**
+     * Returns the root causes with the largest blast radius.
+     *
+     * @param limit The maximum number of root causes returned.
+     * @return The root causes ordered by descending blast radius.
+     */
+    public List<RootCause> getRootCauses(int limit) {
+        // Sort by size in the upper and group in the lower bits, so no boxing is needed
+        long[] sizeAndGroup = new long[rootCauses.length];
+        for (int g = 0; g < rootCauses.length; g++) {
+            sizeAndGroup[g] = (long) (offsets[g + 1] - offsets[g]) << 32 | g;
+        }
+        Arrays.sort(sizeAndGroup);
+        List<RootCause> result = new ArrayList<>(Math.min(limit, rootCauses.length));
+        for (int i = sizeAndGroup.length - 1; i >= 0 && result.size() < limit; i--) {
+            result.add(toRootCause((int) sizeAndGroup[i]));
+        }
+        return result;
+    }
+
+    private RootCause toRootCause(int group) {
+        Set<Service> affectedServices = new HashSet<>();
+        for (int m = offsets[group]; m < offsets[group + 1]; m++) {
+            affectedServices.add(issues[members[m]].getService());
+        }
+        return new RootCause(issues[rootCauses[group]], offsets[group + 1] - offsets[group], Set.copyOf(affectedServices));
+    }
+
+    /**
+     * Returns how often issues of one name caused issues of another name, counting both cause links and the
+     * implicit links from a root cause to the issues without a cause in its group.
+     *
+     * @param cause  The name of the causing issues.
+     * @param effect The name of the caused issues.
+     * @return The number of cause-effect links.
+     */
+    public long getEdgeCount(IssueName cause, IssueName effect) {
+        return edges[cause.ordinal() * ISSUE_NAMES.length + effect.ordinal()];
+    }
+
+    /**
+     * Returns the most frequent cause-effect links between issue names.
+     *
+     * @param limit The maximum number of edges returned.
+     * @return The edges ordered by descending count.
+     */
+    public List<CauseEffectEdge> getTopEdges(int limit) {
+        int names = ISSUE_NAMES.length;
+        List<CauseEffectEdge> result = new ArrayList<>();
+        for (int edge = 0; edge < names * names; edge++) {
+            if (edges[edge] > 0) {
+                result.add(new CauseEffectEdge(ISSUE_NAMES[edge / names], ISSUE_NAMES[edge % names], edges[edge], edges[names * names + edge]));
+            }
+        }
+        result.sort((a, b) -> Long.compare(b.count(), a.count()));
+        return List.copyOf(result.subList(0, Math.min(limit, result.size())));
+    }
+}
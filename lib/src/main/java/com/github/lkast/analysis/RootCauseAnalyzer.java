@@ -0,0 +1,196 @@
+package com.github.lkast.analysis;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the root causes of a set of issues by walking their {@link Issue#getCauseIssue() cause} links and grouping
+ * issues with the same {@link Issue#getCorrelationID() correlation ID}.
+ * <p>
+ * Issues connected by cause links or a shared correlation ID form one group, and the earliest issue of a group that has
+ * no cause is its root cause. All other issues of the group are its blast radius. Within a group, issues without a
+ * cause are treated as effects of the root cause, e.g. when a caller only reports the same request ID as the failing
+ * downstream service.
+ * <p>
+ * Issues are numbered densely and the graph is held in int arrays, with IDs looked up in a primitive-keyed map, so
+ * millions of issues need only a few arrays besides the issues themselves. Grouping uses a lock-free union-find, and
+ * grouping and edge counting run in parallel on the given {@link ForkJoinPool}.
+ */
+public class RootCauseAnalyzer {
+    private static final IssueName[] ISSUE_NAMES = IssueName.values();
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates an analyzer running on the common pool.
+     */
+    public RootCauseAnalyzer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an analyzer.
+     *
+     * @param pool The pool running the parallel parts of the analysis.
+     */
+    public RootCauseAnalyzer(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("ForkJoinPool cannot be null");
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Analyzes a set of issues. Cause issues that are not part of the set are included in the analysis.
+     *
+     * @param issues The issues to analyze.
+     * @return The result of the analysis.
+     */
+    public RootCauseAnalysis analyze(Collection<Issue> issues) {
+        if (issues == null) {
+            throw new IllegalArgumentException("Issues cannot be null");
+        }
+        UuidIntMap indexByIssueID = new UuidIntMap(issues.size());
+        List<Issue> indexed = new ArrayList<>(issues.size());
+        for (Issue issue : issues) {
+            for (Issue current = issue; current != null; current = current.getCauseIssue()) {
+                if (indexByIssueID.putIfAbsent(current.getIssueID(), indexed.size()) >= 0) {
+                    break; // The rest of the chain is already indexed
+                }
+                indexed.add(current);
+            }
+        }
+        Issue[] nodes = indexed.toArray(new Issue[0]);
+        int n = nodes.length;
+
+        int[] causes = new int[n];
+        int[] correlated = new int[n];
+        UuidIntMap firstByCorrelationID = new UuidIntMap(Math.max(16, n / 4));
+        for (int i = 0; i < n; i++) {
+            Issue cause = nodes[i].getCauseIssue();
+            causes[i] = cause != null ? indexByIssueID.get(cause.getIssueID()) : -1;
+            UUID correlationID = nodes[i].getCorrelationID();
+            correlated[i] = correlationID != null ? firstByCorrelationID.putIfAbsent(correlationID, i) : -1;
+        }
+
+        AtomicIntegerArray unionFind = new AtomicIntegerArray(n);
+        int[] groupRoots = new int[n];
+        run(() -> {
+            IntStream.range(0, n).parallel().forEach(i -> unionFind.set(i, i));
+            IntStream.range(0, n).parallel().forEach(i -> {
+                if (causes[i] >= 0) {
+                    union(unionFind, i, causes[i]);
+                }
+                if (correlated[i] >= 0) {
+                    union(unionFind, i, correlated[i]);
+                }
+            });
+            IntStream.range(0, n).parallel().forEach(i -> groupRoots[i] = find(unionFind, i));
+        });
+
+        // Number the groups densely and pick the earliest issue without a cause as the root cause of each group
+        int[] groupIndexByRoot = new int[n];
+        Arrays.fill(groupIndexByRoot, -1);
+        int[] groups = new int[n];
+        int groupCount = 0;
+        for (int i = 0; i < n; i++) {
+            int group = groupIndexByRoot[groupRoots[i]];
+            if (group < 0) {
+                group = groupCount++;
+                groupIndexByRoot[groupRoots[i]] = group;
+            }
+            groups[i] = group;
+        }
+        int[] rootCauses = new int[groupCount];
+        Arrays.fill(rootCauses, -1);
+        for (int i = 0; i < n; i++) {
+            int group = groups[i];
+            if (causes[i] < 0 && (rootCauses[group] < 0 || isEarlier(nodes[i], nodes[rootCauses[group]]))) {
+                rootCauses[group] = i;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            // A group without an issue without a cause is a cycle, its earliest issue is the root cause
+            int group = groups[i];
+            if (rootCauses[group] < 0 || (causes[rootCauses[group]] >= 0 && isEarlier(nodes[i], nodes[rootCauses[group]]))) {
+                rootCauses[group] = i;
+            }
+        }
+
+        int names = ISSUE_NAMES.length;
+        int finalGroupCount = groupCount;
+        long[] edges = pool.submit(() -> IntStream.range(0, n).parallel().collect(
+                () -> new long[2 * names * names],
+                (counts, i) -> {
+                    int cause = causes[i];
+                    if (cause < 0) {
+                        int rootCause = rootCauses[groups[i]];
+                        cause = rootCause != i ? rootCause : -1;
+                    }
+                    if (cause >= 0) {
+                        int edge = nodes[cause].getIssueType().name().ordinal() * names + nodes[i].getIssueType().name().ordinal();
+                        counts[edge]++;
+                        if (!nodes[cause].getService().equals(nodes[i].getService())) {
+                            counts[names * names + edge]++;
+                        }
+                    }
+                },
+                (left, right) -> {
+                    for (int j = 0; j < left.length; j++) {
+                        left[j] += right[j];
+                    }
+                })).join();
+
+        return new RootCauseAnalysis(nodes, indexByIssueID, groups, finalGroupCount, rootCauses, edges);
+    }
+
+    private void run(Runnable task) {
+        pool.submit(task).join();
+    }
+
+    private static boolean isEarlier(Issue issue, Issue other) {
+        int comparison = issue.getTimeStamp().compareTo(other.getTimeStamp());
+        return comparison < 0 || (comparison == 0 && issue.getIssueID().compareTo(other.getIssueID()) < 0);
+    }
+
+    private static int find(AtomicIntegerArray parents, int node) {
+        while (true) {
+            int parent = parents.get(node);
+            if (parent == node) {
+                return node;
+            }
+            int grandparent = parents.get(parent);
+            // Path halving, a failed update only means another thread shortened the path already
+            parents.compareAndSet(node, parent, grandparent);
+            node = grandparent;
+        }
+    }
+
+    private static void union(AtomicIntegerArray parents, int a, int b) {
+        while (true) {
+            int rootA = find(parents, a);
+            int rootB = find(parents, b);
+            if (rootA == rootB) {
+                return;
+            }
+            // Always link the larger index below the smaller one, so no cycles can form
+            if (rootA < rootB) {
+                int swap = rootA;
+                rootA = rootB;
+                rootB = swap;
+            }
+            if (parents.compareAndSet(rootA, rootA, rootB)) {
+                return;
+            }
+        }
+    }
+}
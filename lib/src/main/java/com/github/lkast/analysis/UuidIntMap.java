@@ -0,0 +1,104 @@
+package com.github.lkast.analysis;
+
+import java.util.UUID;
+
+/**
+ * An open-addressing hash map from UUIDs to non-negative ints, storing the keys as two primitive longs.
+ * <p>
+ * Unlike a {@code HashMap<UUID, Integer>}, it allocates no entry or boxed value per mapping, which keeps the
+ * memory footprint of millions of issues small. It does not support removal and is not thread-safe.
+ */
+final class UuidIntMap {
+    private static final int NO_VALUE = -1;
+
+    private long[] mostSignificantBits;
+    private long[] leastSignificantBits;
+    // The value plus one, so that 0 marks an empty slot
+    private int[] values;
+    private int mask;
+    private int size;
+
+    UuidIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        this.mostSignificantBits = new long[capacity];
+        this.leastSignificantBits = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @return The value of the UUID, or -1 if it is not mapped.
+     */
+    int get(UUID uuid) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        for (int slot = slot(msb, lsb); ; slot = (slot + 1) & mask) {
+            int value = values[slot];
+            if (value == 0) {
+                return NO_VALUE;
+            }
+            if (mostSignificantBits[slot] == msb && leastSignificantBits[slot] == lsb) {
+                return value - 1;
+            }
+        }
+    }
+
+    /**
+     * Maps the UUID to the value unless it is already mapped.
+     *
+     * @return The existing value of the UUID, or -1 if the value was added.
+     */
+    int putIfAbsent(UUID uuid, int value) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        for (int slot = slot(msb, lsb); ; slot = (slot + 1) & mask) {
+            int existing = values[slot];
+            if (existing == 0) {
+                mostSignificantBits[slot] = msb;
+                leastSignificantBits[slot] = lsb;
+                values[slot] = value + 1;
+                if (++size * 2 > values.length) {
+                    grow();
+                }
+                return NO_VALUE;
+            }
+            if (mostSignificantBits[slot] == msb && leastSignificantBits[slot] == lsb) {
+                return existing - 1;
+            }
+        }
+    }
+
+    private void grow() {
+        long[] oldMostSignificantBits = mostSignificantBits;
+        long[] oldLeastSignificantBits = leastSignificantBits;
+        int[] oldValues = values;
+        allocate(oldValues.length * 2);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != 0) {
+                int slot = slot(oldMostSignificantBits[i], oldLeastSignificantBits[i]);
+                while (values[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                mostSignificantBits[slot] = oldMostSignificantBits[i];
+                leastSignificantBits[slot] = oldLeastSignificantBits[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private int slot(long msb, long lsb) {
+        // The finalizer of MurmurHash3, time-ordered UUIDs differ mostly in a few bits
+        long hash = msb ^ Long.rotateLeft(lsb, 32);
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (int) (hash ^ (hash >>> 33)) & mask;
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.lkast.collector;
+
+/**
+ * The configuration of an {@link IssueCollector}.
+ *
+ * @param maxBodySize           The maximum size of a request body in bytes, at most {@value #MAX_BODY_SIZE}.
+ *                              Larger requests are rejected with 413.
+ * @param maxConcurrentRequests The maximum number of requests processed at once. Further requests are rejected with 429.
+ * @param backlog               The maximum number of queued incoming connections, or 0 for the system default.
+ */
+public record CollectorConfig(int maxBodySize, int maxConcurrentRequests, int backlog) {
+    /**
+     * The largest supported body size of 1 GiB. A body is read into a single array.
+     */
+    public static final int MAX_BODY_SIZE = 1 << 30;
+
+    public CollectorConfig {
+        if (maxBodySize < 1 || maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("maxBodySize and maxConcurrentRequests must be positive");
+        }
+        if (maxBodySize > MAX_BODY_SIZE) {
+            throw new IllegalArgumentException("maxBodySize cannot exceed " + MAX_BODY_SIZE + " bytes");
+        }
+        if (backlog < 0) {
+            throw new IllegalArgumentException("backlog cannot be negative");
+        }
+    }
+
+    /**
+     * Creates the default configuration: bodies of up to 1 MiB, up to 1024 concurrent requests,
+     * and the system default backlog.
+     *
+     * @return The default configuration.
+     */
+    public static CollectorConfig defaults() {
+        return new CollectorConfig(1024 * 1024, 1024, 0);
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.lkast.collector;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.publisher.IssuePublisher;
+
+import java.util.List;
+
+/**
+ * Receives the issues accepted by an {@link IssueCollector}.
+ * <p>
+ * Sinks are called concurrently from the request threads of the collector and must be thread-safe.
+ */
+@FunctionalInterface
+public interface CollectorSink {
+
+    /**
+     * Offers the issues of one request. Either all issues are taken or none.
+     * The sink should return quickly, as the client waits for the response meanwhile.
+     *
+     * @param issues The issues of the request, in the order they were sent.
+     * @return true if the issues were taken, false if the sink is saturated and the request should be retried later.
+     */
+    boolean offer(List<Issue> issues);
+
+    /**
+     * Creates a sink handing the issues to a publisher with {@link IssuePublisher#publishAll(List)}. The sink reports
+     * saturation once the queue of the publisher has no room for all issues of a request, so clients back off instead
+     * of the publisher dropping issues. The room is reserved atomically, so concurrent requests cannot overfill it.
+     *
+     * @param publisher The publisher to hand the issues to.
+     * @return The sink.
+     * @throws IllegalArgumentException if publisher is null.
+     */
+    static CollectorSink of(IssuePublisher publisher) {
+        if (publisher == null) {
+            throw new IllegalArgumentException("IssuePublisher cannot be null");
+        }
+        return publisher::publishAll;
+    }
+}
@@ -0,0 +1,290 @@
+package com.github.lkast.collector;
+
+import com.github.lkast.IssueManager;
+import com.github.lkast.exceptions.IssueMappingException;
+import com.github.lkast.model.Issue;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An embeddable HTTP endpoint receiving issues from other services, built on the JDK's built-in HTTP server.
+ * <p>
+ * The collector accepts {@code POST} requests on two paths:
+ * <ul>
+ *   <li>{@value #ISSUE_PATH} - A single issue as JSON, as written by {@link Issue#toJsonString()}.</li>
+ *   <li>{@value #BATCH_PATH} - A batch of issues as newline-delimited JSON, one issue per line.</li>
+ * </ul>
+ * Issues are decoded with {@link IssueManager#createIssueFromJson(ByteBuffer)} and offered to a {@link CollectorSink}.
+ * Every request is handled on its own virtual thread, so slow clients do not tie up platform threads.
+ * <p>
+ * Responses:
+ * <ul>
+ *   <li>202 - All issues were accepted. The body contains their number, e.g. {@code {"accepted":10}}.</li>
+ *   <li>400 - The body is not a valid issue, or a line of the batch is not. No issue of the request is accepted.</li>
+ *   <li>405 - The method is not {@code POST}.</li>
+ *   <li>413 - The body is larger than {@link CollectorConfig#maxBodySize()}.</li>
+ *   <li>429 - Too many requests are processed at once. The client should retry after the {@code Retry-After} delay.</li>
+ *   <li>503 - The sink is saturated. The client should retry after the {@code Retry-After} delay.</li>
+ * </ul>
+ * <p>
+ * The JDK's HTTP server writes the response headers and the body separately. With Nagle's algorithm enabled, the body
+ * then waits for the delayed acknowledgement of the headers, which adds about 40 milliseconds to every request on a
+ * kept-alive connection. Setting the system property {@value #NO_DELAY_PROPERTY} to {@code true}, e.g. with
+ * {@code -Dsun.net.httpserver.nodelay=true}, avoids this. The collector does not set it itself, because the property
+ * applies to every HTTP server of the JVM, and only takes effect if it is set before the first one is created.
+ */
+public class IssueCollector implements AutoCloseable {
+    public static final String ISSUE_PATH = "/issues";
+    public static final String BATCH_PATH = "/issues/batch";
+    public static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final CollectorConfig config;
+    private final IssueManager issueManager;
+    private final CollectorSink sink;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Semaphore concurrentRequests;
+
+    private final LongAdder acceptedCount = new LongAdder();
+    private final LongAdder malformedCount = new LongAdder();
+    private final LongAdder tooLargeCount = new LongAdder();
+    private final LongAdder throttledCount = new LongAdder();
+    private final LongAdder saturatedCount = new LongAdder();
+
+    /**
+     * Creates a collector with the {@link CollectorConfig#defaults() default configuration} and starts it.
+     *
+     * @param address      The address to bind to. Port 0 binds to a free port, see {@link #getAddress()}.
+     * @param issueManager The manager decoding the issues.
+     * @param sink         The sink receiving the issues.
+     * @throws IOException If the server cannot be bound.
+     */
+    public IssueCollector(InetSocketAddress address, IssueManager issueManager, CollectorSink sink) throws IOException {
+        this(address, CollectorConfig.defaults(), issueManager, sink);
+    }
+
+    /**
+     * Creates a collector and starts it.
+     *
+     * @param address      The address to bind to. Port 0 binds to a free port, see {@link #getAddress()}.
+     * @param config       The configuration of the collector.
+     * @param issueManager The manager decoding the issues.
+     * @param sink         The sink receiving the issues.
+     * @throws IllegalArgumentException If an argument is null.
+     * @throws IOException              If the server cannot be bound.
+     */
+    public IssueCollector(InetSocketAddress address, CollectorConfig config, IssueManager issueManager, CollectorSink sink) throws IOException {
+        if (address == null || config == null || issueManager == null || sink == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        this.config = config;
+        this.issueManager = issueManager;
+        this.sink = sink;
+        this.concurrentRequests = new Semaphore(config.maxConcurrentRequests());
+        this.server = HttpServer.create(address, config.backlog());
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("iml-collector-", 0).factory());
+        server.setExecutor(executor);
+        server.createContext(ISSUE_PATH, exchange -> handle(exchange, false));
+        server.createContext(BATCH_PATH, exchange -> handle(exchange, true));
+        server.start();
+    }
+
+    private void handle(HttpExchange exchange, boolean batch) throws IOException {
+        try (exchange) {
+            // Contexts match by prefix, so only the exact paths are served
+            if (!exchange.getRequestURI().getPath().equals(batch ? BATCH_PATH : ISSUE_PATH)) {
+                respond(exchange, 404, "Not found");
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                respond(exchange, 405, "Only POST is supported");
+                return;
+            }
+            if (!concurrentRequests.tryAcquire()) {
+                throttledCount.increment();
+                exchange.getResponseHeaders().set("Retry-After", RETRY_AFTER_SECONDS);
+                respond(exchange, 429, "Too many concurrent requests");
+                return;
+            }
+            try {
+                process(exchange, batch);
+            } finally {
+                concurrentRequests.release();
+            }
+        }
+    }
+
+    private void process(HttpExchange exchange, boolean batch) throws IOException {
+        byte[] body = readBody(exchange);
+        if (body == null) {
+            tooLargeCount.increment();
+            respond(exchange, 413, "Body exceeds " + config.maxBodySize() + " bytes");
+            return;
+        }
+        List<Issue> issues;
+        try {
+            issues = batch ? decodeBatch(body) : List.of(decode(body, 0, body.length));
+        } catch (IssueMappingException e) {
+            malformedCount.increment();
+            respond(exchange, 400, e.getMessage());
+            return;
+        }
+        if (!issues.isEmpty() && !sink.offer(issues)) {
+            saturatedCount.increment();
+            exchange.getResponseHeaders().set("Retry-After", RETRY_AFTER_SECONDS);
+            respond(exchange, 503, "Sink is saturated");
+            return;
+        }
+        acceptedCount.add(issues.size());
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        respond(exchange, 202, "{\"accepted\":" + issues.size() + "}");
+    }
+
+    /**
+     * Reads the request body, up to the configured maximum size.
+     *
+     * @return The body, or null if it is too large.
+     */
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null) {
+            try {
+                // Reject declared oversized bodies without reading them
+                if (Long.parseLong(contentLength.trim()) > config.maxBodySize()) {
+                    return null;
+                }
+            } catch (NumberFormatException e) {
+                // The server rejects invalid lengths itself; fall back to counting the bytes
+            }
+        }
+        try (InputStream inputStream = exchange.getRequestBody()) {
+            byte[] body = inputStream.readNBytes(config.maxBodySize() + 1);
+            return body.length > config.maxBodySize() ? null : body;
+        }
+    }
+
+    /**
+     * Decodes newline-delimited JSON in place. Blank lines are skipped.
+     *
+     * @throws IssueMappingException If a line is not a valid issue.
+     */
+    private List<Issue> decodeBatch(byte[] body) {
+        List<Issue> issues = new ArrayList<>();
+        int lineNumber = 0;
+        int start = 0;
+        while (start < body.length) {
+            int end = start;
+            while (end < body.length && body[end] != '\n') {
+                end++;
+            }
+            lineNumber++;
+            int length = end - start;
+            if (length > 0 && body[end - 1] == '\r') {
+                length--;
+            }
+            if (!isBlank(body, start, length)) {
+                try {
+                    issues.add(decode(body, start, length));
+                } catch (IssueMappingException e) {
+                    throw new IssueMappingException("Malformed issue on line " + lineNumber, e);
+                }
+            }
+            start = end + 1;
+        }
+        return issues;
+    }
+
+    private Issue decode(byte[] body, int offset, int length) {
+        Issue issue = issueManager.createIssueFromJson(ByteBuffer.wrap(body, offset, length));
+        if (issue == null) {
+            throw new IssueMappingException("Expected an issue but found null");
+        }
+        return issue;
+    }
+
+    private static boolean isBlank(byte[] bytes, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (bytes[i] != ' ' && bytes[i] != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    /**
+     * @return The address the collector is bound to, including the actual port if it was bound to port 0.
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * @return The number of issues accepted by the sink.
+     */
+    public long getAcceptedCount() {
+        return acceptedCount.sum();
+    }
+
+    /**
+     * @return The number of requests rejected with 400 because they contained a malformed issue.
+     */
+    public long getMalformedCount() {
+        return malformedCount.sum();
+    }
+
+    /**
+     * @return The number of requests rejected with 413 because their body was too large.
+     */
+    public long getTooLargeCount() {
+        return tooLargeCount.sum();
+    }
+
+    /**
+     * @return The number of requests rejected with 429 because too many requests were processed at once.
+     */
+    public long getThrottledCount() {
+        return throttledCount.sum();
+    }
+
+    /**
+     * @return The number of requests rejected with 503 because the sink was saturated.
+     */
+    public long getSaturatedCount() {
+        return saturatedCount.sum();
+    }
+
+    /**
+     * Stops the server and waits until the request threads have finished. Connections still open are closed.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+}
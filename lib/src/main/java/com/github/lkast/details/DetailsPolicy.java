@@ -0,0 +1,61 @@
+package com.github.lkast.details;
+
+import java.util.List;
+
+/**
+ * Describes how the details of an issue created from an exception are rendered.
+ *
+ * <ul>
+ *   <li>{@code maxFrames} - The maximum number of stack frames rendered per stack trace. Omitted frames are summarized as {@code ... n more}.</li>
+ *   <li>{@code excludedPackages} - Package prefixes, e.g. {@code "org.springframework."}, whose frames are left out of the stack trace and summarized as {@code ... n filtered}.</li>
+ *   <li>{@code includeCauseTrace} - Whether the stack trace of the cause is rendered as well. Frames the cause has in common with the exception are elided.</li>
+ * </ul>
+ *
+ * @param maxFrames         The maximum number of stack frames per stack trace.
+ * @param excludedPackages  The package prefixes of frames to leave out.
+ * @param includeCauseTrace Whether the stack trace of the cause is rendered.
+ */
+public record DetailsPolicy(int maxFrames, List<String> excludedPackages, boolean includeCauseTrace) {
+
+    /**
+     * Renders the complete stack trace without filtering. This is the default policy.
+     */
+    public static final DetailsPolicy FULL = new DetailsPolicy(Integer.MAX_VALUE, List.of(), false);
+
+    public DetailsPolicy {
+        if (maxFrames < 0) {
+            throw new IllegalArgumentException("maxFrames cannot be negative");
+        }
+        if (excludedPackages == null) {
+            throw new IllegalArgumentException("excludedPackages cannot be null");
+        }
+        excludedPackages = List.copyOf(excludedPackages);
+    }
+
+    /**
+     * Creates a policy that renders at most the given number of frames per stack trace,
+     * including the cause's trace without the frames it shares with the exception.
+     *
+     * @param maxFrames The maximum number of stack frames per stack trace.
+     * @return The bounded policy.
+     */
+    public static DetailsPolicy bounded(int maxFrames) {
+        return new DetailsPolicy(maxFrames, List.of(), true);
+    }
+
+    /**
+     * Checks whether a stack frame is excluded by this policy.
+     *
+     * @param frame The stack frame to check.
+     * @return true if the frame's class is in one of the excluded packages, false otherwise.
+     */
+    public boolean isExcluded(StackTraceElement frame) {
+        String className = frame.getClassName();
+        for (String excludedPackage : excludedPackages) {
+            if (className.startsWith(excludedPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,245 @@
+package com.github.lkast.details;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders the details of an exception according to a {@link DetailsPolicy}.
+ * <p>
+ * With {@link DetailsPolicy#FULL} the output is the class name, message, cause, suppressed exceptions
+ * and the complete stack trace of the exception. Instances are thread-safe and can be shared between threads.
+ * <p>
+ * If a {@link StackTraceStore} is given, the stack trace is added to the store and the details only contain its
+ * digest, after {@value #STACK_TRACE_DIGEST_PREFIX}. Rendered stack traces are cached by their frames, so exceptions
+ * thrown from the same place again are neither rendered nor hashed again.
+ */
+public class ExceptionDetailsRenderer {
+    /**
+     * The start of the line holding the digest of an interned stack trace.
+     */
+    public static final String STACK_TRACE_DIGEST_PREFIX = "Stack trace digest: ";
+
+    private final DetailsPolicy policy;
+    private final StackTraceStore stackTraceStore;
+    private final ConcurrentHashMap<FramesKey, InternedTrace> internedTraces;
+
+    private record InternedTrace(String digest, String trace) {
+    }
+
+    /**
+     * Identifies a rendered stack trace by the frames it was rendered from.
+     */
+    private static final class FramesKey {
+        private final StackTraceElement[] frames;
+        private final StackTraceElement[] causeFrames;
+        private final int hashCode;
+
+        FramesKey(StackTraceElement[] frames, StackTraceElement[] causeFrames) {
+            this.frames = frames;
+            this.causeFrames = causeFrames;
+            this.hashCode = 31 * Arrays.hashCode(frames) + Arrays.hashCode(causeFrames);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof FramesKey other && hashCode == other.hashCode
+                    && Arrays.equals(frames, other.frames) && Arrays.equals(causeFrames, other.causeFrames);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Constructs a new ExceptionDetailsRenderer with the given policy.
+     *
+     * @param policy The policy used to render the stack traces.
+     * @throws IllegalArgumentException if policy is null.
+     */
+    public ExceptionDetailsRenderer(DetailsPolicy policy) {
+        this(policy, null);
+    }
+
+    /**
+     * Constructs a new ExceptionDetailsRenderer that interns stack traces in the given store.
+     *
+     * @param policy          The policy used to render the stack traces.
+     * @param stackTraceStore The store for the stack traces, or null to render them into the details.
+     * @throws IllegalArgumentException if policy is null.
+     */
+    public ExceptionDetailsRenderer(DetailsPolicy policy, StackTraceStore stackTraceStore) {
+        if (policy == null) {
+            throw new IllegalArgumentException("DetailsPolicy cannot be null");
+        }
+        this.policy = policy;
+        this.stackTraceStore = stackTraceStore;
+        this.internedTraces = stackTraceStore == null ? null : new ConcurrentHashMap<>();
+    }
+
+    public DetailsPolicy getPolicy() {
+        return policy;
+    }
+
+    public StackTraceStore getStackTraceStore() {
+        return stackTraceStore;
+    }
+
+    /**
+     * Renders the details of an exception.
+     *
+     * @param exception The exception to render.
+     * @return The rendered details.
+     */
+    public String render(Throwable exception) {
+        StringBuilder detailsBuilder = new StringBuilder();
+        renderHeader(exception, detailsBuilder);
+        if (stackTraceStore != null) {
+            detailsBuilder.append(STACK_TRACE_DIGEST_PREFIX).append(internStackTrace(exception));
+        } else {
+            detailsBuilder.append("Stack trace: ");
+            renderStackTrace(exception, detailsBuilder);
+        }
+        return detailsBuilder.toString();
+    }
+
+    /**
+     * Adds the rendered stack trace of an exception to the store, rendering it only if its frames were not seen before.
+     *
+     * @param exception The exception whose stack trace to intern.
+     * @return The digest of the stack trace.
+     */
+    private String internStackTrace(Throwable exception) {
+        StackTraceElement[] frames = exception.getStackTrace();
+        Throwable cause = exception.getCause();
+        StackTraceElement[] causeFrames = policy.includeCauseTrace() && cause != null ? cause.getStackTrace() : null;
+        FramesKey key = new FramesKey(frames, causeFrames);
+
+        InternedTrace interned = internedTraces.get(key);
+        if (interned == null) {
+            StringBuilder traceBuilder = new StringBuilder();
+            renderStackTrace(frames, causeFrames, traceBuilder);
+            String trace = traceBuilder.toString();
+            interned = new InternedTrace(StackTraceStore.digest(trace), trace);
+            // Bounded like the store; distinct throw sites are few, so starting over is rare and cheap
+            if (internedTraces.size() >= stackTraceStore.getCapacity()) {
+                internedTraces.clear();
+            }
+            internedTraces.put(key, interned);
+        }
+        // The store may have evicted the stack trace since it was cached
+        stackTraceStore.put(interned.digest(), interned.trace());
+        return interned.digest();
+    }
+
+    /**
+     * Renders the class name, message, cause and suppressed exceptions of an exception.
+     *
+     * @param exception      The exception to render.
+     * @param detailsBuilder The builder to append to.
+     */
+    void renderHeader(Throwable exception, StringBuilder detailsBuilder) {
+        detailsBuilder.append("Caused by ").append(exception.getClass().getName()).append("\n");
+        detailsBuilder.append("Exception message: ").append(exception.getMessage()).append("\n");
+
+        Throwable cause = exception.getCause();
+        if (cause != null) {
+            detailsBuilder.append("Cause: ").append(cause).append("\n");
+        }
+
+        Throwable[] suppressed = exception.getSuppressed();
+        if (suppressed.length > 0) {
+            detailsBuilder.append("Suppressed exceptions: ").append(Arrays.toString(suppressed)).append("\n");
+        }
+    }
+
+    /**
+     * Renders the stack trace of an exception and, if the policy includes it, the stack trace of its cause.
+     *
+     * @param exception      The exception to render.
+     * @param detailsBuilder The builder to append to.
+     */
+    void renderStackTrace(Throwable exception, StringBuilder detailsBuilder) {
+        Throwable cause = exception.getCause();
+        renderStackTrace(exception.getStackTrace(), policy.includeCauseTrace() && cause != null ? cause.getStackTrace() : null, detailsBuilder);
+    }
+
+    /**
+     * Renders a stack trace and, if given, the stack trace of its cause.
+     *
+     * @param frames         The stack trace.
+     * @param causeFrames    The stack trace of the cause, or null if it is not rendered.
+     * @param detailsBuilder The builder to append to.
+     */
+    private void renderStackTrace(StackTraceElement[] frames, StackTraceElement[] causeFrames, StringBuilder detailsBuilder) {
+        appendFrames(frames, frames.length, 0, detailsBuilder);
+
+        if (causeFrames != null) {
+            int inCommon = countFramesInCommon(causeFrames, frames);
+            detailsBuilder.append("\nCause stack trace: ");
+            appendFrames(causeFrames, causeFrames.length - inCommon, inCommon, detailsBuilder);
+        }
+    }
+
+    /**
+     * Appends the first frames of a stack trace in the format of {@link Arrays#toString(Object[])},
+     * leaving out excluded frames and frames beyond the policy's maximum.
+     *
+     * @param frames         The stack trace.
+     * @param length         The number of frames from the top of the stack trace to consider.
+     * @param inCommon       The number of remaining frames that are elided because they are shared with the enclosing trace.
+     * @param detailsBuilder The builder to append to.
+     */
+    private void appendFrames(StackTraceElement[] frames, int length, int inCommon, StringBuilder detailsBuilder) {
+        detailsBuilder.append('[');
+        int rendered = 0;
+        int filtered = 0;
+        int index = 0;
+        for (; index < length && rendered < policy.maxFrames(); index++) {
+            StackTraceElement frame = frames[index];
+            if (policy.isExcluded(frame)) {
+                filtered++;
+                continue;
+            }
+            if (rendered++ > 0) {
+                detailsBuilder.append(", ");
+            }
+            detailsBuilder.append(frame);
+        }
+        boolean first = rendered == 0;
+        first = appendSummary(filtered, " filtered", first, detailsBuilder);
+        first = appendSummary(length - index, " more", first, detailsBuilder);
+        appendSummary(inCommon, " in common", first, detailsBuilder);
+        detailsBuilder.append(']');
+    }
+
+    private static boolean appendSummary(int count, String label, boolean first, StringBuilder detailsBuilder) {
+        if (count == 0) {
+            return first;
+        }
+        if (!first) {
+            detailsBuilder.append(", ");
+        }
+        detailsBuilder.append("... ").append(count).append(label);
+        return false;
+    }
+
+    /**
+     * Counts the frames at the bottom of the cause's stack trace that are identical to the enclosing
+     * stack trace, like {@link Throwable#printStackTrace()} does.
+     *
+     * @param causeFrames     The stack trace of the cause.
+     * @param enclosingFrames The stack trace of the enclosing exception.
+     * @return The number of frames in common.
+     */
+    private static int countFramesInCommon(StackTraceElement[] causeFrames, StackTraceElement[] enclosingFrames) {
+        int m = causeFrames.length - 1;
+        int n = enclosingFrames.length - 1;
+        while (m >= 0 && n >= 0 && causeFrames[m].equals(enclosingFrames[n])) {
+            m--;
+            n--;
+        }
+        return causeFrames.length - 1 - m;
+    }
+}
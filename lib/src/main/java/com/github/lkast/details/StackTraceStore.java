@@ -0,0 +1,183 @@
+package com.github.lkast.details;
+
+import com.github.lkast.model.Issue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps rendered stack traces by the digest of their content, so identical stack traces are kept only once.
+ * <p>
+ * When an {@link ExceptionDetailsRenderer} is created with a store, the details of an issue only contain the
+ * digest of the stack trace instead of the stack trace itself, in a line starting with
+ * {@value ExceptionDetailsRenderer#STACK_TRACE_DIGEST_PREFIX}. The stack trace can then be looked up with
+ * {@link #find(String)}, or collected for a batch of issues with {@link #tracesOf(Collection)} and sent along with it.
+ * <p>
+ * The digest is the hex encoding of the first {@value #DIGEST_BYTES} bytes of the SHA-256 hash of the stack trace.
+ * The store is bounded: when it is full, the stack traces added first are evicted. All operations are thread-safe.
+ */
+public class StackTraceStore {
+    /**
+     * The number of bytes of the SHA-256 hash used as digest.
+     */
+    public static final int DIGEST_BYTES = 16;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final int capacity;
+    private final ConcurrentHashMap<String, String> traces = new ConcurrentHashMap<>();
+    // The digests in the order they were added, to evict the oldest stack traces first
+    private final ConcurrentLinkedQueue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Creates a store.
+     *
+     * @param capacity The maximum number of stack traces kept.
+     * @throws IllegalArgumentException If capacity is not positive.
+     */
+    public StackTraceStore(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Computes the digest of a stack trace.
+     *
+     * @param trace The rendered stack trace.
+     * @return The digest of the stack trace.
+     * @throws IllegalArgumentException If trace is null.
+     */
+    public static String digest(String trace) {
+        if (trace == null) {
+            throw new IllegalArgumentException("Trace cannot be null");
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(trace.getBytes(StandardCharsets.UTF_8));
+            return HEX.formatHex(hash, 0, DIGEST_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adds a stack trace to the store unless it is already present.
+     *
+     * @param trace The rendered stack trace.
+     * @return The digest of the stack trace.
+     * @throws IllegalArgumentException If trace is null.
+     */
+    public String intern(String trace) {
+        String digest = digest(trace);
+        put(digest, trace);
+        return digest;
+    }
+
+    /**
+     * Adds a stack trace whose digest is already known, e.g. one received along with a batch of issues.
+     *
+     * @param digest The digest of the stack trace, as computed by {@link #digest(String)}.
+     * @param trace  The rendered stack trace.
+     * @throws IllegalArgumentException If digest or trace is null.
+     */
+    public void put(String digest, String trace) {
+        if (digest == null || trace == null) {
+            throw new IllegalArgumentException("Digest and trace cannot be null");
+        }
+        if (traces.putIfAbsent(digest, trace) != null) {
+            return;
+        }
+        insertionOrder.add(digest);
+        while (traces.size() > capacity) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            if (traces.remove(oldest) != null) {
+                evictionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * Looks up a stack trace by its digest.
+     *
+     * @param digest The digest of the stack trace.
+     * @return The stack trace, or an empty Optional if it is unknown or was evicted.
+     */
+    public Optional<String> find(String digest) {
+        return digest == null ? Optional.empty() : Optional.ofNullable(traces.get(digest));
+    }
+
+    /**
+     * Collects the stack traces referenced by a batch of issues, e.g. to send them along with the batch.
+     * Each stack trace is contained once, however many issues reference it.
+     * <p>
+     * The details of the issues are read, so stack traces that were not rendered yet are rendered and added first.
+     *
+     * @param issues The issues.
+     * @return The stack traces by their digest, in the order they are first referenced.
+     *         Digests whose stack trace was evicted are left out.
+     */
+    public Map<String, String> tracesOf(Collection<Issue> issues) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (Issue issue : issues) {
+            String digest = digestOf(issue.getDetails());
+            if (digest != null && !result.containsKey(digest)) {
+                String trace = traces.get(digest);
+                if (trace != null) {
+                    result.put(digest, trace);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Extracts the digest of the stack trace from the details of an issue.
+     *
+     * @param details The details of an issue (can be null).
+     * @return The digest, or null if the details do not reference an interned stack trace.
+     */
+    public static String digestOf(String details) {
+        if (details == null) {
+            return null;
+        }
+        int start = details.lastIndexOf(ExceptionDetailsRenderer.STACK_TRACE_DIGEST_PREFIX);
+        if (start < 0 || (start > 0 && details.charAt(start - 1) != '\n')) {
+            return null;
+        }
+        start += ExceptionDetailsRenderer.STACK_TRACE_DIGEST_PREFIX.length();
+        int end = details.indexOf('\n', start);
+        return details.substring(start, end < 0 ? details.length() : end);
+    }
+
+    /**
+     * @return The number of stack traces currently kept.
+     */
+    public int size() {
+        return traces.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The number of stack traces evicted because the store was full.
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.lkast.id;
+
+import java.util.UUID;
+
+/**
+ * Generates the IDs of newly created issues.
+ * <p>
+ * Implementations must be thread-safe and must not return the same ID twice.
+ */
+@FunctionalInterface
+public interface IssueIdGenerator {
+
+    /**
+     * Generates a new issue ID.
+     *
+     * @return The generated ID.
+     */
+    UUID nextId();
+
+    /**
+     * Returns the shared generator for time-ordered version 7 UUIDs. This is the default generator.
+     *
+     * @return The time-ordered generator.
+     * @see TimeOrderedIssueIdGenerator
+     */
+    static IssueIdGenerator timeOrdered() {
+        return TimeOrderedIssueIdGenerator.INSTANCE;
+    }
+
+    /**
+     * Returns the shared generator for random version 4 UUIDs, as created by {@link UUID#randomUUID()}.
+     *
+     * @return The random generator.
+     */
+    static IssueIdGenerator random() {
+        return UUID::randomUUID;
+    }
+}
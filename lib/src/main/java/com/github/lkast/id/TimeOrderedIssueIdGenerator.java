@@ -0,0 +1,68 @@
+package com.github.lkast.id;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates time-ordered version 7 UUIDs as specified in RFC 9562.
+ * <p>
+ * The 48 most significant bits contain the Unix timestamp in milliseconds, so IDs sort by creation time and
+ * index well in databases. The 12 bits following the version are a counter that keeps IDs generated by the same
+ * thread strictly increasing, even within one millisecond or if the clock goes backwards. The remaining 62 bits
+ * are random.
+ * <p>
+ * Each thread keeps its own counter and uses {@link ThreadLocalRandom}, so threads never contend with each other.
+ */
+public class TimeOrderedIssueIdGenerator implements IssueIdGenerator {
+    static final TimeOrderedIssueIdGenerator INSTANCE = new TimeOrderedIssueIdGenerator();
+
+    private static final int MAX_SEQUENCE = 0xFFF;
+
+    private final Clock clock;
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    private static final class State {
+        private long lastMillis = Long.MIN_VALUE;
+        private int sequence;
+    }
+
+    /**
+     * Constructs a new TimeOrderedIssueIdGenerator using the system clock.
+     */
+    public TimeOrderedIssueIdGenerator() {
+        this(Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a new TimeOrderedIssueIdGenerator.
+     *
+     * @param clock The clock providing the timestamps of the IDs.
+     * @throws IllegalArgumentException if clock is null.
+     */
+    public TimeOrderedIssueIdGenerator(Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID nextId() {
+        State current = state.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long millis = clock.millis();
+        if (millis > current.lastMillis) {
+            current.lastMillis = millis;
+            // Start in the lower half of the counter to leave room for increments within the same millisecond
+            current.sequence = random.nextInt(MAX_SEQUENCE / 2);
+        } else if (++current.sequence > MAX_SEQUENCE) {
+            // The counter is exhausted, borrow the next millisecond to stay monotonic
+            current.lastMillis++;
+            current.sequence = 0;
+        }
+        long mostSigBits = (current.lastMillis << 16) | 0x7000L | current.sequence;
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
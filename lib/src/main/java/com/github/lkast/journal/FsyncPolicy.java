@@ -0,0 +1,14 @@
+package com.github.lkast.journal;
+
+/**
+ * Enumeration representing when an {@link IssueJournal} forces appended records to disk.
+ *
+ * <ul>
+ *   <li>{@link #BATCHED} - A background thread forces all written segments periodically. Records appended since the last run can be lost if the machine crashes, but not if only the JVM dies.</li>
+ *   <li>{@link #PER_FAILURE} - Like {@link #BATCHED}, but every {@link com.github.lkast.model.Severity#FAILURE} record is forced before the append returns.</li>
+ * </ul>
+ */
+public enum FsyncPolicy {
+    BATCHED,
+    PER_FAILURE
+}
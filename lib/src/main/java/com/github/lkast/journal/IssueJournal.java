@@ -0,0 +1,456 @@
+package com.github.lkast.journal;
+
+import com.github.lkast.exceptions.IssueMappingException;
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.Severity;
+import com.github.lkast.serialization.IssueBinaryCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * A durable, append-only journal of issues in memory-mapped segment files.
+ * <p>
+ * Every record consists of a marker, the payload length, a CRC32C checksum of the payload and the payload encoded with
+ * {@link IssueBinaryCodec}. Records are written directly into the mapped segment, so they survive a crash of the
+ * JVM as soon as the append returns, and a crash of the machine once they have been forced to disk according to the
+ * {@link FsyncPolicy}.
+ * <p>
+ * Appending is lock-free: a producer reserves its record with a compare-and-set on the next position and then writes
+ * it without coordination. The marker at the start of the record is written last and commits it. If encoding fails,
+ * a skip marker with the length of the reserved record is written instead. A record whose producer died before
+ * committing it stays a hole of zeros, which replay steps over to the next committed record, so later records are
+ * never lost. When a segment is full, the producer that notices it rolls over to the next segment with the same
+ * compare-and-set. Old segments are deleted according to the retention of the {@link JournalConfig}, whether their
+ * records have been acknowledged or not, except for the newest segment.
+ * <p>
+ * A position identifies a record: the upper 32 bits are the segment index and the lower 32 bits the offset within
+ * the segment. Once records have been delivered, {@link #acknowledge(long)} persists the watermark. After a restart,
+ * {@link #replay(RecordHandler)} passes every record that was not acknowledged to a handler, and new records are
+ * appended to a new segment.
+ */
+public class IssueJournal implements AutoCloseable {
+    // The marker, the payload length and the checksum
+    private static final int RECORD_HEADER_SIZE = 12;
+    private static final int ALIGNMENT = 8;
+    private static final int COMMITTED_MARKER = 0x494D4C52;
+    private static final int SKIPPED_MARKER = 0x494D4C53;
+    // Orders the marker after the rest of the record for readers in the same process
+    private static final VarHandle MARKER = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final Pattern SEGMENT_FILE_NAME = Pattern.compile("segment-(\\d{10})\\.journal");
+    private static final String ACKNOWLEDGED_FILE_NAME = "acknowledged";
+
+    private final Path directory;
+    private final JournalConfig config;
+    private final IssueBinaryCodec codec;
+    private final Clock clock;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final AtomicLong nextPosition;
+    private final AtomicLong acknowledgedPosition;
+    private final MappedByteBuffer acknowledgedBuffer;
+    private final LongAdder corruptedRecordCount = new LongAdder();
+    private final Thread fsyncThread;
+    private volatile boolean closed;
+
+    /**
+     * Handles a record during {@link #replay(RecordHandler)}.
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+
+        /**
+         * Called for every record that was not acknowledged, in the order of their positions.
+         *
+         * @param position The position of the record, to be passed to {@link #acknowledge(long)} once it is delivered.
+         * @param issue    The issue of the record.
+         */
+        void onRecord(long position, Issue issue);
+    }
+
+    private static final class Segment {
+        private final long index;
+        private final Path path;
+        private final Instant createdAt;
+        // Null for segments recovered from a previous run, they are only read
+        private final MappedByteBuffer buffer;
+        private volatile boolean dirty;
+
+        Segment(long index, Path path, Instant createdAt, MappedByteBuffer buffer) {
+            this.index = index;
+            this.path = path;
+            this.createdAt = createdAt;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Opens a journal using the system clock, creating the directory if necessary.
+     *
+     * @param directory The directory of the segment files.
+     * @param config    The configuration of the journal.
+     * @param codec     The codec encoding and decoding the issues.
+     * @throws IOException If the directory or the existing segments cannot be read.
+     */
+    public IssueJournal(Path directory, JournalConfig config, IssueBinaryCodec codec) throws IOException {
+        this(directory, config, codec, Clock.systemUTC());
+    }
+
+    /**
+     * Opens a journal, creating the directory if necessary.
+     *
+     * @param directory The directory of the segment files.
+     * @param config    The configuration of the journal.
+     * @param codec     The codec encoding and decoding the issues.
+     * @param clock     The clock measuring the age of segments.
+     * @throws IOException If the directory or the existing segments cannot be read.
+     */
+    public IssueJournal(Path directory, JournalConfig config, IssueBinaryCodec codec, Clock clock) throws IOException {
+        if (directory == null || config == null || codec == null || clock == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.config = config;
+        this.codec = codec;
+        this.clock = clock;
+
+        long lastIndex = -1;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = SEGMENT_FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    long index = Long.parseLong(matcher.group(1));
+                    segments.put(index, new Segment(index, file, Files.getLastModifiedTime(file).toInstant(), null));
+                    lastIndex = Math.max(lastIndex, index);
+                }
+            }
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve(ACKNOWLEDGED_FILE_NAME),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.acknowledgedBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, 16);
+        }
+        long acknowledged = acknowledgedBuffer.getLong(0);
+        // The complement guards against a torn write of the watermark, in which case all records are replayed
+        this.acknowledgedPosition = new AtomicLong(acknowledgedBuffer.getLong(8) == ~acknowledged ? acknowledged : 0);
+
+        // Records of a previous run are never appended to, so a partially written record cannot be overwritten.
+        // New positions also start after the watermark, even if the segments it refers to are gone.
+        long acknowledgedIndex = acknowledgedPosition.get() == 0 ? -1 : (acknowledgedPosition.get() - 1) >>> 32;
+        this.nextPosition = new AtomicLong(position(Math.max(lastIndex, acknowledgedIndex) + 1, 0));
+
+        this.fsyncThread = new Thread(this::fsyncLoop, "iml-journal-fsync");
+        this.fsyncThread.setDaemon(true);
+        this.fsyncThread.start();
+    }
+
+    private static long position(long segmentIndex, int offset) {
+        return segmentIndex << 32 | offset;
+    }
+
+    /**
+     * Appends an issue including its cause chain.
+     *
+     * @param issue The issue to append.
+     * @return The position of the record.
+     * @throws IssueMappingException If the encoded issue does not fit into a segment.
+     * @throws UncheckedIOException  If a new segment cannot be created.
+     * @throws IllegalStateException If the journal is closed.
+     */
+    public long append(Issue issue) {
+        if (issue == null) {
+            throw new IllegalArgumentException("Issue cannot be null");
+        }
+        if (closed) {
+            throw new IllegalStateException("The journal is closed");
+        }
+        int payloadSize = codec.encodedSize(issue);
+        int recordSize = recordSize(payloadSize);
+        if (recordSize > config.segmentSize()) {
+            throw new IssueMappingException("Issue of " + payloadSize + " bytes does not fit into a journal segment");
+        }
+        while (true) {
+            long position = nextPosition.get();
+            long segmentIndex = position >>> 32;
+            int offset = (int) position;
+            if (offset + recordSize <= config.segmentSize()) {
+                if (nextPosition.compareAndSet(position, position + recordSize)) {
+                    Segment segment = writableSegment(segmentIndex);
+                    write(segment, offset, issue, payloadSize);
+                    if (config.fsyncPolicy() == FsyncPolicy.PER_FAILURE && issue.getSeverity() == Severity.FAILURE) {
+                        segment.buffer.force(offset, recordSize);
+                    } else {
+                        segment.dirty = true;
+                    }
+                    return position;
+                }
+            } else if (nextPosition.compareAndSet(position, position(segmentIndex + 1, 0))) {
+                // The rest of the full segment stays zeroed, replay steps over it
+                writableSegment(segmentIndex + 1);
+                applyRetention();
+            }
+        }
+    }
+
+    private void write(Segment segment, int offset, Issue issue, int payloadSize) {
+        MappedByteBuffer buffer = segment.buffer;
+        boolean committed = false;
+        try {
+            buffer.putInt(offset + 4, payloadSize);
+            codec.encode(issue, buffer.slice(offset + RECORD_HEADER_SIZE, payloadSize));
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(offset + RECORD_HEADER_SIZE, payloadSize));
+            buffer.putInt(offset + 8, (int) crc.getValue());
+            MARKER.setRelease(buffer, offset, COMMITTED_MARKER);
+            committed = true;
+        } finally {
+            if (!committed) {
+                // Replay jumps over the reserved record without having to search for the next one
+                buffer.putInt(offset + 4, payloadSize);
+                buffer.putInt(offset + 8, ~payloadSize);
+                MARKER.setRelease(buffer, offset, SKIPPED_MARKER);
+            }
+        }
+    }
+
+    private Segment writableSegment(long index) {
+        Segment segment = segments.get(index);
+        if (segment != null) {
+            return segment;
+        }
+        Path path = directory.resolve(String.format("segment-%010d.journal", index));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Concurrent producers may map the same file, the mappings share the same pages
+            Segment created = new Segment(index, path, clock.instant(), channel.map(FileChannel.MapMode.READ_WRITE, 0, config.segmentSize()));
+            Segment existing = segments.putIfAbsent(index, created);
+            return existing != null ? existing : created;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create journal segment " + path, e);
+        }
+    }
+
+    /**
+     * Deletes the oldest segments while the total size exceeds the maximum or they are older than the maximum age.
+     * The segment currently written to and the newest segment are never deleted, so the positions of a restarted
+     * journal always continue after the existing records. This happens automatically when a new segment is started.
+     */
+    public void applyRetention() {
+        Instant oldestAllowed = clock.instant().minus(config.maxRetainedAge());
+        long currentIndex = nextPosition.get() >>> 32;
+        Map.Entry<Long, Segment> newest = segments.lastEntry();
+        if (newest != null) {
+            // After a restart, the segment to be written to is only created on the first append
+            currentIndex = Math.min(currentIndex, newest.getKey());
+        }
+        long totalSize = (long) segments.size() * config.segmentSize();
+        for (Segment segment : segments.values()) {
+            if (segment.index >= currentIndex) {
+                return;
+            }
+            if (totalSize <= config.maxRetainedBytes() && !segment.createdAt.isBefore(oldestAllowed)) {
+                return;
+            }
+            if (segments.remove(segment.index, segment)) {
+                try {
+                    Files.deleteIfExists(segment.path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Unable to delete journal segment " + segment.path, e);
+                }
+            }
+            totalSize -= config.segmentSize();
+        }
+    }
+
+    /**
+     * Acknowledges that all records up to and including the given position have been delivered.
+     * They are not passed to the handler of {@link #replay(RecordHandler)} anymore.
+     *
+     * @param position The position of the last delivered record.
+     */
+    public void acknowledge(long position) {
+        long watermark = acknowledgedPosition.accumulateAndGet(position + 1, Math::max);
+        synchronized (acknowledgedBuffer) {
+            // Concurrent acknowledgements may arrive out of order, only ever persist the newest watermark
+            if (acknowledgedBuffer.getLong(0) < watermark) {
+                acknowledgedBuffer.putLong(0, watermark);
+                acknowledgedBuffer.putLong(8, ~watermark);
+            }
+        }
+    }
+
+    /**
+     * Passes every committed record that was not acknowledged to the handler, in the order of their positions.
+     * Records with an invalid checksum are skipped and counted. Records that were never committed are skipped.
+     *
+     * @param handler The handler for the records.
+     * @return The number of records passed to the handler.
+     * @throws UncheckedIOException If a segment cannot be read.
+     */
+    public long replay(RecordHandler handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("RecordHandler cannot be null");
+        }
+        long acknowledged = acknowledgedPosition.get();
+        long count = 0;
+        for (Map.Entry<Long, Segment> entry : segments.entrySet()) {
+            if (position(entry.getKey() + 1, 0) <= acknowledged) {
+                continue;
+            }
+            count += replay(entry.getValue(), acknowledged, handler);
+        }
+        return count;
+    }
+
+    private long replay(Segment segment, long acknowledged, RecordHandler handler) {
+        ByteBuffer buffer;
+        if (segment.buffer != null) {
+            buffer = segment.buffer.duplicate();
+        } else {
+            try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read journal segment " + segment.path, e);
+            }
+        }
+        // The records of the segment currently written to end at the next position
+        long nextPosition = this.nextPosition.get();
+        int limit = nextPosition >>> 32 == segment.index ? Math.min((int) nextPosition, buffer.limit()) : buffer.limit();
+        long count = 0;
+        int offset = 0;
+        while (offset + RECORD_HEADER_SIZE <= limit) {
+            int marker = (int) MARKER.getAcquire(buffer, offset);
+            int payloadSize = buffer.getInt(offset + 4);
+            boolean validSize = payloadSize > 0 && payloadSize <= limit - offset - RECORD_HEADER_SIZE;
+            if (marker == SKIPPED_MARKER && validSize && buffer.getInt(offset + 8) == ~payloadSize) {
+                offset += recordSize(payloadSize);
+                continue;
+            }
+            if (marker != COMMITTED_MARKER || !validSize) {
+                // A hole of a record that was never committed, or the end of the records: search for the next one
+                offset += ALIGNMENT;
+                continue;
+            }
+            long position = position(segment.index, offset);
+            ByteBuffer payload = buffer.slice(offset + RECORD_HEADER_SIZE, payloadSize);
+            CRC32C crc = new CRC32C();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(offset + 8)) {
+                // The length cannot be trusted either, so the next record is searched for
+                if (position >= acknowledged) {
+                    corruptedRecordCount.increment();
+                }
+                offset += ALIGNMENT;
+                continue;
+            }
+            if (position >= acknowledged) {
+                Issue issue = null;
+                try {
+                    issue = codec.decode(payload);
+                } catch (IssueMappingException e) {
+                    corruptedRecordCount.increment();
+                }
+                if (issue != null) {
+                    handler.onRecord(position, issue);
+                    count++;
+                }
+            }
+            offset += recordSize(payloadSize);
+        }
+        return count;
+    }
+
+    private static int recordSize(int payloadSize) {
+        return (RECORD_HEADER_SIZE + payloadSize + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    /**
+     * Forces all written segments and the acknowledged watermark to disk.
+     */
+    public void sync() {
+        for (Segment segment : segments.values()) {
+            if (segment.buffer != null && segment.dirty) {
+                segment.dirty = false;
+                segment.buffer.force();
+            }
+        }
+        synchronized (acknowledgedBuffer) {
+            acknowledgedBuffer.force();
+        }
+    }
+
+    private void fsyncLoop() {
+        long intervalNanos = config.fsyncInterval().toNanos();
+        while (!closed) {
+            LockSupport.parkNanos(this, intervalNanos);
+            sync();
+        }
+    }
+
+    /**
+     * @return The position at which the next record will be appended. All appended records have lower positions.
+     */
+    public long getNextPosition() {
+        return nextPosition.get();
+    }
+
+    /**
+     * @return The position up to which all records have been acknowledged, exclusive.
+     */
+    public long getAcknowledgedPosition() {
+        return acknowledgedPosition.get();
+    }
+
+    /**
+     * @return The number of segment files.
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * @return The number of records skipped during replay because of an invalid checksum or payload.
+     */
+    public long getCorruptedRecordCount() {
+        return corruptedRecordCount.sum();
+    }
+
+    /**
+     * Stops the background fsync thread and forces all written segments to disk.
+     * Appending afterwards throws an {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(fsyncThread);
+        boolean interrupted = false;
+        while (fsyncThread.isAlive()) {
+            try {
+                fsyncThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        sync();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
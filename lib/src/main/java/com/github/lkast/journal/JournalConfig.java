@@ -0,0 +1,44 @@
+package com.github.lkast.journal;
+
+import java.time.Duration;
+
+/**
+ * The configuration of an {@link IssueJournal}.
+ *
+ * @param segmentSize      The size of a segment file in bytes. A record must fit into one segment.
+ * @param fsyncPolicy      When appended records are forced to disk.
+ * @param fsyncInterval    The interval at which written segments are forced to disk.
+ * @param maxRetainedBytes The maximum total size of all segment files. The oldest segments are deleted first.
+ * @param maxRetainedAge   The maximum age of a segment file, measured from when it was created.
+ */
+public record JournalConfig(int segmentSize, FsyncPolicy fsyncPolicy, Duration fsyncInterval, long maxRetainedBytes,
+                            Duration maxRetainedAge) {
+
+    public JournalConfig {
+        if (segmentSize < 64) {
+            throw new IllegalArgumentException("segmentSize must be at least 64 bytes");
+        }
+        if (fsyncPolicy == null) {
+            throw new IllegalArgumentException("FsyncPolicy cannot be null");
+        }
+        if (fsyncInterval == null || fsyncInterval.isNegative() || fsyncInterval.isZero()) {
+            throw new IllegalArgumentException("fsyncInterval must be positive");
+        }
+        if (maxRetainedBytes < segmentSize) {
+            throw new IllegalArgumentException("maxRetainedBytes must be at least segmentSize");
+        }
+        if (maxRetainedAge == null || maxRetainedAge.isNegative() || maxRetainedAge.isZero()) {
+            throw new IllegalArgumentException("maxRetainedAge must be positive");
+        }
+    }
+
+    /**
+     * Creates the default configuration: segments of 16 MiB, {@link FsyncPolicy#PER_FAILURE}, an fsync interval of
+     * 1 second, and segments retained up to 1 GiB in total and for 7 days.
+     *
+     * @return The default configuration.
+     */
+    public static JournalConfig defaults() {
+        return new JournalConfig(16 << 20, FsyncPolicy.PER_FAILURE, Duration.ofSeconds(1), 1L << 30, Duration.ofDays(7));
+    }
+}
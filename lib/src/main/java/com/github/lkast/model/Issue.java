@@ -1,12 +1,15 @@
 package com.github.lkast.model;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.github.lkast.exceptions.IssueMappingException;
+import com.github.lkast.id.IssueIdGenerator;
+import com.github.lkast.serialization.IssueJson;
 
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 public class Issue {
 
@@ -16,15 +19,21 @@ public class Issue {
     private Service service;
     private Instant timeStamp;
     private Issue causeIssue;
-    private String details;
+    private volatile String details;
+    private transient volatile Supplier<String> detailsSupplier;
     private UUID correlationID; // Set request or message id here
 
     private Issue() {
-        this.issueID = UUID.randomUUID();
+        // Used when deserializing, the ID is then set from the serialized issue
+        this.issueID = null;
+    }
+
+    private Issue(UUID issueID) {
+        this.issueID = issueID;
     }
 
     public Issue(IssueType issueType, Severity severity, Service service, Instant timeStamp) {
-        this();
+        this(IssueIdGenerator.timeOrdered().nextId());
         if (issueType == null || severity == null || service == null || timeStamp == null) {
             throw new IllegalArgumentException("Arguments cannot be null");
         }
@@ -35,7 +44,7 @@ public class Issue {
     }
 
     public Issue(IssueType issueType, Severity severity, Service service, Instant timeStamp, String details) {
-        this();
+        this(IssueIdGenerator.timeOrdered().nextId());
         if (issueType == null || severity == null || service == null || timeStamp == null) {
             throw new IllegalArgumentException("Arguments cannot be null");
         }
@@ -46,8 +55,26 @@ public class Issue {
         this.details = details;
     }
 
+    /**
+     * Creates an issue whose details are rendered lazily.
+     * <p>
+     * The supplier is invoked when the details are first read, e.g. by {@link #getDetails()} or during serialization,
+     * so issues that are dropped never pay for rendering them. The supplier may be invoked more than once
+     * if the details are read concurrently, so it must always return the same result.
+     *
+     * @param issueType       The type of the issue.
+     * @param severity        The severity level of the issue.
+     * @param service         The service in which the issue occurred.
+     * @param timeStamp       The timestamp of the issue.
+     * @param detailsSupplier The supplier rendering the details (can be null).
+     */
+    public Issue(IssueType issueType, Severity severity, Service service, Instant timeStamp, Supplier<String> detailsSupplier) {
+        this(issueType, severity, service, timeStamp);
+        this.detailsSupplier = detailsSupplier;
+    }
+
     public Issue(IssueType issueType, Severity severity, Service service, Instant timeStamp, Issue causeIssue, String details, UUID correlationID) {
-        this();
+        this(IssueIdGenerator.timeOrdered().nextId());
         if (issueType == null || severity == null || service == null || timeStamp == null) {
             throw new IllegalArgumentException("Arguments cannot be null");
         }
@@ -60,6 +87,50 @@ public class Issue {
         this.correlationID = correlationID;
     }
 
+    /**
+     * Creates an issue with a known ID, e.g. when decoding an issue that was created elsewhere.
+     *
+     * @param issueID       The ID of the issue.
+     * @param issueType     The type of the issue.
+     * @param severity      The severity level of the issue.
+     * @param service       The service in which the issue occurred.
+     * @param timeStamp     The timestamp of the issue.
+     * @param causeIssue    The issue that caused this issue (can be null).
+     * @param details       Additional details about the issue (can be null).
+     * @param correlationID The correlation ID of the issue (can be null).
+     */
+    public Issue(UUID issueID, IssueType issueType, Severity severity, Service service, Instant timeStamp, Issue causeIssue, String details, UUID correlationID) {
+        this(issueID);
+        if (issueID == null || issueType == null || severity == null || service == null || timeStamp == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        this.issueType = issueType;
+        this.severity = severity;
+        this.service = service;
+        this.timeStamp = timeStamp;
+        this.causeIssue = causeIssue;
+        this.details = details;
+        this.correlationID = correlationID;
+    }
+
+    /**
+     * Creates an issue with a known ID whose details are rendered lazily.
+     *
+     * @param issueID         The ID of the issue.
+     * @param issueType       The type of the issue.
+     * @param severity        The severity level of the issue.
+     * @param service         The service in which the issue occurred.
+     * @param timeStamp       The timestamp of the issue.
+     * @param causeIssue      The issue that caused this issue (can be null).
+     * @param detailsSupplier The supplier rendering the details (can be null).
+     * @param correlationID   The correlation ID of the issue (can be null).
+     * @see #Issue(IssueType, Severity, Service, Instant, Supplier)
+     */
+    public Issue(UUID issueID, IssueType issueType, Severity severity, Service service, Instant timeStamp, Issue causeIssue, Supplier<String> detailsSupplier, UUID correlationID) {
+        this(issueID, issueType, severity, service, timeStamp, causeIssue, (String) null, correlationID);
+        this.detailsSupplier = detailsSupplier;
+    }
+
     public UUID getIssueID() {
         return issueID;
     }
@@ -85,6 +156,13 @@ public class Issue {
     }
 
     public String getDetails() {
+        Supplier<String> supplier = detailsSupplier;
+        if (supplier != null) {
+            String renderedDetails = supplier.get();
+            details = renderedDetails;
+            detailsSupplier = null; // Release the supplier and everything it references
+            return renderedDetails;
+        }
         return details;
     }
 
@@ -93,15 +171,39 @@ public class Issue {
     }
 
     public String toJsonString() {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        String jsonString;
-        try {
-            jsonString = objectMapper.writeValueAsString(this);
-        } catch (JsonProcessingException e) {
-            throw new IssueMappingException("Unable to generate JSON string", e);
-        }
-        return jsonString;
+        return IssueJson.toJsonString(this);
+    }
+
+    /**
+     * Writes this issue as UTF-8 encoded JSON to an output stream. The stream is not closed.
+     *
+     * @param outputStream The stream to write to.
+     * @throws IssueMappingException If the issue cannot be serialized or written.
+     */
+    public void writeJson(OutputStream outputStream) {
+        IssueJson.write(this, outputStream);
+    }
+
+    /**
+     * Writes this issue as JSON to a writer. The writer is not closed.
+     *
+     * @param writer The writer to write to.
+     * @throws IssueMappingException If the issue cannot be serialized or written.
+     */
+    public void writeJson(Writer writer) {
+        IssueJson.write(this, writer);
+    }
+
+    /**
+     * Writes this issue as UTF-8 encoded JSON into a buffer, starting at its current position.
+     *
+     * @param buffer The buffer to write to.
+     * @return The number of bytes written.
+     * @throws IssueMappingException If the issue cannot be serialized or does not fit into the buffer.
+     * @see IssueJson#write(Issue, ByteBuffer)
+     */
+    public int writeJson(ByteBuffer buffer) {
+        return IssueJson.write(this, buffer);
     }
 
     @Override
@@ -113,7 +215,7 @@ public class Issue {
                 ", service=" + service +
                 ", timeStamp=" + timeStamp +
                 ", causeIssue=" + causeIssue +
-                ", details='" + details + '\'' +
+                ", details='" + getDetails() + '\'' +
                 ", correlationID=" + correlationID +
                 '}';
     }
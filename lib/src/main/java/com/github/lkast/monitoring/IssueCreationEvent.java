@@ -0,0 +1,56 @@
+package com.github.lkast.monitoring;
+
+import com.github.lkast.model.Issue;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JDK Flight Recorder event for the creation of an issue by the {@link com.github.lkast.IssueManager}.
+ * <p>
+ * The duration covers the whole create call, including the mapping lookup, the rate limiter check and the ID
+ * generation, but not the lazy rendering of exception details. The event is disabled by default and can be
+ * enabled in a JFR configuration by its name. While it is disabled, allocating, beginning and committing it
+ * is optimized away by the JIT compiler.
+ */
+@Name(IssueCreationEvent.NAME)
+@Label("Issue Creation")
+@Category({"Issue Management Library"})
+@Description("Creation of an issue")
+@StackTrace(false)
+public class IssueCreationEvent extends Event {
+    public static final String NAME = "com.github.lkast.IssueCreation";
+
+    @Label("Source")
+    @Description("What the issue was created from, e.g. exception or http")
+    private String source;
+
+    @Label("Issue Name")
+    private String issueName;
+
+    @Label("Severity")
+    private String severity;
+
+    @Label("Issue Category")
+    private String issueCategory;
+
+    /**
+     * Ends this event and commits it if it is enabled and exceeds its threshold.
+     * Nothing is committed for issues rejected by the rate limiter.
+     *
+     * @param source The source the issue was created from.
+     * @param issue  The created issue, or null if it was rejected.
+     */
+    public void commit(String source, Issue issue) {
+        if (issue != null && shouldCommit()) {
+            this.source = source;
+            this.issueName = issue.getIssueType().name().name();
+            this.severity = issue.getSeverity().name();
+            this.issueCategory = issue.getIssueType().category().name();
+            commit();
+        }
+    }
+}
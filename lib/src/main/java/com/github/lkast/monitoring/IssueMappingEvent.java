@@ -0,0 +1,52 @@
+package com.github.lkast.monitoring;
+
+import com.github.lkast.model.IssueName;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JDK Flight Recorder event for resolving an HTTP status or an exception to an {@link IssueName}
+ * in the {@link com.github.lkast.IssueMapper}.
+ * <p>
+ * The event is disabled by default. While it is disabled, allocating, beginning and committing it
+ * is optimized away by the JIT compiler.
+ */
+@Name(IssueMappingEvent.NAME)
+@Label("Issue Mapping")
+@Category({"Issue Management Library"})
+@Description("Lookup of the issue name for an HTTP status or an exception")
+@StackTrace(false)
+public class IssueMappingEvent extends Event {
+    public static final String NAME = "com.github.lkast.IssueMapping";
+
+    @Label("Lookup")
+    @Description("The kind of key that was looked up, e.g. http or exception")
+    private String lookup;
+
+    @Label("Key")
+    @Description("The HTTP status or the exception class name")
+    private String key;
+
+    @Label("Issue Name")
+    private String issueName;
+
+    /**
+     * Ends this event and commits it if it is enabled and exceeds its threshold.
+     *
+     * @param lookup    The kind of key that was looked up.
+     * @param key       The key that was looked up.
+     * @param issueName The issue name the key resolved to.
+     */
+    public void commit(String lookup, String key, IssueName issueName) {
+        if (shouldCommit()) {
+            this.lookup = lookup;
+            this.key = key;
+            this.issueName = issueName.name();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.lkast.monitoring;
+
+import com.github.lkast.model.IssueCategory;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.IssueType;
+import com.github.lkast.model.Severity;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts created and rate limited issues per {@link IssueName}, {@link Severity} and {@link IssueCategory}.
+ * <p>
+ * The counters are {@link LongAdder}s in flat arrays indexed by the enum ordinals, so recording an issue needs no
+ * map lookup, no lock and no allocation, and stays cheap under contention. The counters only grow; adapters for a
+ * metrics system poll {@link #snapshot()} and export the counts, or the differences between two snapshots.
+ * <p>
+ * Metrics are recorded by an {@link com.github.lkast.IssueManager} once they are set with
+ * {@link com.github.lkast.IssueManager#setMetrics(IssueMetrics)}. One instance can be shared between managers.
+ */
+public class IssueMetrics {
+    static final IssueName[] ISSUE_NAMES = IssueName.values();
+    static final Severity[] SEVERITIES = Severity.values();
+    static final IssueCategory[] CATEGORIES = IssueCategory.values();
+    static final int SLOTS = ISSUE_NAMES.length * SEVERITIES.length * CATEGORIES.length;
+
+    private final Clock clock;
+    private final LongAdder[] createdCounts = newCounters();
+    private final LongAdder[] rejectedCounts = newCounters();
+
+    /**
+     * Creates metrics whose snapshots are timestamped by the system UTC clock.
+     */
+    public IssueMetrics() {
+        this(Clock.systemUTC());
+    }
+
+    /**
+     * Creates metrics whose snapshots are timestamped by the given clock.
+     *
+     * @param clock The clock providing the timestamps of snapshots.
+     * @throws IllegalArgumentException if clock is null.
+     */
+    public IssueMetrics(Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.clock = clock;
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[SLOTS];
+        for (int i = 0; i < SLOTS; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    static int index(IssueName issueName, Severity severity, IssueCategory category) {
+        return (issueName.ordinal() * SEVERITIES.length + severity.ordinal()) * CATEGORIES.length + category.ordinal();
+    }
+
+    /**
+     * Records a created issue.
+     *
+     * @param issueType The type of the issue.
+     * @param severity  The severity of the issue.
+     */
+    public void recordCreated(IssueType issueType, Severity severity) {
+        createdCounts[index(issueType.name(), severity, issueType.category())].increment();
+    }
+
+    /**
+     * Records an issue that was not created because it was rejected by the rate limiter.
+     *
+     * @param issueType The type of the issue.
+     * @param severity  The severity of the issue.
+     */
+    public void recordRejected(IssueType issueType, Severity severity) {
+        rejectedCounts[index(issueType.name(), severity, issueType.category())].increment();
+    }
+
+    /**
+     * Takes a snapshot of all counters.
+     * <p>
+     * The counters are read one after another while issues may still be recorded, so a snapshot is not an atomic
+     * view across counters. Every single count is exact at some point during the call, though.
+     *
+     * @return The snapshot.
+     */
+    public IssueMetricsSnapshot snapshot() {
+        long[] created = new long[SLOTS];
+        long[] rejected = new long[SLOTS];
+        for (int i = 0; i < SLOTS; i++) {
+            created[i] = createdCounts[i].sum();
+            rejected[i] = rejectedCounts[i].sum();
+        }
+        return new IssueMetricsSnapshot(clock.instant(), created, rejected);
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.lkast.monitoring;
+
+import com.github.lkast.model.IssueCategory;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Severity;
+
+import java.time.Instant;
+
+/**
+ * An immutable snapshot of the counters of {@link IssueMetrics}.
+ */
+public final class IssueMetricsSnapshot {
+    private final Instant timeStamp;
+    private final long[] createdCounts;
+    private final long[] rejectedCounts;
+
+    /**
+     * A consumer of the counters of one combination of issue name, severity and category.
+     */
+    @FunctionalInterface
+    public interface CounterConsumer {
+        void accept(IssueName issueName, Severity severity, IssueCategory category, long createdCount, long rejectedCount);
+    }
+
+    IssueMetricsSnapshot(Instant timeStamp, long[] createdCounts, long[] rejectedCounts) {
+        this.timeStamp = timeStamp;
+        this.createdCounts = createdCounts;
+        this.rejectedCounts = rejectedCounts;
+    }
+
+    public Instant getTimeStamp() {
+        return timeStamp;
+    }
+
+    /**
+     * @param issueName The issue name.
+     * @param severity  The severity.
+     * @param category  The category.
+     * @return The number of created issues with the given issue name, severity and category.
+     * @throws IllegalArgumentException if any argument is null.
+     */
+    public long getCreatedCount(IssueName issueName, Severity severity, IssueCategory category) {
+        return createdCounts[index(issueName, severity, category)];
+    }
+
+    /**
+     * @param issueName The issue name.
+     * @param severity  The severity.
+     * @param category  The category.
+     * @return The number of issues with the given issue name, severity and category rejected by the rate limiter.
+     * @throws IllegalArgumentException if any argument is null.
+     */
+    public long getRejectedCount(IssueName issueName, Severity severity, IssueCategory category) {
+        return rejectedCounts[index(issueName, severity, category)];
+    }
+
+    public long getTotalCreatedCount() {
+        long total = 0;
+        for (long count : createdCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public long getTotalRejectedCount() {
+        long total = 0;
+        for (long count : rejectedCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Passes the counters of every combination of issue name, severity and category with at least one created or
+     * rejected issue to the consumer. Combinations that were never recorded are skipped, so exporters only see
+     * the series that exist.
+     *
+     * @param consumer The consumer of the counters.
+     */
+    public void forEach(CounterConsumer consumer) {
+        int slot = 0;
+        for (IssueName issueName : IssueMetrics.ISSUE_NAMES) {
+            for (Severity severity : IssueMetrics.SEVERITIES) {
+                for (IssueCategory category : IssueMetrics.CATEGORIES) {
+                    if (createdCounts[slot] != 0 || rejectedCounts[slot] != 0) {
+                        consumer.accept(issueName, severity, category, createdCounts[slot], rejectedCounts[slot]);
+                    }
+                    slot++;
+                }
+            }
+        }
+    }
+
+    private static int index(IssueName issueName, Severity severity, IssueCategory category) {
+        if (issueName == null || severity == null || category == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        return IssueMetrics.index(issueName, severity, category);
+    }
+
+    @Override
+    public String toString() {
+        return "IssueMetricsSnapshot{" +
+                "timeStamp=" + timeStamp +
+                ", totalCreatedCount=" + getTotalCreatedCount() +
+                ", totalRejectedCount=" + getTotalRejectedCount() +
+                '}';
+    }
+}
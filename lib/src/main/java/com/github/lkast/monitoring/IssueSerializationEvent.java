@@ -0,0 +1,63 @@
+package com.github.lkast.monitoring;
+
+import com.github.lkast.model.Issue;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JDK Flight Recorder event for serializing an issue to JSON or deserializing it from JSON.
+ * <p>
+ * The payload size is the number of UTF-8 bytes for byte arrays and buffers, the number of characters for strings,
+ * and -1 for streams and writers, whose size is not known without counting. The event is disabled by default.
+ * While it is disabled, allocating, beginning and committing it is optimized away by the JIT compiler.
+ */
+@Name(IssueSerializationEvent.NAME)
+@Label("Issue Serialization")
+@Category({"Issue Management Library"})
+@Description("Serialization of an issue to or from JSON")
+@StackTrace(false)
+public class IssueSerializationEvent extends Event {
+    public static final String NAME = "com.github.lkast.IssueSerialization";
+    public static final String WRITE = "write";
+    public static final String READ = "read";
+
+    @Label("Operation")
+    @Description("Either write or read")
+    private String operation;
+
+    @Label("Issue Name")
+    private String issueName;
+
+    @Label("Severity")
+    private String severity;
+
+    @Label("Payload Size")
+    @DataAmount(DataAmount.BYTES)
+    private long payloadSize;
+
+    /**
+     * Ends this event and commits it if it is enabled and exceeds its threshold.
+     *
+     * @param operation   Either {@link #WRITE} or {@link #READ}.
+     * @param issue       The serialized or deserialized issue.
+     * @param payloadSize The size of the JSON, or -1 if it is unknown.
+     */
+    public void commit(String operation, Issue issue, long payloadSize) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            if (issue != null && issue.getIssueType() != null) {
+                this.issueName = issue.getIssueType().name().name();
+            }
+            if (issue != null && issue.getSeverity() != null) {
+                this.severity = issue.getSeverity().name();
+            }
+            this.payloadSize = payloadSize;
+            commit();
+        }
+    }
+}
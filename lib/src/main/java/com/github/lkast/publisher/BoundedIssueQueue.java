@@ -0,0 +1,163 @@
+package com.github.lkast.publisher;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.Severity;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded, lock-free queue of issues with one lane per {@link Severity}.
+ * <p>
+ * The lanes share one capacity. Within a lane, issues are removed in the order they were added. More severe lanes
+ * are drained first, and the separate lanes allow evicting issues of a specific severity when the queue is full.
+ */
+final class BoundedIssueQueue {
+    private static final Severity[] SEVERITIES = Severity.values();
+
+    private final MpmcRing<Issue>[] lanes;
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    @SuppressWarnings("unchecked")
+    BoundedIssueQueue(int capacity) {
+        this.capacity = capacity;
+        this.lanes = new MpmcRing[SEVERITIES.length];
+        for (int i = 0; i < lanes.length; i++) {
+            // Every lane can hold the full capacity, so a reserved slot is only ever taken by an issue being removed
+            lanes[i] = new MpmcRing<>(capacity);
+        }
+    }
+
+    /**
+     * Adds an issue if the queue is not full.
+     *
+     * @return true if the issue was added, false if the queue is full.
+     */
+    boolean offer(Issue issue) {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        add(issue);
+        return true;
+    }
+
+    /**
+     * Adds all issues if the queue has room for all of them, reserving the room for all issues at once.
+     *
+     * @return true if the issues were added, false if the queue has no room for all of them.
+     */
+    boolean offerAll(List<Issue> issues) {
+        int current;
+        do {
+            current = size.get();
+            if (issues.size() > capacity - current) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + issues.size()));
+        for (Issue issue : issues) {
+            add(issue);
+        }
+        return true;
+    }
+
+    /**
+     * Adds an issue whose slot was already reserved in {@link #size}.
+     * <p>
+     * A consumer claims the head of a lane before it frees the slot, and concurrent consumers can free their slots out
+     * of order. So the ring can still report the slot as taken until a consumer that already removed the issue in it
+     * has freed it, which takes only a few instructions.
+     */
+    private void add(Issue issue) {
+        MpmcRing<Issue> lane = lanes[issue.getSeverity().ordinal()];
+        while (!lane.offer(issue)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Removes the oldest issue of the most severe non-empty lane.
+     *
+     * @return the removed issue, or null if the queue is empty.
+     */
+    Issue poll() {
+        for (int i = lanes.length - 1; i >= 0; i--) {
+            Issue issue = pollLane(i);
+            if (issue != null) {
+                return issue;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the oldest issue of the least severe non-empty lane, as long as it is not more severe than the given severity.
+     *
+     * @return the removed issue, or null if there is no such issue.
+     */
+    Issue pollLeastSevere(Severity maxSeverity) {
+        for (int i = 0; i <= maxSeverity.ordinal(); i++) {
+            Issue issue = pollLane(i);
+            if (issue != null) {
+                return issue;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the issue with the oldest timestamp among the heads of all lanes.
+     *
+     * @return the removed issue, or null if the queue is empty.
+     */
+    Issue pollOldest() {
+        int oldestLane = -1;
+        Issue oldest = null;
+        for (int i = 0; i < lanes.length; i++) {
+            Issue head = lanes[i].peek();
+            if (head != null && (oldest == null || head.getTimeStamp().isBefore(oldest.getTimeStamp()))) {
+                oldest = head;
+                oldestLane = i;
+            }
+        }
+        if (oldestLane < 0) {
+            return null;
+        }
+        Issue issue = pollLane(oldestLane);
+        return issue != null ? issue : poll();
+    }
+
+    private Issue pollLane(int lane) {
+        Issue issue = lanes[lane].poll();
+        if (issue != null) {
+            size.decrementAndGet();
+        }
+        return issue;
+    }
+
+    /**
+     * Returns the enqueue position of every lane, indexed by the ordinal of the severity. Every issue added before
+     * this call has a lower position in its lane, including issues whose producers are still writing them.
+     *
+     * @return the number of issues added to each lane so far.
+     */
+    long[] enqueuedPositions() {
+        long[] positions = new long[lanes.length];
+        for (int i = 0; i < lanes.length; i++) {
+            positions[i] = lanes[i].tailPosition();
+        }
+        return positions;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
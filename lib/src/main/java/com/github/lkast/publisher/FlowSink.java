@@ -0,0 +1,61 @@
+package com.github.lkast.publisher;
+
+import com.github.lkast.model.Issue;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * Exposes delivered issues as a {@link Flow.Publisher} for reactive consumers.
+ * <p>
+ * Every subscriber has its own buffer. When a buffer is full, delivery blocks until the subscriber catches up, so a
+ * slow subscriber eventually fills the queue of the {@link IssuePublisher} and its overflow policy applies.
+ * Subscribers are completed when the publisher is closed.
+ */
+public class FlowSink implements IssueSink, Flow.Publisher<Issue> {
+    private final SubmissionPublisher<Issue> submissionPublisher;
+
+    /**
+     * Creates a sink that notifies subscribers on the common pool with the default buffer capacity.
+     */
+    public FlowSink() {
+        this(ForkJoinPool.commonPool(), Flow.defaultBufferSize());
+    }
+
+    /**
+     * Creates a sink.
+     *
+     * @param executor       The executor notifying subscribers.
+     * @param bufferCapacity The maximum number of buffered issues per subscriber.
+     */
+    public FlowSink(Executor executor, int bufferCapacity) {
+        this.submissionPublisher = new SubmissionPublisher<>(executor, bufferCapacity);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Issue> subscriber) {
+        submissionPublisher.subscribe(subscriber);
+    }
+
+    @Override
+    public void publish(List<Issue> issues) {
+        for (Issue issue : issues) {
+            submissionPublisher.submit(issue);
+        }
+    }
+
+    @Override
+    public void close() {
+        submissionPublisher.close();
+    }
+
+    /**
+     * @return The number of current subscribers.
+     */
+    public int getNumberOfSubscribers() {
+        return submissionPublisher.getNumberOfSubscribers();
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.lkast.publisher;
+
+import com.github.lkast.model.Issue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the most recently delivered issues in memory. Useful for tests and diagnostics endpoints.
+ * <p>
+ * This sink is thread-safe, so the issues can be read while the publisher is delivering.
+ */
+public class InMemorySink implements IssueSink {
+    private final ArrayDeque<Issue> issues = new ArrayDeque<>();
+    private final int maxIssues;
+
+    /**
+     * Creates a sink that keeps an unbounded number of issues.
+     */
+    public InMemorySink() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a sink that keeps at most the given number of issues, discarding the oldest ones.
+     *
+     * @param maxIssues The maximum number of issues kept.
+     */
+    public InMemorySink(int maxIssues) {
+        if (maxIssues < 1) {
+            throw new IllegalArgumentException("maxIssues must be positive");
+        }
+        this.maxIssues = maxIssues;
+    }
+
+    @Override
+    public synchronized void publish(List<Issue> batch) {
+        for (Issue issue : batch) {
+            if (issues.size() == maxIssues) {
+                issues.removeFirst();
+            }
+            issues.addLast(issue);
+        }
+    }
+
+    /**
+     * @return A snapshot of the kept issues in the order of delivery.
+     */
+    public synchronized List<Issue> getIssues() {
+        return new ArrayList<>(issues);
+    }
+
+    /**
+     * @return The number of kept issues.
+     */
+    public synchronized int size() {
+        return issues.size();
+    }
+
+    /**
+     * Discards all kept issues.
+     */
+    public synchronized void clear() {
+        issues.clear();
+    }
+}
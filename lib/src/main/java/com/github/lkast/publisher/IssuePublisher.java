@@ -0,0 +1,425 @@
+package com.github.lkast.publisher;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.Severity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers issues asynchronously to one or more {@link IssueSink}s.
+ * <p>
+ * {@link #publish(Issue)} places the issue on a bounded, lock-free queue and returns immediately, unless the queue is
+ * full and the {@link OverflowPolicy} is {@link OverflowPolicy#BLOCK}. A single delivery thread drains the queue in
+ * batches and hands every batch to all sinks in order. More severe issues are delivered first when the queue is backed up.
+ * <p>
+ * {@link #flush()} waits until every issue published before the call has been delivered or dropped, and
+ * {@link #close()} delivers all remaining issues before closing the sinks. Errors thrown by sinks are counted and
+ * do not stop the delivery of later batches.
+ */
+public class IssuePublisher implements AutoCloseable {
+    private static final Severity[] SEVERITIES = Severity.values();
+    private static final long MAX_BLOCK_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final PublisherConfig config;
+    private final List<IssueSink> sinks;
+    private final BoundedIssueQueue queue;
+    private final Thread deliveryThread;
+    private final long lingerNanos;
+
+    private final AtomicInteger inFlightPublishes = new AtomicInteger();
+    private final AtomicLong acceptedCount = new AtomicLong();
+    // The number of issues of every lane that were delivered or evicted, in the order of their positions in the lane
+    private final AtomicLongArray completedCounts = new AtomicLongArray(SEVERITIES.length);
+    private final LongAdder deliveredCount = new LongAdder();
+    private final LongAdder[] droppedCounts = new LongAdder[SEVERITIES.length];
+    private final LongAdder sinkErrorCount = new LongAdder();
+    private final Queue<FlushRequest> flushRequests = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean closed;
+    private volatile Exception lastSinkError;
+
+    private record FlushRequest(long[] targets, CompletableFuture<Void> future) {
+    }
+
+    /**
+     * Creates a publisher with the {@link PublisherConfig#defaults() default configuration}.
+     *
+     * @param sinks The sinks to deliver issues to.
+     */
+    public IssuePublisher(IssueSink... sinks) {
+        this(PublisherConfig.defaults(), sinks);
+    }
+
+    /**
+     * Creates a publisher and starts its delivery thread.
+     *
+     * @param config The configuration of the publisher.
+     * @param sinks  The sinks to deliver issues to.
+     */
+    public IssuePublisher(PublisherConfig config, IssueSink... sinks) {
+        if (config == null) {
+            throw new IllegalArgumentException("PublisherConfig cannot be null");
+        }
+        if (sinks == null || sinks.length == 0) {
+            throw new IllegalArgumentException("At least one IssueSink is required");
+        }
+        for (IssueSink sink : sinks) {
+            if (sink == null) {
+                throw new IllegalArgumentException("IssueSink cannot be null");
+            }
+        }
+        this.config = config;
+        this.sinks = List.of(sinks);
+        this.queue = new BoundedIssueQueue(config.capacity());
+        this.lingerNanos = config.lingerTime().toNanos();
+        for (int i = 0; i < droppedCounts.length; i++) {
+            droppedCounts[i] = new LongAdder();
+        }
+        Thread.Builder builder = config.virtualThread() ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        this.deliveryThread = builder.name("iml-issue-publisher").unstarted(this::deliveryLoop);
+        this.deliveryThread.start();
+    }
+
+    /**
+     * Queues an issue for delivery.
+     *
+     * @param issue The issue to publish.
+     * @return true if the issue was queued, false if it was dropped because of the overflow policy or because the publisher is closed.
+     */
+    public boolean publish(Issue issue) {
+        if (issue == null) {
+            throw new IllegalArgumentException("Issue cannot be null");
+        }
+        inFlightPublishes.incrementAndGet();
+        try {
+            if (closed || !enqueue(issue)) {
+                recordDrop(issue);
+                return false;
+            }
+            acceptedCount.incrementAndGet();
+            return true;
+        } finally {
+            inFlightPublishes.decrementAndGet();
+        }
+    }
+
+    /**
+     * Queues several issues for delivery if the queue has room for all of them, independent of the overflow policy.
+     * Either all issues are queued or none, and no queued issue is evicted for them.
+     *
+     * @param issues The issues to publish.
+     * @return true if all issues were queued, false if the queue has no room for all of them or the publisher is closed.
+     *         Issues that were not queued are not counted as dropped, since the caller still holds them.
+     */
+    public boolean publishAll(List<Issue> issues) {
+        if (issues == null) {
+            throw new IllegalArgumentException("Issues cannot be null");
+        }
+        for (Issue issue : issues) {
+            if (issue == null) {
+                throw new IllegalArgumentException("Issue cannot be null");
+            }
+        }
+        inFlightPublishes.incrementAndGet();
+        try {
+            if (closed || !queue.offerAll(issues)) {
+                return false;
+            }
+            acceptedCount.addAndGet(issues.size());
+            return true;
+        } finally {
+            inFlightPublishes.decrementAndGet();
+        }
+    }
+
+    private boolean enqueue(Issue issue) {
+        return switch (config.overflowPolicy()) {
+            case BLOCK -> enqueueBlocking(issue);
+            case DROP_OLDEST -> queue.offer(issue) || evictAndOffer(queue.pollOldest(), issue);
+            case DROP_LOWEST_SEVERITY -> queue.offer(issue) || evictAndOffer(queue.pollLeastSevere(issue.getSeverity()), issue);
+            case SAMPLE -> isSampled(issue) && queue.offer(issue);
+        };
+    }
+
+    private boolean enqueueBlocking(Issue issue) {
+        long parkNanos = 1_000;
+        while (!queue.offer(issue)) {
+            if (closed) {
+                return false;
+            }
+            LockSupport.parkNanos(parkNanos);
+            parkNanos = Math.min(parkNanos * 2, MAX_BLOCK_PARK_NANOS);
+        }
+        return true;
+    }
+
+    private boolean evictAndOffer(Issue evicted, Issue issue) {
+        if (evicted == null) {
+            return false;
+        }
+        // The evicted issue was accepted before, so it counts as completed for pending flushes
+        recordDrop(evicted);
+        completedCounts.incrementAndGet(evicted.getSeverity().ordinal());
+        return queue.offer(issue);
+    }
+
+    private boolean isSampled(Issue issue) {
+        return issue.getSeverity() == Severity.FAILURE
+                || queue.size() < queue.capacity() / 2
+                || ThreadLocalRandom.current().nextInt(config.sampleRate()) == 0;
+    }
+
+    private void recordDrop(Issue issue) {
+        droppedCounts[issue.getSeverity().ordinal()].increment();
+    }
+
+    /**
+     * Waits until every issue published before this call has been delivered or dropped, and the sinks have been flushed.
+     *
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public void flush() throws InterruptedException {
+        try {
+            requestFlush().get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Flushing the publisher failed", e.getCause());
+        }
+    }
+
+    /**
+     * Waits until every issue published before this call has been delivered or dropped, and the sinks have been flushed.
+     *
+     * @param timeout The maximum time to wait.
+     * @return true if the flush completed in time, false otherwise.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public boolean flush(Duration timeout) throws InterruptedException {
+        try {
+            requestFlush().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Flushing the publisher failed", e.getCause());
+        }
+    }
+
+    private CompletableFuture<Void> requestFlush() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (!deliveryThread.isAlive()) {
+            future.complete(null);
+            return future;
+        }
+        // Lanes are drained by severity, so every lane is flushed up to its own position
+        flushRequests.add(new FlushRequest(queue.enqueuedPositions(), future));
+        LockSupport.unpark(deliveryThread);
+        if (!deliveryThread.isAlive()) {
+            // The delivery thread ended after the request was added and might not have seen it
+            future.complete(null);
+        }
+        return future;
+    }
+
+    /**
+     * Stops accepting issues, delivers all queued issues, and closes the sinks.
+     * Blocks until the delivery thread has finished.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(deliveryThread);
+        boolean interrupted = false;
+        while (deliveryThread.isAlive()) {
+            try {
+                deliveryThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deliveryLoop() {
+        List<Issue> batch = new ArrayList<>(config.maxBatchSize());
+        while (true) {
+            Issue issue;
+            while (batch.size() < config.maxBatchSize() && (issue = queue.poll()) != null) {
+                batch.add(issue);
+            }
+            if (!batch.isEmpty()) {
+                deliver(batch);
+                batch.clear();
+            }
+            completeFlushRequests();
+            if (queue.size() > 0) {
+                continue;
+            }
+            if (closed && inFlightPublishes.get() == 0 && queue.size() == 0) {
+                break;
+            }
+            LockSupport.parkNanos(this, lingerNanos);
+        }
+        flushSinks();
+        for (IssueSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (Exception e) {
+                recordSinkError(e);
+            }
+        }
+        FlushRequest request;
+        while ((request = flushRequests.poll()) != null) {
+            request.future().complete(null);
+        }
+    }
+
+    private void deliver(List<Issue> batch) {
+        for (IssueSink sink : sinks) {
+            try {
+                sink.publish(batch);
+            } catch (Exception e) {
+                recordSinkError(e);
+            }
+        }
+        deliveredCount.add(batch.size());
+        for (Issue issue : batch) {
+            completedCounts.incrementAndGet(issue.getSeverity().ordinal());
+        }
+    }
+
+    private void completeFlushRequests() {
+        if (flushRequests.isEmpty()) {
+            return;
+        }
+        long[] completed = new long[SEVERITIES.length];
+        for (int i = 0; i < completed.length; i++) {
+            completed[i] = completedCounts.get(i);
+        }
+        boolean sinksFlushed = false;
+        for (Iterator<FlushRequest> iterator = flushRequests.iterator(); iterator.hasNext(); ) {
+            FlushRequest request = iterator.next();
+            if (isCompleted(request, completed)) {
+                if (!sinksFlushed) {
+                    flushSinks();
+                    sinksFlushed = true;
+                }
+                iterator.remove();
+                request.future().complete(null);
+            }
+        }
+    }
+
+    /**
+     * Checks whether all issues of a flush request left the queue. Issues leave a lane in the order of their positions,
+     * and the delivery thread holds no undelivered batch when it checks, so a lane whose completed count reached the
+     * target contains no issue published before the request.
+     */
+    private static boolean isCompleted(FlushRequest request, long[] completed) {
+        for (int i = 0; i < completed.length; i++) {
+            if (completed[i] < request.targets()[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void flushSinks() {
+        for (IssueSink sink : sinks) {
+            try {
+                sink.flush();
+            } catch (Exception e) {
+                recordSinkError(e);
+            }
+        }
+    }
+
+    private void recordSinkError(Exception e) {
+        sinkErrorCount.increment();
+        lastSinkError = e;
+    }
+
+    /**
+     * @return The number of issues currently waiting for delivery.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return The maximum number of issues waiting for delivery.
+     */
+    public int getCapacity() {
+        return queue.capacity();
+    }
+
+    /**
+     * @return The number of issues accepted by {@link #publish(Issue)} so far.
+     */
+    public long getPublishedCount() {
+        return acceptedCount.get();
+    }
+
+    /**
+     * @return The number of issues handed to the sinks so far.
+     */
+    public long getDeliveredCount() {
+        return deliveredCount.sum();
+    }
+
+    /**
+     * @return The number of issues dropped so far, either on publishing or by eviction from the queue.
+     */
+    public long getDroppedCount() {
+        long sum = 0;
+        for (LongAdder droppedCount : droppedCounts) {
+            sum += droppedCount.sum();
+        }
+        return sum;
+    }
+
+    /**
+     * @param severity The severity of the dropped issues.
+     * @return The number of issues of the given severity dropped so far.
+     */
+    public long getDroppedCount(Severity severity) {
+        return droppedCounts[severity.ordinal()].sum();
+    }
+
+    /**
+     * @return The number of exceptions thrown by sinks so far.
+     */
+    public long getSinkErrorCount() {
+        return sinkErrorCount.sum();
+    }
+
+    /**
+     * @return The last exception thrown by a sink, or null if no sink has failed.
+     */
+    public Exception getLastSinkError() {
+        return lastSinkError;
+    }
+
+    /**
+     * @return true if {@link #close()} has been called.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.lkast.publisher;
+
+import com.github.lkast.model.Issue;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A destination to which an {@link IssuePublisher} delivers issues.
+ * <p>
+ * All methods are called from the publisher's delivery thread only, so implementations do not need to be thread-safe
+ * unless they are shared between publishers or read from other threads.
+ */
+public interface IssueSink extends AutoCloseable {
+
+    /**
+     * Delivers a batch of issues. The list is reused by the publisher and must not be retained.
+     *
+     * @param issues The issues to deliver.
+     * @throws IOException If the issues cannot be delivered.
+     */
+    void publish(List<Issue> issues) throws IOException;
+
+    /**
+     * Makes sure all delivered issues have reached their destination.
+     *
+     * @throws IOException If flushing fails.
+     */
+    default void flush() throws IOException {
+    }
+
+    /**
+     * Releases the resources of this sink. Called once when the publisher is closed.
+     *
+     * @throws IOException If closing fails.
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
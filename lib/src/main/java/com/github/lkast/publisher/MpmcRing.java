@@ -0,0 +1,103 @@
+package com.github.lkast.publisher;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free multi-producer multi-consumer ring buffer.
+ * <p>
+ * Every slot carries a sequence number that tells producers and consumers whether the slot is free for the current
+ * lap, so neither side ever takes a lock. The capacity is rounded up to a power of two.
+ *
+ * @param <E> The type of the elements.
+ */
+final class MpmcRing<E> {
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    MpmcRing(int minCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, minCapacity - 1)) << 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element if there is space.
+     *
+     * @return true if the element was added, false if the ring is full.
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element.
+     *
+     * @return the removed element, or null if the ring is empty.
+     */
+    E poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E element = elements.get(index);
+                    elements.lazySet(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of positions reserved by producers so far. A producer reserves the position of its element
+     * before the element becomes visible to consumers, and elements leave the ring in the order of their positions.
+     *
+     * @return the position the next element will be added at.
+     */
+    long tailPosition() {
+        return tail.get();
+    }
+
+    /**
+     * Returns the oldest element without removing it. The result is only a hint under concurrent modification.
+     *
+     * @return the oldest element, or null if the ring is empty.
+     */
+    E peek() {
+        long position = head.get();
+        int index = (int) (position & mask);
+        return sequences.get(index) == position + 1 ? elements.get(index) : null;
+    }
+}
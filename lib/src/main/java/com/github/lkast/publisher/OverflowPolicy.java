@@ -0,0 +1,18 @@
+package com.github.lkast.publisher;
+
+/**
+ * Enumeration representing what an {@link IssuePublisher} does when its queue is full.
+ *
+ * <ul>
+ *   <li>{@link #BLOCK} - The publishing thread waits until there is space in the queue or the publisher is closed. No issue is lost, but a slow sink slows down the caller.</li>
+ *   <li>{@link #DROP_OLDEST} - The oldest queued issue is dropped to make room for the new one.</li>
+ *   <li>{@link #DROP_LOWEST_SEVERITY} - The oldest queued issue of the lowest severity is dropped, as long as its severity is lower than or equal to the new issue's severity. Otherwise, the new issue is dropped.</li>
+ *   <li>{@link #SAMPLE} - Once the queue is half full, only a sample of the issues below {@link com.github.lkast.model.Severity#FAILURE} is accepted. Issues that do not fit into the full queue are dropped.</li>
+ * </ul>
+ */
+public enum OverflowPolicy {
+    BLOCK,
+    DROP_OLDEST,
+    DROP_LOWEST_SEVERITY,
+    SAMPLE
+}
@@ -0,0 +1,39 @@
+package com.github.lkast.publisher;
+
+import java.time.Duration;
+
+/**
+ * The configuration of an {@link IssuePublisher}.
+ *
+ * @param capacity       The maximum number of queued issues.
+ * @param maxBatchSize   The maximum number of issues handed to the sinks at once.
+ * @param lingerTime     How long the delivery thread waits for new issues when the queue is empty.
+ * @param overflowPolicy What happens when the queue is full.
+ * @param sampleRate     With {@link OverflowPolicy#SAMPLE}, one in this many issues is accepted once the queue is half full.
+ * @param virtualThread  Whether the delivery thread is a virtual thread instead of a platform daemon thread.
+ */
+public record PublisherConfig(int capacity, int maxBatchSize, Duration lingerTime, OverflowPolicy overflowPolicy,
+                              int sampleRate, boolean virtualThread) {
+
+    public PublisherConfig {
+        if (capacity < 1 || maxBatchSize < 1 || sampleRate < 1) {
+            throw new IllegalArgumentException("capacity, maxBatchSize and sampleRate must be positive");
+        }
+        if (lingerTime == null || lingerTime.isNegative() || lingerTime.isZero()) {
+            throw new IllegalArgumentException("lingerTime must be positive");
+        }
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("OverflowPolicy cannot be null");
+        }
+    }
+
+    /**
+     * Creates the default configuration: a queue of 65536 issues, batches of up to 512 issues, a linger time
+     * of 10 milliseconds, {@link OverflowPolicy#DROP_LOWEST_SEVERITY}, and a platform delivery thread.
+     *
+     * @return The default configuration.
+     */
+    public static PublisherConfig defaults() {
+        return new PublisherConfig(65536, 512, Duration.ofMillis(10), OverflowPolicy.DROP_LOWEST_SEVERITY, 10, false);
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.lkast.publisher;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.serialization.IssueNdjson;
+import com.google.common.io.CountingOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Writes issues as newline-delimited JSON to a series of local files.
+ * <p>
+ * Files are named {@code <prefix>-<index>.ndjson} with an increasing index. A new file is started once the current
+ * file exceeds the maximum size, and the oldest files are deleted once there are more than the maximum number of files.
+ * Batches are never split across files. After a restart, writing continues with a new file.
+ */
+public class RollingFileSink implements IssueSink {
+    private final Path directory;
+    private final String filePrefix;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final Pattern fileNamePattern;
+
+    private int fileIndex;
+    private CountingOutputStream currentStream;
+
+    /**
+     * Creates a sink and its directory if necessary.
+     *
+     * @param directory   The directory of the files.
+     * @param filePrefix  The prefix of the file names.
+     * @param maxFileSize The size in bytes after which a new file is started.
+     * @param maxFiles    The maximum number of files kept.
+     * @throws IOException If the directory cannot be created or listed.
+     */
+    public RollingFileSink(Path directory, String filePrefix, long maxFileSize, int maxFiles) throws IOException {
+        if (directory == null || filePrefix == null || filePrefix.isEmpty()) {
+            throw new IllegalArgumentException("directory and filePrefix cannot be null or empty");
+        }
+        if (maxFileSize < 1 || maxFiles < 1) {
+            throw new IllegalArgumentException("maxFileSize and maxFiles must be positive");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.filePrefix = filePrefix;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+        this.fileNamePattern = Pattern.compile(Pattern.quote(filePrefix) + "-(\\d+)\\.ndjson");
+        List<Integer> existing = listFileIndices();
+        this.fileIndex = existing.isEmpty() ? 0 : existing.get(existing.size() - 1);
+    }
+
+    @Override
+    public void publish(List<Issue> issues) throws IOException {
+        if (currentStream == null) {
+            roll();
+        }
+        IssueNdjson.write(issues, currentStream);
+        currentStream.flush();
+        if (currentStream.getCount() >= maxFileSize) {
+            currentStream.close();
+            currentStream = null;
+        }
+    }
+
+    private void roll() throws IOException {
+        fileIndex++;
+        OutputStream fileStream = Files.newOutputStream(fileFor(fileIndex), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        currentStream = new CountingOutputStream(new BufferedOutputStream(fileStream, 64 * 1024));
+        List<Integer> indices = listFileIndices();
+        for (int i = 0; i < indices.size() - maxFiles; i++) {
+            Files.deleteIfExists(fileFor(indices.get(i)));
+        }
+    }
+
+    private List<Integer> listFileIndices() throws IOException {
+        List<Integer> indices = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = fileNamePattern.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    indices.add(Integer.parseInt(matcher.group(1)));
+                }
+            });
+        }
+        indices.sort(null);
+        return indices;
+    }
+
+    private Path fileFor(int index) {
+        return directory.resolve(String.format("%s-%05d.ndjson", filePrefix, index));
+    }
+
+    /**
+     * @return The file currently written to, or the last written file if the next batch starts a new one.
+     */
+    public Path getCurrentFile() {
+        return fileFor(fileIndex);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (currentStream != null) {
+            currentStream.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (currentStream != null) {
+            currentStream.close();
+            currentStream = null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.lkast.publisher;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.serialization.IssueNdjson;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes issues as newline-delimited JSON to standard output or another stream.
+ * The stream is flushed after every batch but never closed.
+ */
+public class StdoutSink implements IssueSink {
+    private final OutputStream outputStream;
+
+    /**
+     * Creates a sink writing to {@link System#out}.
+     */
+    public StdoutSink() {
+        this(System.out);
+    }
+
+    /**
+     * Creates a sink writing to the given stream.
+     *
+     * @param outputStream The stream to write to.
+     */
+    public StdoutSink(OutputStream outputStream) {
+        if (outputStream == null) {
+            throw new IllegalArgumentException("OutputStream cannot be null");
+        }
+        this.outputStream = new BufferedOutputStream(outputStream, 64 * 1024);
+    }
+
+    @Override
+    public void publish(List<Issue> issues) throws IOException {
+        IssueNdjson.write(issues, outputStream);
+        outputStream.flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        outputStream.flush();
+    }
+}
@@ -0,0 +1,235 @@
+package com.github.lkast.ratelimit;
+
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Severity;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the rate of issues per {@link IssueName} and {@link Severity}.
+ * <p>
+ * Every combination of issue name and severity has its own token bucket, implemented with the generic cell rate
+ * algorithm: a single theoretical arrival time per bucket, updated with compare-and-set. All state is held in arrays
+ * indexed by the enum ordinals, so a check needs no map lookup, no lock and no allocation.
+ * {@link Severity#FAILURE} issues are never limited.
+ * <p>
+ * With adaptive sampling enabled, issues above the limit are not simply cut off once the bucket is empty. Instead,
+ * every issue is admitted with the probability {@code limit / observed rate}, so the admitted issues are spread evenly
+ * over the flood rather than being its first few. The bucket still caps the admitted rate.
+ * <p>
+ * Each {@link com.github.lkast.IssueManager} belongs to one service, so a limiter set on a single manager limits per
+ * service, and a limiter shared between managers limits across services.
+ */
+public class IssueRateLimiter {
+    private static final IssueName[] ISSUE_NAMES = IssueName.values();
+    private static final Severity[] SEVERITIES = Severity.values();
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long RATE_WINDOW_NANOS = NANOS_PER_SECOND;
+
+    private final AtomicLongArray emissionIntervals;
+    private final AtomicLongArray burstTolerances;
+    private final AtomicLongArray theoreticalArrivalTimes;
+    private final AtomicLongArray windowStarts;
+    private final AtomicLongArray windowCounts;
+    // The observed rates in issues per second, stored as double bits
+    private final AtomicLongArray observedRates;
+    private final LongAdder[] passedCounts;
+    private final LongAdder[] droppedCounts;
+    private volatile boolean adaptiveSampling = true;
+
+    /**
+     * Creates a limiter with the same limit for every issue name and every severity below {@link Severity#FAILURE}.
+     *
+     * @param permitsPerSecond The number of issues per second that pass, or {@link Double#POSITIVE_INFINITY} for no limit.
+     * @param burst            The number of issues that may pass at once after a quiet period.
+     * @throws IllegalArgumentException If permitsPerSecond or burst is not positive.
+     */
+    public IssueRateLimiter(double permitsPerSecond, int burst) {
+        int slots = ISSUE_NAMES.length * SEVERITIES.length;
+        this.emissionIntervals = new AtomicLongArray(slots);
+        this.burstTolerances = new AtomicLongArray(slots);
+        this.theoreticalArrivalTimes = new AtomicLongArray(slots);
+        this.windowStarts = new AtomicLongArray(slots);
+        this.windowCounts = new AtomicLongArray(slots);
+        this.observedRates = new AtomicLongArray(slots);
+        this.passedCounts = new LongAdder[slots];
+        this.droppedCounts = new LongAdder[slots];
+        long now = System.nanoTime();
+        for (int i = 0; i < slots; i++) {
+            passedCounts[i] = new LongAdder();
+            droppedCounts[i] = new LongAdder();
+            theoreticalArrivalTimes.set(i, now);
+            windowStarts.set(i, now);
+        }
+        for (IssueName issueName : ISSUE_NAMES) {
+            for (Severity severity : SEVERITIES) {
+                if (severity != Severity.FAILURE) {
+                    setLimit(issueName, severity, permitsPerSecond, burst);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the limit for one combination of issue name and severity.
+     *
+     * @param issueName        The name of the limited issues.
+     * @param severity         The severity of the limited issues.
+     * @param permitsPerSecond The number of issues per second that pass, or {@link Double#POSITIVE_INFINITY} for no limit.
+     * @param burst            The number of issues that may pass at once after a quiet period.
+     * @throws IllegalArgumentException If severity is {@link Severity#FAILURE}, or permitsPerSecond or burst is not positive.
+     */
+    public void setLimit(IssueName issueName, Severity severity, double permitsPerSecond, int burst) {
+        if (issueName == null || severity == null) {
+            throw new IllegalArgumentException("IssueName and Severity cannot be null");
+        }
+        if (severity == Severity.FAILURE) {
+            throw new IllegalArgumentException("FAILURE issues cannot be rate limited");
+        }
+        if (!(permitsPerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+        int slot = slot(issueName, severity);
+        // An emission interval of 0 means no limit
+        long emissionInterval = Double.isInfinite(permitsPerSecond) ? 0 : Math.max(1, (long) (NANOS_PER_SECOND / permitsPerSecond));
+        burstTolerances.set(slot, emissionInterval * (burst - 1));
+        emissionIntervals.set(slot, emissionInterval);
+    }
+
+    /**
+     * Enables or disables adaptive sampling. It is enabled by default.
+     *
+     * @param adaptiveSampling Whether issues above the limit are sampled according to the observed rate.
+     */
+    public void setAdaptiveSampling(boolean adaptiveSampling) {
+        this.adaptiveSampling = adaptiveSampling;
+    }
+
+    public boolean isAdaptiveSampling() {
+        return adaptiveSampling;
+    }
+
+    /**
+     * Checks whether an issue may pass and records the decision.
+     *
+     * @param issueName The name of the issue.
+     * @param severity  The severity of the issue.
+     * @return true if the issue may pass, false if it is dropped.
+     */
+    public boolean tryAcquire(IssueName issueName, Severity severity) {
+        return tryAcquire(issueName, severity, System.nanoTime());
+    }
+
+    /**
+     * Checks whether an issue may pass at the given time and records the decision.
+     *
+     * @param issueName The name of the issue.
+     * @param severity  The severity of the issue.
+     * @param nowNanos  The current time as returned by {@link System#nanoTime()}.
+     * @return true if the issue may pass, false if it is dropped.
+     */
+    public boolean tryAcquire(IssueName issueName, Severity severity, long nowNanos) {
+        int slot = slot(issueName, severity);
+        long emissionInterval = emissionIntervals.get(slot);
+        if (severity == Severity.FAILURE || emissionInterval == 0) {
+            passedCounts[slot].increment();
+            return true;
+        }
+        if (adaptiveSampling) {
+            double observedRate = observe(slot, nowNanos);
+            double limit = (double) NANOS_PER_SECOND / emissionInterval;
+            if (observedRate > limit && ThreadLocalRandom.current().nextDouble() * observedRate >= limit) {
+                droppedCounts[slot].increment();
+                return false;
+            }
+        }
+        if (takeToken(slot, emissionInterval, nowNanos)) {
+            passedCounts[slot].increment();
+            return true;
+        }
+        droppedCounts[slot].increment();
+        return false;
+    }
+
+    private boolean takeToken(int slot, long emissionInterval, long nowNanos) {
+        long tolerance = burstTolerances.get(slot);
+        while (true) {
+            long theoreticalArrivalTime = theoreticalArrivalTimes.get(slot);
+            long earliest = theoreticalArrivalTime - nowNanos > 0 ? theoreticalArrivalTime : nowNanos;
+            if (earliest - nowNanos > tolerance) {
+                return false;
+            }
+            if (theoreticalArrivalTimes.compareAndSet(slot, theoreticalArrivalTime, earliest + emissionInterval)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Counts an issue and returns the observed rate, which is updated once per window.
+     */
+    private double observe(int slot, long nowNanos) {
+        long count = windowCounts.incrementAndGet(slot);
+        long windowStart = windowStarts.get(slot);
+        long elapsed = nowNanos - windowStart;
+        if (elapsed >= RATE_WINDOW_NANOS && windowStarts.compareAndSet(slot, windowStart, nowNanos)) {
+            windowCounts.addAndGet(slot, -count);
+            double rate = count * (double) NANOS_PER_SECOND / elapsed;
+            observedRates.set(slot, Double.doubleToRawLongBits(rate));
+            return rate;
+        }
+        double rate = Double.longBitsToDouble(observedRates.get(slot));
+        // Within the first window of a flood, the running count is the better estimate
+        return Math.max(rate, count * (double) NANOS_PER_SECOND / Math.max(elapsed, RATE_WINDOW_NANOS));
+    }
+
+    private static int slot(IssueName issueName, Severity severity) {
+        return issueName.ordinal() * SEVERITIES.length + severity.ordinal();
+    }
+
+    /**
+     * @return The rate of issues with the given name and severity in issues per second, as observed by adaptive sampling.
+     */
+    public double getObservedRate(IssueName issueName, Severity severity) {
+        return Double.longBitsToDouble(observedRates.get(slot(issueName, severity)));
+    }
+
+    /**
+     * @return The number of issues with the given name and severity that passed.
+     */
+    public long getPassedCount(IssueName issueName, Severity severity) {
+        return passedCounts[slot(issueName, severity)].sum();
+    }
+
+    /**
+     * @return The number of issues with the given name and severity that were dropped.
+     */
+    public long getDroppedCount(IssueName issueName, Severity severity) {
+        return droppedCounts[slot(issueName, severity)].sum();
+    }
+
+    /**
+     * @return The number of all dropped issues.
+     */
+    public long getDroppedCount() {
+        long sum = 0;
+        for (LongAdder droppedCount : droppedCounts) {
+            sum += droppedCount.sum();
+        }
+        return sum;
+    }
+
+    /**
+     * @return The number of all checked issues, whether they passed or were dropped.
+     */
+    public long getTotalCount() {
+        long sum = getDroppedCount();
+        for (LongAdder passedCount : passedCounts) {
+            sum += passedCount.sum();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,271 @@
+package com.github.lkast.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.lkast.exceptions.IssueMappingException;
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueType;
+import com.github.lkast.model.Service;
+import com.github.lkast.model.Severity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Converts issues from and to a flat JSON representation in which every issue appears only once.
+ * <p>
+ * Instead of nesting the cause issue, each issue references its cause by ID:
+ * <pre>
+ * {"roots":["id-1"],
+ *  "issues":{"id-1":{"issueType":{...},...,"causeIssueID":"id-2"},
+ *            "id-2":{"issueType":{...},...,"causeIssueID":null}}}
+ * </pre>
+ * The roots are the issues that were written, the issues table contains them and their causes. Issues the
+ * consumer already holds can be left out of the table when writing and supplied when reading.
+ * <p>
+ * Cause chains are encoded and decoded iteratively. Decoding detects reference cycles, and both directions
+ * reject cause chains longer than the configured maximum depth. Instances are immutable and can be shared
+ * between threads.
+ */
+public class FlatIssueJson {
+    public static final int DEFAULT_MAX_DEPTH = 1024;
+
+    private static final ObjectWriter ENTRY_WRITER = IssueJson.OBJECT_MAPPER.writerFor(IssueEntry.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    private static final ObjectReader ENTRY_READER = IssueJson.OBJECT_MAPPER.readerFor(IssueEntry.class);
+
+    private final int maxDepth;
+
+    /**
+     * Constructs a new FlatIssueJson with a maximum cause chain depth of {@value #DEFAULT_MAX_DEPTH}.
+     */
+    public FlatIssueJson() {
+        this(DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * Constructs a new FlatIssueJson.
+     *
+     * @param maxDepth The maximum number of issues in a cause chain.
+     * @throws IllegalArgumentException if maxDepth is less than 1.
+     */
+    public FlatIssueJson(int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("maxDepth must be at least 1");
+        }
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * An issue without its cause, which is referenced by ID instead.
+     */
+    record IssueEntry(IssueType issueType, Severity severity, Service service, Instant timeStamp,
+                      UUID causeIssueID, String details, UUID correlationID) {
+
+        static IssueEntry of(Issue issue) {
+            Issue cause = issue.getCauseIssue();
+            return new IssueEntry(issue.getIssueType(), issue.getSeverity(), issue.getService(), issue.getTimeStamp(),
+                    cause == null ? null : cause.getIssueID(), issue.getDetails(), issue.getCorrelationID());
+        }
+
+        Issue toIssue(UUID issueID, Issue causeIssue) {
+            return new Issue(issueID, issueType, severity, service, timeStamp, causeIssue, details, correlationID);
+        }
+    }
+
+    /**
+     * Serializes an issue and its causes to a flat JSON string.
+     *
+     * @param issue The issue to serialize.
+     * @return The flat JSON representation.
+     * @throws IssueMappingException If the issue cannot be serialized.
+     */
+    public String toJsonString(Issue issue) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        write(List.of(issue), Set.of(), outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes issues and their causes as flat JSON. Issues shared between cause chains are written once.
+     *
+     * @param issues       The issues to write.
+     * @param outputStream The stream to write to. It is not closed.
+     * @throws IssueMappingException If an issue cannot be serialized or a cause chain exceeds the maximum depth.
+     */
+    public void write(Collection<Issue> issues, OutputStream outputStream) {
+        write(issues, Set.of(), outputStream);
+    }
+
+    /**
+     * Writes issues and their causes as flat JSON, leaving out issues the consumer already holds.
+     * The cause chain of a known issue is not written either, since the consumer holds it as well.
+     *
+     * @param issues         The issues to write.
+     * @param knownIssueIDs  The IDs of issues that are referenced but not written.
+     * @param outputStream   The stream to write to. It is not closed.
+     * @throws IssueMappingException If an issue cannot be serialized or a cause chain exceeds the maximum depth.
+     */
+    public void write(Collection<Issue> issues, Set<UUID> knownIssueIDs, OutputStream outputStream) {
+        Set<UUID> written = new HashSet<>(knownIssueIDs);
+        try (JsonGenerator generator = IssueJson.OBJECT_MAPPER.getFactory().createGenerator(outputStream)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("roots");
+            for (Issue issue : issues) {
+                generator.writeString(issue.getIssueID().toString());
+            }
+            generator.writeEndArray();
+
+            generator.writeObjectFieldStart("issues");
+            for (Issue issue : issues) {
+                int depth = 0;
+                for (Issue current = issue; current != null && written.add(current.getIssueID()); current = current.getCauseIssue()) {
+                    if (++depth > maxDepth) {
+                        throw new IssueMappingException("Cause chain of issue " + issue.getIssueID() + " exceeds the maximum depth of " + maxDepth);
+                    }
+                    generator.writeFieldName(current.getIssueID().toString());
+                    ENTRY_WRITER.writeValue(generator, IssueEntry.of(current));
+                }
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new IssueMappingException("Unable to write flat JSON", e);
+        }
+    }
+
+    /**
+     * Deserializes issues from a flat JSON string.
+     *
+     * @param json The flat JSON representation.
+     * @return The root issues in the order they were written, with their causes linked.
+     * @throws IssueMappingException If the JSON is malformed, a reference cannot be resolved, the references
+     *                               contain a cycle, or a cause chain exceeds the maximum depth.
+     */
+    public List<Issue> read(String json) {
+        try (JsonParser parser = IssueJson.OBJECT_MAPPER.getFactory().createParser(json)) {
+            return read(parser, Map.of());
+        } catch (IOException e) {
+            throw new IssueMappingException("Error occurred while processing flat JSON", e);
+        }
+    }
+
+    /**
+     * Deserializes issues from a stream of flat JSON.
+     *
+     * @param inputStream  The stream of UTF-8 encoded flat JSON. It is not closed.
+     * @param knownIssues  Issues held by the consumer, by ID, which may be referenced but are not in the table.
+     * @return The root issues in the order they were written, with their causes linked.
+     * @throws IssueMappingException If the JSON is malformed, a reference cannot be resolved, the references
+     *                               contain a cycle, or a cause chain exceeds the maximum depth.
+     */
+    public List<Issue> read(InputStream inputStream, Map<UUID, Issue> knownIssues) {
+        try (JsonParser parser = IssueJson.OBJECT_MAPPER.getFactory().createParser(inputStream)) {
+            return read(parser, knownIssues);
+        } catch (IOException e) {
+            throw new IssueMappingException("Error occurred while processing flat JSON", e);
+        }
+    }
+
+    private List<Issue> read(JsonParser parser, Map<UUID, Issue> knownIssues) throws IOException {
+        List<UUID> rootIDs = new ArrayList<>();
+        Map<UUID, IssueEntry> entries = new HashMap<>();
+
+        expect(parser.nextToken(), JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("roots".equals(field)) {
+                expect(token, JsonToken.START_ARRAY);
+                while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                    rootIDs.add(parseID(parser.getText()));
+                }
+                expect(parser.currentToken(), JsonToken.END_ARRAY);
+            } else if ("issues".equals(field)) {
+                expect(token, JsonToken.START_OBJECT);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    UUID issueID = parseID(parser.currentName());
+                    parser.nextToken();
+                    entries.put(issueID, ENTRY_READER.readValue(parser));
+                }
+                expect(parser.currentToken(), JsonToken.END_OBJECT);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        Map<UUID, Issue> resolved = new HashMap<>(knownIssues);
+        Map<UUID, Integer> depths = new HashMap<>();
+        List<Issue> roots = new ArrayList<>(rootIDs.size());
+        for (UUID rootID : rootIDs) {
+            roots.add(resolve(rootID, entries, resolved, depths));
+        }
+        return roots;
+    }
+
+    /**
+     * Resolves an issue and its causes without recursion. Unresolved issues of the chain are collected
+     * until a resolved issue or the root cause is reached, then constructed starting with the deepest cause.
+     */
+    private Issue resolve(UUID issueID, Map<UUID, IssueEntry> entries, Map<UUID, Issue> resolved, Map<UUID, Integer> depths) {
+        Deque<UUID> pending = new ArrayDeque<>();
+        Set<UUID> visited = new HashSet<>();
+        UUID current = issueID;
+        while (current != null && !resolved.containsKey(current)) {
+            IssueEntry entry = entries.get(current);
+            if (entry == null) {
+                throw new IssueMappingException("Unresolved issue reference: " + current);
+            }
+            if (!visited.add(current)) {
+                throw new IssueMappingException("Cycle in cause chain of issue " + issueID + " at " + current);
+            }
+            pending.push(current);
+            current = entry.causeIssueID();
+        }
+
+        Issue cause = current == null ? null : resolved.get(current);
+        int depth = current == null ? 0 : depths.getOrDefault(current, 1);
+        while (!pending.isEmpty()) {
+            UUID id = pending.pop();
+            if (++depth > maxDepth) {
+                throw new IssueMappingException("Cause chain of issue " + issueID + " exceeds the maximum depth of " + maxDepth);
+            }
+            cause = entries.get(id).toIssue(id, cause);
+            resolved.put(id, cause);
+            depths.put(id, depth);
+        }
+        return cause;
+    }
+
+    private static UUID parseID(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new IssueMappingException("Invalid issue ID: " + value, e);
+        }
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new IssueMappingException("Malformed flat JSON: expected " + expected + " but found " + actual);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.github.lkast.serialization;
+
+import com.github.lkast.IssueMapper;
+import com.github.lkast.exceptions.IssueMappingException;
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueCategory;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.IssueType;
+import com.github.lkast.model.Service;
+import com.github.lkast.model.Severity;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Converts issues from and to a compact, versioned binary format.
+ * <p>
+ * Instead of the description text, only the ordinal of the {@link IssueName} is transferred. The description
+ * is resolved from the local {@link IssueMapper} when decoding, which is why all services are expected to share
+ * the same issues.yaml. An encoded issue starts with a version byte, followed by the number of issues in the
+ * cause chain and the issues themselves, starting with the root cause. Each issue consists of:
+ *
+ * <ul>
+ *   <li>the issue ID as two longs,</li>
+ *   <li>the ordinals of the {@link IssueName}, {@link IssueCategory} and {@link Severity} as one byte each,</li>
+ *   <li>the timestamp as epoch seconds (long) and nanoseconds (int),</li>
+ *   <li>the service ID and name as length-prefixed UTF-8 strings,</li>
+ *   <li>a flag byte followed by the optional details and correlation ID.</li>
+ * </ul>
+ * <p>
+ * Cause chains are encoded and decoded iteratively, so deep chains cannot overflow the stack.
+ * Instances are immutable and can be shared between threads.
+ */
+public class IssueBinaryCodec {
+    public static final byte VERSION = 1;
+
+    private static final int FLAG_DETAILS = 1;
+    private static final int FLAG_CORRELATION_ID = 1 << 1;
+
+    private static final IssueName[] ISSUE_NAMES = IssueName.values();
+    private static final IssueCategory[] CATEGORIES = IssueCategory.values();
+    private static final Severity[] SEVERITIES = Severity.values();
+
+    private final IssueMapper issueMapper;
+
+    /**
+     * Constructs a new IssueBinaryCodec.
+     *
+     * @param issueMapper The mapper used to resolve issue types when decoding.
+     * @throws IllegalArgumentException if issueMapper is null.
+     */
+    public IssueBinaryCodec(IssueMapper issueMapper) {
+        if (issueMapper == null) {
+            throw new IllegalArgumentException("IssueMapper cannot be null");
+        }
+        this.issueMapper = issueMapper;
+    }
+
+    /**
+     * Calculates the number of bytes needed to encode an issue including its cause chain.
+     *
+     * @param issue The issue to encode.
+     * @return The size of the encoded issue in bytes.
+     */
+    public int encodedSize(Issue issue) {
+        int chainLength = 0;
+        int size = 0;
+        for (Issue current = issue; current != null; current = current.getCauseIssue()) {
+            chainLength++;
+            size += 16 + 3 + 12
+                    + stringSize(current.getService().id())
+                    + stringSize(current.getService().name())
+                    + 1
+                    + (current.getDetails() == null ? 0 : stringSize(current.getDetails()))
+                    + (current.getCorrelationID() == null ? 0 : 16);
+        }
+        return 1 + varIntSize(chainLength) + size;
+    }
+
+    /**
+     * Encodes an issue including its cause chain into a new byte array.
+     *
+     * @param issue The issue to encode.
+     * @return The encoded issue.
+     */
+    public byte[] encode(Issue issue) {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(issue));
+        encode(issue, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Encodes an issue including its cause chain into a buffer, starting at its current position.
+     * <p>
+     * On success the position of the buffer is advanced past the encoded issue. If the issue does not fit,
+     * the position is left unchanged, so the buffer can be reused or replaced by a larger one.
+     *
+     * @param issue  The issue to encode.
+     * @param buffer The buffer to write to.
+     * @return The number of bytes written.
+     * @throws IssueMappingException If the issue does not fit into the buffer.
+     */
+    public int encode(Issue issue, ByteBuffer buffer) {
+        if (issue == null) {
+            throw new IllegalArgumentException("Issue cannot be null");
+        }
+        int start = buffer.position();
+        try {
+            int chainLength = 0;
+            for (Issue current = issue; current != null; current = current.getCauseIssue()) {
+                chainLength++;
+            }
+            buffer.put(VERSION);
+            putVarInt(buffer, chainLength);
+            // The root cause comes first, so the decoder can construct each issue after its cause.
+            if (chainLength == 1) {
+                putIssue(buffer, issue);
+            } else {
+                Issue[] chain = new Issue[chainLength];
+                Issue current = issue;
+                for (int i = 0; i < chainLength; i++, current = current.getCauseIssue()) {
+                    chain[i] = current;
+                }
+                for (int i = chainLength - 1; i >= 0; i--) {
+                    putIssue(buffer, chain[i]);
+                }
+            }
+        } catch (BufferOverflowException e) {
+            buffer.position(start);
+            throw new IssueMappingException("Issue does not fit into the buffer", e);
+        }
+        return buffer.position() - start;
+    }
+
+    /**
+     * Decodes an issue including its cause chain.
+     *
+     * @param bytes The encoded issue.
+     * @return The decoded issue.
+     * @throws IssueMappingException If the data is truncated, malformed or of an unsupported version.
+     */
+    public Issue decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Decodes an issue including its cause chain, starting at the current position of the buffer.
+     * On success the position of the buffer is advanced past the encoded issue.
+     *
+     * @param buffer The buffer containing the encoded issue.
+     * @return The decoded issue.
+     * @throws IssueMappingException If the data is truncated, malformed or of an unsupported version.
+     */
+    public Issue decode(ByteBuffer buffer) {
+        try {
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IssueMappingException("Unsupported binary issue version: " + version);
+            }
+            int chainLength = getVarInt(buffer);
+            if (chainLength < 1) {
+                throw new IssueMappingException("Invalid cause chain length: " + chainLength);
+            }
+            Issue issue = null;
+            for (int i = 0; i < chainLength; i++) {
+                issue = getIssue(buffer, issue);
+            }
+            return issue;
+        } catch (BufferUnderflowException e) {
+            throw new IssueMappingException("Truncated binary issue", e);
+        }
+    }
+
+    private static void putIssue(ByteBuffer buffer, Issue issue) {
+        buffer.putLong(issue.getIssueID().getMostSignificantBits());
+        buffer.putLong(issue.getIssueID().getLeastSignificantBits());
+        buffer.put((byte) issue.getIssueType().name().ordinal());
+        buffer.put((byte) issue.getIssueType().category().ordinal());
+        buffer.put((byte) issue.getSeverity().ordinal());
+        buffer.putLong(issue.getTimeStamp().getEpochSecond());
+        buffer.putInt(issue.getTimeStamp().getNano());
+        putString(buffer, issue.getService().id());
+        putString(buffer, issue.getService().name());
+
+        String details = issue.getDetails();
+        UUID correlationID = issue.getCorrelationID();
+        buffer.put((byte) ((details == null ? 0 : FLAG_DETAILS) | (correlationID == null ? 0 : FLAG_CORRELATION_ID)));
+        if (details != null) {
+            putString(buffer, details);
+        }
+        if (correlationID != null) {
+            buffer.putLong(correlationID.getMostSignificantBits());
+            buffer.putLong(correlationID.getLeastSignificantBits());
+        }
+    }
+
+    private Issue getIssue(ByteBuffer buffer, Issue causeIssue) {
+        UUID issueID = new UUID(buffer.getLong(), buffer.getLong());
+        IssueName issueName = ordinal(ISSUE_NAMES, buffer.get());
+        IssueCategory category = ordinal(CATEGORIES, buffer.get());
+        Severity severity = ordinal(SEVERITIES, buffer.get());
+        Instant timeStamp = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        Service service = new Service(getString(buffer), getString(buffer));
+
+        int flags = buffer.get();
+        String details = (flags & FLAG_DETAILS) != 0 ? getString(buffer) : null;
+        UUID correlationID = (flags & FLAG_CORRELATION_ID) != 0 ? new UUID(buffer.getLong(), buffer.getLong()) : null;
+
+        IssueType issueType = issueMapper.getIssueType(issueName);
+        if (issueType.category() != category) {
+            issueType = new IssueType(issueName, issueType.description(), category);
+        }
+        return new Issue(issueID, issueType, severity, service, timeStamp, causeIssue, details, correlationID);
+    }
+
+    private static <E extends Enum<E>> E ordinal(E[] values, byte ordinal) {
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IssueMappingException("Invalid " + values[0].getDeclaringClass().getSimpleName() + " ordinal: " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    /**
+     * Strings are prefixed with their UTF-8 length plus one, so that zero can represent null.
+     */
+    private static int stringSize(String value) {
+        if (value == null) {
+            return 1;
+        }
+        int length = utf8Length(value);
+        return varIntSize(length + 1) + length;
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            putVarInt(buffer, 0);
+            return;
+        }
+        putVarInt(buffer, utf8Length(value) + 1);
+        // Encode directly into the buffer to avoid an intermediate byte array.
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?'); // Unpaired surrogate, same replacement as String.getBytes
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = getVarInt(buffer) - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IssueMappingException("Malformed variable-length integer");
+    }
+}
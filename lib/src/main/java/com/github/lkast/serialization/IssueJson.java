@@ -0,0 +1,204 @@
+package com.github.lkast.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedOutputStream;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.lkast.exceptions.IssueMappingException;
+import com.github.lkast.model.Issue;
+import com.github.lkast.monitoring.IssueSerializationEvent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Converts issues from and to JSON.
+ * <p>
+ * All methods share one pre-configured, thread-safe {@link ObjectWriter} and {@link ObjectReader},
+ * so no mapper is constructed per call. Streams passed to this class are neither closed nor
+ * buffered beyond the call; closing them remains the responsibility of the caller.
+ * <p>
+ * Every successful call emits an {@link IssueSerializationEvent} for JDK Flight Recorder if that event is enabled.
+ */
+public final class IssueJson {
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    static final ObjectWriter WRITER = OBJECT_MAPPER.writerFor(Issue.class);
+    static final ObjectReader READER = OBJECT_MAPPER.readerFor(Issue.class);
+
+    private IssueJson() {
+    }
+
+    /**
+     * Serializes an issue to a JSON string.
+     *
+     * @param issue The issue to serialize.
+     * @return The JSON representation of the issue.
+     * @throws IssueMappingException If the issue cannot be serialized.
+     */
+    public static String toJsonString(Issue issue) {
+        IssueSerializationEvent event = new IssueSerializationEvent();
+        event.begin();
+        try {
+            String json = WRITER.writeValueAsString(issue);
+            event.commit(IssueSerializationEvent.WRITE, issue, json.length());
+            return json;
+        } catch (IOException e) {
+            throw new IssueMappingException("Unable to generate JSON string", e);
+        }
+    }
+
+    /**
+     * Serializes an issue as UTF-8 encoded JSON directly to an output stream.
+     *
+     * @param issue        The issue to serialize.
+     * @param outputStream The stream to write to.
+     * @throws IssueMappingException If the issue cannot be serialized or written.
+     */
+    public static void write(Issue issue, OutputStream outputStream) {
+        IssueSerializationEvent event = new IssueSerializationEvent();
+        event.begin();
+        try {
+            WRITER.writeValue(outputStream, issue);
+            event.commit(IssueSerializationEvent.WRITE, issue, -1);
+        } catch (IOException e) {
+            throw new IssueMappingException("Unable to write JSON", e);
+        }
+    }
+
+    /**
+     * Serializes an issue as JSON directly to a writer.
+     *
+     * @param issue  The issue to serialize.
+     * @param writer The writer to write to.
+     * @throws IssueMappingException If the issue cannot be serialized or written.
+     */
+    public static void write(Issue issue, Writer writer) {
+        IssueSerializationEvent event = new IssueSerializationEvent();
+        event.begin();
+        try {
+            WRITER.writeValue(writer, issue);
+            event.commit(IssueSerializationEvent.WRITE, issue, -1);
+        } catch (IOException e) {
+            throw new IssueMappingException("Unable to write JSON", e);
+        }
+    }
+
+    /**
+     * Serializes an issue as UTF-8 encoded JSON into a buffer, starting at its current position.
+     * <p>
+     * On success the position of the buffer is advanced past the written JSON. If the JSON does not fit,
+     * the position is left unchanged, so the buffer can be reused or replaced by a larger one.
+     *
+     * @param issue  The issue to serialize.
+     * @param buffer The buffer to write to.
+     * @return The number of bytes written.
+     * @throws IssueMappingException If the issue cannot be serialized or does not fit into the buffer.
+     */
+    public static int write(Issue issue, ByteBuffer buffer) {
+        IssueSerializationEvent event = new IssueSerializationEvent();
+        event.begin();
+        int start = buffer.position();
+        try {
+            WRITER.writeValue(new ByteBufferBackedOutputStream(buffer), issue);
+        } catch (IOException | BufferOverflowException e) {
+            buffer.position(start);
+            throw new IssueMappingException("Unable to write JSON to buffer", e);
+        }
+        int written = buffer.position() - start;
+        event.commit(IssueSerializationEvent.WRITE, issue, written);
+        return written;
+    }
+
+    /**
+     * Deserializes an issue from a JSON string.
+     *
+     * @param json The JSON representation of an issue.
+     * @return The deserialized issue.
+     * @throws IssueMappingException If an error occurs while processing the JSON.
+     */
+    public static Issue read(String json) {
+        IssueSerializationEvent event = new IssueSerializationEvent();
+        event.begin();
+        try {
+            Issue issue = READER.readValue(json);
+            event.commit(IssueSerializationEvent.READ, issue, json.length());
+            return issue;
+        } catch (IOException e) {
+            throw new IssueMappingException("Error occurred while processing JSON", e);
+        }
+    }
+
+    /**
+     * Deserializes an issue from UTF-8 encoded JSON.
+     *
+     * @param json The JSON representation of an issue.
+     * @return The deserialized issue.
+     * @throws IssueMappingException If an error occurs while processing the JSON.
+     */
+    public static Issue read(byte[] json) {
+        IssueSerializationEvent event = new IssueSerializationEvent();
+        event.begin();
+        try {
+            Issue issue = READER.readValue(json);
+            event.commit(IssueSerializationEvent.READ, issue, json.length);
+            return issue;
+        } catch (IOException e) {
+            throw new IssueMappingException("Error occurred while processing JSON", e);
+        }
+    }
+
+    /**
+     * Deserializes an issue from a stream of UTF-8 encoded JSON.
+     *
+     * @param inputStream The stream containing the JSON representation of an issue.
+     * @return The deserialized issue.
+     * @throws IssueMappingException If an error occurs while reading or processing the JSON.
+     */
+    public static Issue read(InputStream inputStream) {
+        IssueSerializationEvent event = new IssueSerializationEvent();
+        event.begin();
+        try {
+            Issue issue = READER.readValue(inputStream);
+            event.commit(IssueSerializationEvent.READ, issue, -1);
+            return issue;
+        } catch (IOException e) {
+            throw new IssueMappingException("Error occurred while processing JSON", e);
+        }
+    }
+
+    /**
+     * Deserializes an issue from the remaining bytes of a buffer containing UTF-8 encoded JSON.
+     *
+     * @param buffer The buffer containing the JSON representation of an issue.
+     * @return The deserialized issue.
+     * @throws IssueMappingException If an error occurs while processing the JSON.
+     */
+    public static Issue read(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            IssueSerializationEvent event = new IssueSerializationEvent();
+            event.begin();
+            int offset = buffer.arrayOffset() + buffer.position();
+            int length = buffer.remaining();
+            try {
+                Issue issue = READER.readValue(buffer.array(), offset, length);
+                buffer.position(buffer.limit());
+                event.commit(IssueSerializationEvent.READ, issue, length);
+                return issue;
+            } catch (IOException e) {
+                throw new IssueMappingException("Error occurred while processing JSON", e);
+            }
+        }
+        return read(new ByteBufferBackedInputStream(buffer));
+    }
+}
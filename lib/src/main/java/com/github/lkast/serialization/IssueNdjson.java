@@ -0,0 +1,150 @@
+package com.github.lkast.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.lkast.exceptions.IssueMappingException;
+import com.github.lkast.model.Issue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Converts batches of issues from and to newline-delimited JSON (NDJSON), one issue per line.
+ * <p>
+ * Writing uses a single {@link JsonGenerator} for the whole batch. Reading is lazy, so arbitrarily large
+ * dumps can be processed with constant memory. Streams passed to this class are not closed.
+ */
+public final class IssueNdjson {
+    private static final ObjectWriter BATCH_WRITER = IssueJson.WRITER
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .withRootValueSeparator("\n");
+
+    private IssueNdjson() {
+    }
+
+    /**
+     * Handles a line that could not be deserialized into an issue.
+     */
+    @FunctionalInterface
+    public interface MalformedLineHandler {
+
+        /**
+         * Called for every malformed line. Reading continues with the next line afterwards,
+         * unless the handler throws an exception.
+         *
+         * @param lineNumber The number of the line, starting at 1.
+         * @param line       The content of the line.
+         * @param exception  The exception describing why the line could not be deserialized.
+         */
+        void onMalformedLine(long lineNumber, String line, IssueMappingException exception);
+    }
+
+    /**
+     * Writes issues as newline-delimited JSON.
+     *
+     * @param issues       The issues to write.
+     * @param outputStream The stream to write to.
+     * @return The number of issues written.
+     * @throws IssueMappingException If an issue cannot be serialized or written.
+     */
+    public static long write(Iterable<Issue> issues, OutputStream outputStream) {
+        return write(issues.iterator(), outputStream);
+    }
+
+    /**
+     * Writes issues as newline-delimited JSON.
+     *
+     * @param issues       The issues to write.
+     * @param outputStream The stream to write to.
+     * @return The number of issues written.
+     * @throws IssueMappingException If an issue cannot be serialized or written.
+     */
+    public static long write(Stream<Issue> issues, OutputStream outputStream) {
+        return write(issues.iterator(), outputStream);
+    }
+
+    private static long write(Iterator<Issue> issues, OutputStream outputStream) {
+        long count = 0;
+        try (JsonGenerator generator = IssueJson.OBJECT_MAPPER.getFactory().createGenerator(outputStream)) {
+            while (issues.hasNext()) {
+                BATCH_WRITER.writeValue(generator, issues.next());
+                count++;
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            throw new IssueMappingException("Unable to write NDJSON", e);
+        }
+        return count;
+    }
+
+    /**
+     * Lazily reads newline-delimited JSON as a stream of issues.
+     * <p>
+     * Blank lines are skipped. Malformed lines are reported to the handler with their line number
+     * and do not abort the batch. The input is only consumed while the returned stream is traversed.
+     *
+     * @param inputStream The stream of UTF-8 encoded NDJSON.
+     * @param handler     The handler for malformed lines.
+     * @return A sequential stream of the deserialized issues.
+     * @throws UncheckedIOException If reading from the input stream fails during traversal.
+     */
+    public static Stream<Issue> read(InputStream inputStream, MalformedLineHandler handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("MalformedLineHandler cannot be null");
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        return StreamSupport.stream(new IssueSpliterator(reader, handler), false);
+    }
+
+    private static final class IssueSpliterator extends Spliterators.AbstractSpliterator<Issue> {
+        private final BufferedReader reader;
+        private final MalformedLineHandler handler;
+        private long lineNumber;
+
+        IssueSpliterator(BufferedReader reader, MalformedLineHandler handler) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.reader = reader;
+            this.handler = handler;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Issue> action) {
+            String line;
+            try {
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    Issue issue;
+                    try {
+                        issue = IssueJson.READER.readValue(line);
+                    } catch (IOException e) {
+                        handler.onMalformedLine(lineNumber, line,
+                                new IssueMappingException("Malformed issue on line " + lineNumber, e));
+                        continue;
+                    }
+                    action.accept(issue);
+                    return true;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read NDJSON", e);
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.github.lkast.stats;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueCategory;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Severity;
+import org.apache.commons.math3.stat.descriptive.StatisticalSummary;
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Maintains issue rates per {@link IssueName}, {@link IssueCategory} and {@link Severity} and detects spikes,
+ * without keeping the issues themselves.
+ * <p>
+ * Time is divided into buckets of fixed length. Recording an issue increments three striped counters of the current
+ * bucket, so it is O(1) and scales with the number of recording threads. The counters of the last buckets form the
+ * sliding window of {@link #getRate(IssueName)}.
+ * <p>
+ * Whenever a bucket ends, its rate per series is compared to an exponentially weighted moving mean and variance of
+ * the previous buckets. A rate more than the configured z-score above the mean is reported to the
+ * {@link SpikeListener}. The rates of all ended buckets are also summarized with commons-math {@link SummaryStatistics}.
+ * A bucket is ended by the first issue recorded after it, or by {@link #tick()} when no issues arrive.
+ */
+public class IssueRateStatistics {
+    private static final IssueName[] ISSUE_NAMES = IssueName.values();
+    private static final IssueCategory[] CATEGORIES = IssueCategory.values();
+    private static final Severity[] SEVERITIES = Severity.values();
+    private static final int CATEGORY_OFFSET = ISSUE_NAMES.length;
+    private static final int SEVERITY_OFFSET = CATEGORY_OFFSET + CATEGORIES.length;
+    private static final int SERIES = SEVERITY_OFFSET + SEVERITIES.length;
+    // After a long pause, only this many empty buckets are fed into the baseline
+    private static final int MAX_IDLE_BUCKETS = 1000;
+
+    private final StatisticsConfig config;
+    private final Clock clock;
+    private final SpikeListener listener;
+    private final long bucketMillis;
+    private final double bucketSeconds;
+    private final int buckets;
+    // The counters of bucket b and series s are at index b * SERIES + s
+    private final LongAdder[] counts;
+    private final AtomicLongArray bucketEpochs;
+    private volatile long currentEpoch;
+
+    // Guarded by this
+    private final SummaryStatistics[] summaries = new SummaryStatistics[SERIES];
+    private final double[] baselineMeans = new double[SERIES];
+    private final double[] baselineVariances = new double[SERIES];
+    private long baselineBuckets;
+
+    /**
+     * Creates statistics using the system clock.
+     *
+     * @param config   The configuration of the statistics.
+     * @param listener The listener receiving detected spikes.
+     */
+    public IssueRateStatistics(StatisticsConfig config, SpikeListener listener) {
+        this(config, Clock.systemUTC(), listener);
+    }
+
+    /**
+     * Creates statistics.
+     *
+     * @param config   The configuration of the statistics.
+     * @param clock    The clock dividing time into buckets.
+     * @param listener The listener receiving detected spikes.
+     */
+    public IssueRateStatistics(StatisticsConfig config, Clock clock, SpikeListener listener) {
+        if (config == null || clock == null || listener == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        this.config = config;
+        this.clock = clock;
+        this.listener = listener;
+        this.bucketMillis = config.bucketDuration().toMillis();
+        this.bucketSeconds = bucketMillis / 1000.0;
+        // One more bucket than the window, because the current bucket is still filling
+        this.buckets = config.windowBuckets() + 1;
+        this.counts = new LongAdder[buckets * SERIES];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+        for (int s = 0; s < SERIES; s++) {
+            summaries[s] = new SummaryStatistics();
+        }
+        this.currentEpoch = clock.millis() / bucketMillis;
+        this.bucketEpochs = new AtomicLongArray(buckets);
+        for (int b = 0; b < buckets; b++) {
+            bucketEpochs.set(b, Long.MIN_VALUE);
+        }
+        bucketEpochs.set(bucket(currentEpoch), currentEpoch);
+    }
+
+    /**
+     * Records an issue in the current bucket.
+     *
+     * @param issue The issue to record.
+     */
+    public void record(Issue issue) {
+        long epoch = advance();
+        int base = bucket(epoch) * SERIES;
+        counts[base + issue.getIssueType().name().ordinal()].increment();
+        counts[base + CATEGORY_OFFSET + issue.getIssueType().category().ordinal()].increment();
+        counts[base + SEVERITY_OFFSET + issue.getSeverity().ordinal()].increment();
+    }
+
+    /**
+     * Ends all buckets that are over, checking them for spikes. Call this periodically if issues may stop arriving.
+     */
+    public void tick() {
+        advance();
+    }
+
+    private long advance() {
+        long epoch = Math.floorDiv(clock.millis(), bucketMillis);
+        if (epoch > currentEpoch) {
+            List<RateSpike> spikes = endBuckets(epoch);
+            for (RateSpike spike : spikes) {
+                listener.onSpike(spike);
+            }
+        }
+        return epoch;
+    }
+
+    private synchronized List<RateSpike> endBuckets(long epoch) {
+        List<RateSpike> spikes = new ArrayList<>();
+        long ended = currentEpoch;
+        if (epoch <= ended) {
+            return spikes; // Another thread ended the buckets already
+        }
+        double[] rates = new double[SERIES];
+        int base = bucket(ended) * SERIES;
+        for (int s = 0; s < SERIES; s++) {
+            rates[s] = counts[base + s].sum() / bucketSeconds;
+        }
+        endBucket(ended, rates, spikes);
+        // Buckets without any issue
+        long idleBuckets = Math.min(epoch - ended - 1, MAX_IDLE_BUCKETS);
+        double[] zeroRates = new double[SERIES];
+        for (long e = epoch - idleBuckets; e < epoch; e++) {
+            endBucket(e, zeroRates, spikes);
+        }
+        // Reset the buckets that are reused for the skipped epochs and the new current epoch
+        for (long e = Math.max(ended + 1, epoch - buckets + 1); e <= epoch; e++) {
+            int b = bucket(e);
+            for (int s = 0; s < SERIES; s++) {
+                counts[b * SERIES + s].reset();
+            }
+            bucketEpochs.set(b, e);
+        }
+        currentEpoch = epoch;
+        return spikes;
+    }
+
+    private void endBucket(long epoch, double[] rates, List<RateSpike> spikes) {
+        double alpha = config.ewmaAlpha();
+        for (int s = 0; s < SERIES; s++) {
+            double rate = rates[s];
+            summaries[s].addValue(rate);
+            if (baselineBuckets == 0) {
+                baselineMeans[s] = rate;
+                continue;
+            }
+            double mean = baselineMeans[s];
+            double standardDeviation = Math.sqrt(baselineVariances[s]);
+            if (baselineBuckets >= config.minBaselineBuckets() && rate >= config.minSpikeRate() && rate > mean) {
+                double zScore = standardDeviation > 0 ? (rate - mean) / standardDeviation : Double.POSITIVE_INFINITY;
+                if (zScore >= config.zScoreThreshold()) {
+                    spikes.add(new RateSpike(series(s), rate, mean, standardDeviation, zScore, Instant.ofEpochMilli(epoch * bucketMillis)));
+                }
+            }
+            // Exponentially weighted moving mean and variance
+            double difference = rate - mean;
+            double increment = alpha * difference;
+            baselineMeans[s] = mean + increment;
+            baselineVariances[s] = (1 - alpha) * (baselineVariances[s] + difference * increment);
+        }
+        baselineBuckets++;
+    }
+
+    private int bucket(long epoch) {
+        return (int) Math.floorMod(epoch, (long) buckets);
+    }
+
+    private static Enum<?> series(int s) {
+        if (s < CATEGORY_OFFSET) {
+            return ISSUE_NAMES[s];
+        }
+        return s < SEVERITY_OFFSET ? CATEGORIES[s - CATEGORY_OFFSET] : SEVERITIES[s - SEVERITY_OFFSET];
+    }
+
+    private double windowRate(int series) {
+        long epoch = currentEpoch;
+        long sum = 0;
+        for (int b = 0; b < buckets; b++) {
+            long bucketEpoch = bucketEpochs.get(b);
+            if (bucketEpoch > epoch - buckets && bucketEpoch <= epoch) {
+                sum += counts[b * SERIES + series].sum();
+            }
+        }
+        return sum / (config.windowBuckets() * bucketSeconds);
+    }
+
+    /**
+     * @return The rate of issues with the given name in issues per second over the sliding window.
+     */
+    public double getRate(IssueName issueName) {
+        return windowRate(issueName.ordinal());
+    }
+
+    /**
+     * @return The rate of issues of the given category in issues per second over the sliding window.
+     */
+    public double getRate(IssueCategory category) {
+        return windowRate(CATEGORY_OFFSET + category.ordinal());
+    }
+
+    /**
+     * @return The rate of issues with the given severity in issues per second over the sliding window.
+     */
+    public double getRate(Severity severity) {
+        return windowRate(SEVERITY_OFFSET + severity.ordinal());
+    }
+
+    /**
+     * @return The summary of the per-bucket rates of issues with the given name over all ended buckets.
+     */
+    public synchronized StatisticalSummary getSummary(IssueName issueName) {
+        return summaries[issueName.ordinal()].getSummary();
+    }
+
+    /**
+     * @return The summary of the per-bucket rates of issues of the given category over all ended buckets.
+     */
+    public synchronized StatisticalSummary getSummary(IssueCategory category) {
+        return summaries[CATEGORY_OFFSET + category.ordinal()].getSummary();
+    }
+
+    /**
+     * @return The summary of the per-bucket rates of issues with the given severity over all ended buckets.
+     */
+    public synchronized StatisticalSummary getSummary(Severity severity) {
+        return summaries[SEVERITY_OFFSET + severity.ordinal()].getSummary();
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.lkast.stats;
+
+import java.time.Instant;
+
+/**
+ * An anomalous issue rate detected by {@link IssueRateStatistics}.
+ *
+ * @param series         The series whose rate spiked: an {@link com.github.lkast.model.IssueName}, {@link com.github.lkast.model.IssueCategory} or {@link com.github.lkast.model.Severity}.
+ * @param rate           The rate of the bucket in issues per second.
+ * @param baselineMean   The exponentially weighted mean rate before the bucket.
+ * @param baselineStdDev The exponentially weighted standard deviation of the rate before the bucket.
+ * @param zScore         The number of standard deviations the rate is above the baseline mean.
+ * @param bucketStart    The start of the bucket.
+ */
+public record RateSpike(Enum<?> series, double rate, double baselineMean, double baselineStdDev, double zScore,
+                        Instant bucketStart) {
+}
@@ -0,0 +1,43 @@
+package com.github.lkast.stats;
+
+import com.github.lkast.IssueManager;
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.IssueType;
+import com.github.lkast.model.Severity;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Receives the spikes detected by {@link IssueRateStatistics}.
+ */
+@FunctionalInterface
+public interface SpikeListener {
+
+    /**
+     * Called once for every series whose rate spiked in a bucket.
+     *
+     * @param spike The detected spike.
+     */
+    void onSpike(RateSpike spike);
+
+    /**
+     * Creates a listener that reports every spike as a synthetic {@link IssueName#PERFORMANCE_ISSUE}.
+     *
+     * @param issueManager The manager creating the issues.
+     * @param consumer     The consumer of the created issues, e.g. an {@link com.github.lkast.publisher.IssuePublisher}.
+     * @return The listener.
+     */
+    static SpikeListener reportingIssues(IssueManager issueManager, Consumer<Issue> consumer) {
+        IssueType issueType = issueManager.getIssueMapper().getIssueType(IssueName.PERFORMANCE_ISSUE);
+        return spike -> {
+            String details = String.format(Locale.ROOT, "Issue rate spike for %s: %.2f/s against a baseline of %.2f/s (standard deviation %.2f, z-score %.1f)",
+                    spike.series(), spike.rate(), spike.baselineMean(), spike.baselineStdDev(), spike.zScore());
+            Issue issue = issueManager.createIssue(issueType, Severity.ERROR, spike.bucketStart(), null, details, null);
+            if (issue != null) {
+                consumer.accept(issue);
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.lkast.stats;
+
+import java.time.Duration;
+
+/**
+ * The configuration of an {@link IssueRateStatistics}.
+ *
+ * @param bucketDuration     The length of a bucket. Rates are measured and checked for spikes once per bucket.
+ * @param windowBuckets      The number of buckets forming the sliding window of {@link IssueRateStatistics#getRate(com.github.lkast.model.IssueName)}.
+ * @param ewmaAlpha          The weight of the newest bucket in the exponentially weighted baseline, between 0 and 1.
+ * @param zScoreThreshold    The number of standard deviations above the baseline mean from which a rate is a spike.
+ * @param minBaselineBuckets The number of buckets observed before spikes are reported.
+ * @param minSpikeRate       The minimum rate in issues per second for a spike, so that tiny baselines do not produce spikes.
+ */
+public record StatisticsConfig(Duration bucketDuration, int windowBuckets, double ewmaAlpha, double zScoreThreshold,
+                               int minBaselineBuckets, double minSpikeRate) {
+
+    public StatisticsConfig {
+        if (bucketDuration == null || bucketDuration.toMillis() < 1) {
+            throw new IllegalArgumentException("bucketDuration must be at least 1 millisecond");
+        }
+        if (windowBuckets < 1 || minBaselineBuckets < 0) {
+            throw new IllegalArgumentException("windowBuckets must be positive and minBaselineBuckets cannot be negative");
+        }
+        if (!(ewmaAlpha > 0 && ewmaAlpha <= 1)) {
+            throw new IllegalArgumentException("ewmaAlpha must be between 0 and 1");
+        }
+        if (!(zScoreThreshold > 0) || minSpikeRate < 0) {
+            throw new IllegalArgumentException("zScoreThreshold must be positive and minSpikeRate cannot be negative");
+        }
+    }
+
+    /**
+     * Creates the default configuration: buckets of 1 second, a window of 60 buckets, an EWMA weight of 0.1, a z-score
+     * threshold of 4, a baseline of at least 30 buckets, and spikes of at least 1 issue per second.
+     *
+     * @return The default configuration.
+     */
+    public static StatisticsConfig defaults() {
+        return new StatisticsConfig(Duration.ofSeconds(1), 60, 0.1, 4.0, 30, 1.0);
+    }
+}
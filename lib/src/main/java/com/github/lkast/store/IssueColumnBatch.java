@@ -0,0 +1,488 @@
+package com.github.lkast.store;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueCategory;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.IssueType;
+import com.github.lkast.model.Service;
+import com.github.lkast.model.Severity;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * An immutable batch of issues stored column by column, for holding large numbers of issues and aggregating them.
+ * <p>
+ * Instead of one object graph per issue, every attribute is stored in a primitive array indexed by row: the issue
+ * name, severity and category as ordinals, the timestamp as epoch milliseconds and the IDs as pairs of longs.
+ * Services, issue types and details repeat a lot, so they are dictionary encoded: each row holds an int code into a
+ * table of distinct values. A cause issue is stored as the row of the cause, which is always part of the batch and
+ * always precedes the rows it caused. A row takes about 60 bytes plus its share of the dictionaries, compared to
+ * several hundred bytes for an {@link Issue} with its IDs, timestamp and details.
+ * <p>
+ * The aggregations are plain loops over the primitive columns without branches or allocations per row, which the JIT
+ * compiler unrolls and, where possible, vectorizes, so they run close to memory bandwidth.
+ * <p>
+ * Timestamps are truncated to milliseconds. Reading the details of an issue created from an exception renders them,
+ * so converting such issues into a batch costs the rendering.
+ */
+public final class IssueColumnBatch {
+    private static final IssueName[] ISSUE_NAMES = IssueName.values();
+    private static final Severity[] SEVERITIES = Severity.values();
+    private static final IssueCategory[] CATEGORIES = IssueCategory.values();
+    private static final int NO_ROW = -1;
+
+    private final int size;
+    private final byte[] issueNames;
+    private final byte[] severities;
+    private final byte[] categories;
+    private final long[] timeStamps;
+    private final long[] issueIDMostSignificantBits;
+    private final long[] issueIDLeastSignificantBits;
+    private final long[] correlationIDMostSignificantBits;
+    private final long[] correlationIDLeastSignificantBits;
+    // One bit per row, set if the row has a correlation ID
+    private final long[] hasCorrelationID;
+    private final int[] causeRows;
+    private final int[] issueTypeCodes;
+    private final IssueType[] issueTypeDictionary;
+    private final int[] serviceCodes;
+    private final Service[] serviceDictionary;
+    // NO_ROW for issues without details
+    private final int[] detailsCodes;
+    private final String[] detailsDictionary;
+
+    private IssueColumnBatch(Builder builder) {
+        this.size = builder.size;
+        this.issueNames = Arrays.copyOf(builder.issueNames, size);
+        this.severities = Arrays.copyOf(builder.severities, size);
+        this.categories = Arrays.copyOf(builder.categories, size);
+        this.timeStamps = Arrays.copyOf(builder.timeStamps, size);
+        this.issueIDMostSignificantBits = Arrays.copyOf(builder.issueIDMostSignificantBits, size);
+        this.issueIDLeastSignificantBits = Arrays.copyOf(builder.issueIDLeastSignificantBits, size);
+        this.correlationIDMostSignificantBits = Arrays.copyOf(builder.correlationIDMostSignificantBits, size);
+        this.correlationIDLeastSignificantBits = Arrays.copyOf(builder.correlationIDLeastSignificantBits, size);
+        this.hasCorrelationID = Arrays.copyOf(builder.hasCorrelationID, (size + 63) >>> 6);
+        this.causeRows = Arrays.copyOf(builder.causeRows, size);
+        this.issueTypeCodes = Arrays.copyOf(builder.issueTypeCodes, size);
+        this.issueTypeDictionary = builder.issueTypes.keySet().toArray(new IssueType[0]);
+        this.serviceCodes = Arrays.copyOf(builder.serviceCodes, size);
+        this.serviceDictionary = builder.services.keySet().toArray(new Service[0]);
+        this.detailsCodes = Arrays.copyOf(builder.detailsCodes, size);
+        this.detailsDictionary = builder.details.keySet().toArray(new String[0]);
+    }
+
+    /**
+     * Converts issues into a batch. Cause issues that are not part of the given issues are added as well,
+     * so the batch is closed under causes. An issue that occurs more than once, directly or as a cause,
+     * is only stored once.
+     *
+     * @param issues The issues to convert.
+     * @return The batch, with the issues in the given order and each cause before the issues it caused.
+     * @throws IllegalArgumentException if issues is or contains null.
+     */
+    public static IssueColumnBatch of(Collection<? extends Issue> issues) {
+        if (issues == null) {
+            throw new IllegalArgumentException("Issues cannot be null");
+        }
+        Builder builder = new Builder(issues.size());
+        for (Issue issue : issues) {
+            if (issue == null) {
+                throw new IllegalArgumentException("Issues cannot contain null");
+            }
+            builder.add(issue);
+        }
+        return new IssueColumnBatch(builder);
+    }
+
+    /**
+     * Collects the columns of a batch while issues are added.
+     */
+    private static final class Builder {
+        private int size;
+        private byte[] issueNames;
+        private byte[] severities;
+        private byte[] categories;
+        private long[] timeStamps;
+        private long[] issueIDMostSignificantBits;
+        private long[] issueIDLeastSignificantBits;
+        private long[] correlationIDMostSignificantBits;
+        private long[] correlationIDLeastSignificantBits;
+        private long[] hasCorrelationID;
+        private int[] causeRows;
+        private int[] issueTypeCodes;
+        private int[] serviceCodes;
+        private int[] detailsCodes;
+        // Dictionaries in the order of their codes
+        private final Map<IssueType, Integer> issueTypes = new LinkedHashMap<>();
+        private final Map<Service, Integer> services = new LinkedHashMap<>();
+        private final Map<String, Integer> details = new LinkedHashMap<>();
+        // Only needed to resolve causes while building
+        private final Map<UUID, Integer> rowsByIssueID = new HashMap<>();
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            issueNames = new byte[capacity];
+            severities = new byte[capacity];
+            categories = new byte[capacity];
+            timeStamps = new long[capacity];
+            issueIDMostSignificantBits = new long[capacity];
+            issueIDLeastSignificantBits = new long[capacity];
+            correlationIDMostSignificantBits = new long[capacity];
+            correlationIDLeastSignificantBits = new long[capacity];
+            hasCorrelationID = new long[(capacity + 63) >>> 6];
+            causeRows = new int[capacity];
+            issueTypeCodes = new int[capacity];
+            serviceCodes = new int[capacity];
+            detailsCodes = new int[capacity];
+        }
+
+        private void grow() {
+            int capacity = issueNames.length * 2;
+            issueNames = Arrays.copyOf(issueNames, capacity);
+            severities = Arrays.copyOf(severities, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            timeStamps = Arrays.copyOf(timeStamps, capacity);
+            issueIDMostSignificantBits = Arrays.copyOf(issueIDMostSignificantBits, capacity);
+            issueIDLeastSignificantBits = Arrays.copyOf(issueIDLeastSignificantBits, capacity);
+            correlationIDMostSignificantBits = Arrays.copyOf(correlationIDMostSignificantBits, capacity);
+            correlationIDLeastSignificantBits = Arrays.copyOf(correlationIDLeastSignificantBits, capacity);
+            hasCorrelationID = Arrays.copyOf(hasCorrelationID, (capacity + 63) >>> 6);
+            causeRows = Arrays.copyOf(causeRows, capacity);
+            issueTypeCodes = Arrays.copyOf(issueTypeCodes, capacity);
+            serviceCodes = Arrays.copyOf(serviceCodes, capacity);
+            detailsCodes = Arrays.copyOf(detailsCodes, capacity);
+        }
+
+        /**
+         * Adds an issue and, before it, all causes that were not added yet.
+         *
+         * @return The row of the issue.
+         */
+        private int add(Issue issue) {
+            Integer existing = rowsByIssueID.get(issue.getIssueID());
+            if (existing != null) {
+                return existing;
+            }
+            // Walk down the cause chain iteratively, so long chains cannot overflow the stack
+            List<Issue> pending = new ArrayList<>();
+            Issue current = issue;
+            int causeRow = NO_ROW;
+            while (current != null) {
+                Integer row = rowsByIssueID.get(current.getIssueID());
+                if (row != null) {
+                    causeRow = row;
+                    break;
+                }
+                pending.add(current);
+                current = current.getCauseIssue();
+            }
+            for (int i = pending.size() - 1; i >= 0; i--) {
+                causeRow = append(pending.get(i), causeRow);
+            }
+            return causeRow;
+        }
+
+        private int append(Issue issue, int causeRow) {
+            if (size == issueNames.length) {
+                grow();
+            }
+            int row = size++;
+            IssueType issueType = issue.getIssueType();
+            issueNames[row] = (byte) issueType.name().ordinal();
+            severities[row] = (byte) issue.getSeverity().ordinal();
+            categories[row] = (byte) issueType.category().ordinal();
+            timeStamps[row] = issue.getTimeStamp().toEpochMilli();
+            issueIDMostSignificantBits[row] = issue.getIssueID().getMostSignificantBits();
+            issueIDLeastSignificantBits[row] = issue.getIssueID().getLeastSignificantBits();
+            UUID correlationID = issue.getCorrelationID();
+            if (correlationID != null) {
+                correlationIDMostSignificantBits[row] = correlationID.getMostSignificantBits();
+                correlationIDLeastSignificantBits[row] = correlationID.getLeastSignificantBits();
+                hasCorrelationID[row >>> 6] |= 1L << row;
+            }
+            causeRows[row] = causeRow;
+            issueTypeCodes[row] = issueTypes.computeIfAbsent(issueType, k -> issueTypes.size());
+            serviceCodes[row] = services.computeIfAbsent(issue.getService(), k -> services.size());
+            String issueDetails = issue.getDetails();
+            detailsCodes[row] = issueDetails == null ? NO_ROW : details.computeIfAbsent(issueDetails, k -> details.size());
+            rowsByIssueID.put(issue.getIssueID(), row);
+            return row;
+        }
+    }
+
+    /**
+     * @return The number of issues in this batch, including added cause issues.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of distinct details in this batch.
+     */
+    public int getDistinctDetailsCount() {
+        return detailsDictionary.length;
+    }
+
+    /**
+     * @return The number of distinct services in this batch.
+     */
+    public int getDistinctServiceCount() {
+        return serviceDictionary.length;
+    }
+
+    public IssueName getIssueName(int row) {
+        return ISSUE_NAMES[issueNames[checkRow(row)]];
+    }
+
+    public Severity getSeverity(int row) {
+        return SEVERITIES[severities[checkRow(row)]];
+    }
+
+    public IssueCategory getCategory(int row) {
+        return CATEGORIES[categories[checkRow(row)]];
+    }
+
+    public long getTimeStampMillis(int row) {
+        return timeStamps[checkRow(row)];
+    }
+
+    public UUID getIssueID(int row) {
+        checkRow(row);
+        return new UUID(issueIDMostSignificantBits[row], issueIDLeastSignificantBits[row]);
+    }
+
+    public Service getService(int row) {
+        return serviceDictionary[serviceCodes[checkRow(row)]];
+    }
+
+    /**
+     * @param row The row of the issue.
+     * @return The row of the cause issue, or -1 if the issue has no cause.
+     * @throws IndexOutOfBoundsException if the row is not in this batch.
+     */
+    public int getCauseRow(int row) {
+        return causeRows[checkRow(row)];
+    }
+
+    private int checkRow(int row) {
+        return Objects.checkIndex(row, size);
+    }
+
+    /**
+     * Converts a row back into an issue, including its chain of cause issues.
+     * Every call creates new issue objects.
+     *
+     * @param row The row of the issue.
+     * @return The issue.
+     * @throws IndexOutOfBoundsException if the row is not in this batch.
+     */
+    public Issue toIssue(int row) {
+        checkRow(row);
+        // Causes always precede the issues they caused, so the chain is rebuilt from its end
+        int[] chain = new int[8];
+        int length = 0;
+        for (int current = row; current != NO_ROW; current = causeRows[current]) {
+            if (length == chain.length) {
+                chain = Arrays.copyOf(chain, length * 2);
+            }
+            chain[length++] = current;
+        }
+        Issue cause = null;
+        for (int i = length - 1; i >= 0; i--) {
+            cause = newIssue(chain[i], cause);
+        }
+        return cause;
+    }
+
+    /**
+     * Converts all rows back into issues. Issues share their cause issues as they did before the conversion.
+     *
+     * @return The issues in row order.
+     */
+    public List<Issue> toIssues() {
+        Issue[] issues = new Issue[size];
+        for (int row = 0; row < size; row++) {
+            int causeRow = causeRows[row];
+            issues[row] = newIssue(row, causeRow == NO_ROW ? null : issues[causeRow]);
+        }
+        return Arrays.asList(issues);
+    }
+
+    private Issue newIssue(int row, Issue causeIssue) {
+        UUID correlationID = (hasCorrelationID[row >>> 6] & (1L << row)) != 0
+                ? new UUID(correlationIDMostSignificantBits[row], correlationIDLeastSignificantBits[row])
+                : null;
+        int detailsCode = detailsCodes[row];
+        return new Issue(new UUID(issueIDMostSignificantBits[row], issueIDLeastSignificantBits[row]),
+                issueTypeDictionary[issueTypeCodes[row]],
+                SEVERITIES[severities[row]],
+                serviceDictionary[serviceCodes[row]],
+                Instant.ofEpochMilli(timeStamps[row]),
+                causeIssue,
+                detailsCode == NO_ROW ? null : detailsDictionary[detailsCode],
+                correlationID);
+    }
+
+    /**
+     * @return The number of issues per issue name, indexed by {@link IssueName#ordinal()}.
+     */
+    public long[] countByIssueName() {
+        return histogram(issueNames, ISSUE_NAMES.length);
+    }
+
+    /**
+     * @return The number of issues per severity, indexed by {@link Severity#ordinal()}.
+     */
+    public long[] countBySeverity() {
+        return histogram(severities, SEVERITIES.length);
+    }
+
+    /**
+     * @return The number of issues per category, indexed by {@link IssueCategory#ordinal()}.
+     */
+    public long[] countByCategory() {
+        return histogram(categories, CATEGORIES.length);
+    }
+
+    private long[] histogram(byte[] column, int buckets) {
+        long[] counts = new long[buckets];
+        for (int row = 0; row < size; row++) {
+            counts[column[row]]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the issues per combination of issue name and severity.
+     *
+     * @return The counts, indexed by {@code [issueName.ordinal()][severity.ordinal()]}.
+     */
+    public long[][] countByIssueNameAndSeverity() {
+        long[] flat = new long[ISSUE_NAMES.length * SEVERITIES.length];
+        for (int row = 0; row < size; row++) {
+            flat[issueNames[row] * SEVERITIES.length + severities[row]]++;
+        }
+        long[][] counts = new long[ISSUE_NAMES.length][];
+        for (int name = 0; name < ISSUE_NAMES.length; name++) {
+            counts[name] = Arrays.copyOfRange(flat, name * SEVERITIES.length, (name + 1) * SEVERITIES.length);
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the issues per service.
+     *
+     * @return The counts, in the order the services first occur in this batch.
+     */
+    public Map<Service, Long> countByService() {
+        long[] counts = new long[serviceDictionary.length];
+        for (int row = 0; row < size; row++) {
+            counts[serviceCodes[row]]++;
+        }
+        Map<Service, Long> result = new LinkedHashMap<>();
+        for (int code = 0; code < serviceDictionary.length; code++) {
+            result.put(serviceDictionary[code], counts[code]);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the issues matching the given criteria.
+     *
+     * @param issueName The issue name to match, or null to match all.
+     * @param severity  The severity to match, or null to match all.
+     * @param from      The inclusive start of the time range, or null for no lower bound.
+     * @param to        The exclusive end of the time range, or null for no upper bound.
+     * @return The number of matching issues.
+     */
+    public long count(IssueName issueName, Severity severity, Instant from, Instant to) {
+        // Wildcards are turned into comparisons that always hold, so the loop is the same for every combination
+        int nameMask = issueName == null ? 0 : 0xFF;
+        int name = issueName == null ? 0 : issueName.ordinal();
+        int severityMask = severity == null ? 0 : 0xFF;
+        int severityOrdinal = severity == null ? 0 : severity.ordinal();
+        long fromMillis = from == null ? Long.MIN_VALUE : from.toEpochMilli();
+        long toMillis = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+        long count = 0;
+        for (int row = 0; row < size; row++) {
+            long timeStamp = timeStamps[row];
+            boolean matches = (issueNames[row] & nameMask) == name
+                    && (severities[row] & severityMask) == severityOrdinal
+                    && timeStamp >= fromMillis && timeStamp < toMillis;
+            count += matches ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Counts the issues per time bucket. Issues before the start or after the last bucket are not counted.
+     *
+     * @param start          The start of the first bucket.
+     * @param bucketDuration The duration of each bucket, at least one millisecond.
+     * @param bucketCount    The number of buckets.
+     * @return The counts, indexed by bucket.
+     * @throws IllegalArgumentException if an argument is null, the duration is shorter than a millisecond,
+     *                                  or the bucket count is negative.
+     */
+    public long[] countByTimeBucket(Instant start, Duration bucketDuration, int bucketCount) {
+        return countByTimeBucket(null, start, bucketDuration, bucketCount);
+    }
+
+    /**
+     * Counts the issues with the given issue name per time bucket.
+     *
+     * @param issueName      The issue name to match, or null to match all.
+     * @param start          The start of the first bucket.
+     * @param bucketDuration The duration of each bucket, at least one millisecond.
+     * @param bucketCount    The number of buckets.
+     * @return The counts, indexed by bucket.
+     * @throws IllegalArgumentException if start or bucketDuration is null, the duration is shorter than a
+     *                                  millisecond, or the bucket count is negative.
+     * @see #countByTimeBucket(Instant, Duration, int)
+     */
+    public long[] countByTimeBucket(IssueName issueName, Instant start, Duration bucketDuration, int bucketCount) {
+        if (start == null || bucketDuration == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        long width = bucketDuration.toMillis();
+        if (width < 1) {
+            throw new IllegalArgumentException("Bucket duration must be at least one millisecond");
+        }
+        if (bucketCount < 0) {
+            throw new IllegalArgumentException("Bucket count cannot be negative");
+        }
+        int nameMask = issueName == null ? 0 : 0xFF;
+        int name = issueName == null ? 0 : issueName.ordinal();
+        long startMillis = start.toEpochMilli();
+        long endMillis = startMillis + width * bucketCount;
+        // One extra bucket collects all issues outside the range, so the loop needs no branch
+        long[] counts = new long[bucketCount + 1];
+        for (int row = 0; row < size; row++) {
+            long timeStamp = timeStamps[row];
+            boolean matches = (issueNames[row] & nameMask) == name && timeStamp >= startMillis && timeStamp < endMillis;
+            int bucket = matches ? (int) ((timeStamp - startMillis) / width) : bucketCount;
+            counts[bucket]++;
+        }
+        return Arrays.copyOf(counts, bucketCount);
+    }
+
+    @Override
+    public String toString() {
+        return "IssueColumnBatch{" +
+                "size=" + size +
+                ", distinctServices=" + serviceDictionary.length +
+                ", distinctDetails=" + detailsDictionary.length +
+                '}';
+    }
+}
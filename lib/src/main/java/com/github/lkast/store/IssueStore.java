@@ -0,0 +1,402 @@
+package com.github.lkast.store;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Service;
+import com.github.lkast.model.Severity;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the most recent issues in memory and answers queries on them, e.g. for a debug endpoint.
+ * <p>
+ * Issues are held in a bounded ring in the order they were added. When the ring is full, the oldest issue is evicted,
+ * and issues older than the retention are evicted as new ones are added. Secondary indexes on the issue ID,
+ * correlation ID, cause issue ID, issue name, severity and service are updated on insert and eviction.
+ * <p>
+ * All operations are thread-safe. Queries return lazy, weakly consistent streams in insertion order: they never block
+ * writers and may or may not reflect issues added or evicted while they are traversed.
+ */
+public class IssueStore {
+    private static final Severity[] SEVERITIES = Severity.values();
+    private static final IssueName[] ISSUE_NAMES = IssueName.values();
+
+    private final AtomicReferenceArray<Entry> ring;
+    private final int mask;
+    private final int capacity;
+    private final long retentionMillis;
+    private final Clock clock;
+    private final AtomicLong nextSequence = new AtomicLong();
+    // All entries with a lower sequence number have been evicted
+    private final AtomicLong evictedUpTo = new AtomicLong();
+
+    private final ConcurrentHashMap<UUID, Entry> byIssueID = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, KeyedEntries> byCorrelationID = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, KeyedEntries> byCauseIssueID = new ConcurrentHashMap<>();
+    // Services are few, so their deques are kept when empty, like the deques of the issue names
+    private final ConcurrentHashMap<Service, ConcurrentLinkedDeque<Entry>> byService = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<Entry>[] byIssueName;
+    private final ConcurrentLinkedDeque<Entry>[] bySeverity;
+
+    private static final class Entry {
+        private final long sequence;
+        private final Issue issue;
+        private final long insertedAtMillis;
+        private volatile boolean evicted;
+
+        Entry(long sequence, Issue issue, long insertedAtMillis) {
+            this.sequence = sequence;
+            this.issue = issue;
+            this.insertedAtMillis = insertedAtMillis;
+        }
+    }
+
+    /**
+     * The entries of one correlation ID or cause issue ID. Once empty, the deque is removed from its index and retired.
+     */
+    private static final class KeyedEntries extends ConcurrentLinkedDeque<Entry> {
+        private volatile boolean retired;
+    }
+
+    /**
+     * Creates a store using the system clock.
+     *
+     * @param capacity  The maximum number of issues kept.
+     * @param retention The maximum age of kept issues, measured from when they were added.
+     */
+    public IssueStore(int capacity, Duration retention) {
+        this(capacity, retention, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a store.
+     *
+     * @param capacity  The maximum number of issues kept.
+     * @param retention The maximum age of kept issues, measured from when they were added.
+     * @param clock     The clock measuring the age of issues.
+     */
+    @SuppressWarnings("unchecked")
+    public IssueStore(int capacity, Duration retention, Clock clock) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+        if (retention == null || retention.isNegative() || retention.isZero()) {
+            throw new IllegalArgumentException("retention must be positive");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.capacity = capacity;
+        this.retentionMillis = retention.toMillis();
+        this.clock = clock;
+        this.byIssueName = new ConcurrentLinkedDeque[ISSUE_NAMES.length];
+        for (int i = 0; i < byIssueName.length; i++) {
+            byIssueName[i] = new ConcurrentLinkedDeque<>();
+        }
+        this.bySeverity = new ConcurrentLinkedDeque[SEVERITIES.length];
+        for (int i = 0; i < bySeverity.length; i++) {
+            bySeverity[i] = new ConcurrentLinkedDeque<>();
+        }
+    }
+
+    /**
+     * Adds an issue, evicting the oldest issue if the store is full and all issues older than the retention.
+     *
+     * @param issue The issue to add.
+     */
+    public void add(Issue issue) {
+        if (issue == null) {
+            throw new IllegalArgumentException("Issue cannot be null");
+        }
+        long now = clock.millis();
+        evictExpired(now);
+        Entry entry = new Entry(nextSequence.getAndIncrement(), issue, now);
+        index(entry);
+        int slot = (int) (entry.sequence & mask);
+        Entry overwritten = ring.getAndSet(slot, entry);
+        if (overwritten != null) {
+            if (overwritten.sequence < entry.sequence) {
+                unindex(overwritten);
+            } else if (ring.compareAndSet(slot, entry, overwritten)) {
+                // A writer one lap ahead got to the slot first, so the new entry is already too old to keep
+                unindex(entry);
+            } else {
+                // An even newer entry replaced the new one and evicts it, the overwritten entry is gone as well
+                unindex(overwritten);
+            }
+        }
+        // The ring is rounded up to a power of two, so the capacity is enforced by evicting the entry added
+        // capacity entries before this one
+        evict(entry.sequence - capacity);
+        if (entry.sequence < nextSequence.get() - capacity) {
+            // Newer entries were added meanwhile and may have tried to evict this one before it was in the ring
+            evict(entry.sequence);
+        }
+    }
+
+    private void evict(long sequence) {
+        if (sequence < 0) {
+            return;
+        }
+        int slot = (int) (sequence & mask);
+        Entry entry = ring.get(slot);
+        if (entry != null && entry.sequence == sequence && ring.compareAndSet(slot, entry, null)) {
+            unindex(entry);
+        }
+    }
+
+    private void index(Entry entry) {
+        Issue issue = entry.issue;
+        byIssueID.put(issue.getIssueID(), entry);
+        if (issue.getCorrelationID() != null) {
+            addTo(byCorrelationID, issue.getCorrelationID(), entry);
+        }
+        if (issue.getCauseIssue() != null) {
+            addTo(byCauseIssueID, issue.getCauseIssue().getIssueID(), entry);
+        }
+        serviceEntries(issue.getService()).add(entry);
+        byIssueName[issue.getIssueType().name().ordinal()].add(entry);
+        bySeverity[issue.getSeverity().ordinal()].add(entry);
+    }
+
+    private ConcurrentLinkedDeque<Entry> serviceEntries(Service service) {
+        ConcurrentLinkedDeque<Entry> entries = byService.get(service);
+        return entries != null ? entries : byService.computeIfAbsent(service, s -> new ConcurrentLinkedDeque<>());
+    }
+
+    /**
+     * Adds an entry to the deque of its key without locking the index, so writers of the same key do not serialize.
+     * <p>
+     * A deque is only removed once it is empty, and it is retired before the check. A writer checks the flag after
+     * adding, so either the remover sees the new entry and keeps the deque, or the writer sees the flag and moves on
+     * to a new deque.
+     */
+    private static <K> void addTo(ConcurrentHashMap<K, KeyedEntries> index, K key, Entry entry) {
+        while (true) {
+            KeyedEntries entries = index.get(key);
+            if (entries == null) {
+                entries = index.computeIfAbsent(key, k -> new KeyedEntries());
+            }
+            entries.add(entry);
+            if (!entries.retired) {
+                return;
+            }
+            entries.removeLastOccurrence(entry);
+            // The deque may only have been retired temporarily, in which case it is found again
+            Thread.onSpinWait();
+        }
+    }
+
+    private void unindex(Entry entry) {
+        entry.evicted = true;
+        Issue issue = entry.issue;
+        byIssueID.remove(issue.getIssueID(), entry);
+        if (issue.getCorrelationID() != null) {
+            removeFrom(byCorrelationID, issue.getCorrelationID(), entry);
+        }
+        if (issue.getCauseIssue() != null) {
+            removeFrom(byCauseIssueID, issue.getCauseIssue().getIssueID(), entry);
+        }
+        ConcurrentLinkedDeque<Entry> serviceEntries = byService.get(issue.getService());
+        if (serviceEntries != null) {
+            serviceEntries.removeFirstOccurrence(entry);
+        }
+        // Evicted entries are the oldest ones, so they are found at the head of the deques
+        byIssueName[issue.getIssueType().name().ordinal()].removeFirstOccurrence(entry);
+        bySeverity[issue.getSeverity().ordinal()].removeFirstOccurrence(entry);
+    }
+
+    private static <K> void removeFrom(ConcurrentHashMap<K, KeyedEntries> index, K key, Entry entry) {
+        KeyedEntries entries = index.get(key);
+        if (entries == null) {
+            return;
+        }
+        entries.removeFirstOccurrence(entry);
+        if (entries.isEmpty()) {
+            index.computeIfPresent(key, (k, current) -> {
+                if (current != entries) {
+                    return current;
+                }
+                current.retired = true;
+                if (current.isEmpty()) {
+                    return null;
+                }
+                // A writer added an entry meanwhile and keeps the deque
+                current.retired = false;
+                return current;
+            });
+        }
+    }
+
+    private void evictExpired(long now) {
+        long cutoff = now - retentionMillis;
+        while (true) {
+            long sequence = evictedUpTo.get();
+            long next = nextSequence.get();
+            if (sequence >= next) {
+                return;
+            }
+            if (sequence < next - capacity) {
+                // Entries beyond the capacity are evicted when newer entries are added
+                evictedUpTo.compareAndSet(sequence, next - capacity);
+                continue;
+            }
+            int slot = (int) (sequence & mask);
+            Entry entry = ring.get(slot);
+            if (entry == null || entry.sequence < sequence) {
+                // The entry is still being added, or is being evicted by another thread
+                return;
+            }
+            if (entry.sequence == sequence) {
+                if (entry.insertedAtMillis > cutoff) {
+                    return;
+                }
+                if (ring.compareAndSet(slot, entry, null)) {
+                    unindex(entry);
+                }
+            }
+            // Either evicted now, or already overwritten by a newer entry
+            evictedUpTo.compareAndSet(sequence, sequence + 1);
+        }
+    }
+
+    /**
+     * Evicts all issues older than the retention. This happens automatically when issues are added, call it
+     * periodically to release memory when no issues are added for a while.
+     */
+    public void evictExpired() {
+        evictExpired(clock.millis());
+    }
+
+    /**
+     * Finds an issue by its ID.
+     *
+     * @param issueID The ID of the issue.
+     * @return The issue, or empty if it is not in the store.
+     */
+    public Optional<Issue> findByIssueID(UUID issueID) {
+        Entry entry = byIssueID.get(issueID);
+        return entry != null && isLive(entry, clock.millis() - retentionMillis) ? Optional.of(entry.issue) : Optional.empty();
+    }
+
+    /**
+     * @param correlationID The correlation ID of the issues.
+     * @return A lazy stream of the issues with the given correlation ID.
+     */
+    public Stream<Issue> findByCorrelationID(UUID correlationID) {
+        return stream(byCorrelationID.get(correlationID));
+    }
+
+    /**
+     * @param causeIssueID The ID of the cause issue.
+     * @return A lazy stream of the issues directly caused by the given issue.
+     */
+    public Stream<Issue> findByCauseIssueID(UUID causeIssueID) {
+        return stream(byCauseIssueID.get(causeIssueID));
+    }
+
+    /**
+     * @param service The service of the issues.
+     * @return A lazy stream of the issues of the given service.
+     */
+    public Stream<Issue> findByService(Service service) {
+        return stream(byService.get(service));
+    }
+
+    /**
+     * @param issueName The name of the issues.
+     * @return A lazy stream of the issues with the given name.
+     */
+    public Stream<Issue> findByIssueName(IssueName issueName) {
+        return stream(byIssueName[issueName.ordinal()]);
+    }
+
+    /**
+     * @param severity The severity of the issues.
+     * @return A lazy stream of the issues with the given severity.
+     */
+    public Stream<Issue> findBySeverity(Severity severity) {
+        return stream(bySeverity[severity.ordinal()]);
+    }
+
+    /**
+     * Finds issues by any combination of name, severity and minimum timestamp, e.g. all
+     * {@code DATABASE_ISSUE}s at {@code FAILURE} since a given time.
+     *
+     * @param issueName The name of the issues (can be null for any name).
+     * @param severity  The severity of the issues (can be null for any severity).
+     * @param since     The earliest timestamp of the issues, inclusive (can be null for any timestamp).
+     * @return A lazy stream of the matching issues.
+     */
+    public Stream<Issue> find(IssueName issueName, Severity severity, Instant since) {
+        Stream<Issue> issues;
+        if (issueName != null) {
+            issues = findByIssueName(issueName);
+            if (severity != null) {
+                issues = issues.filter(issue -> issue.getSeverity() == severity);
+            }
+        } else if (severity != null) {
+            issues = findBySeverity(severity);
+        } else {
+            issues = findAll();
+        }
+        return since != null ? issues.filter(issue -> !issue.getTimeStamp().isBefore(since)) : issues;
+    }
+
+    /**
+     * @return A lazy stream of all issues in the store.
+     */
+    public Stream<Issue> findAll() {
+        long cutoff = clock.millis() - retentionMillis;
+        long from = Math.max(evictedUpTo.get(), nextSequence.get() - capacity);
+        return LongStream.range(from, nextSequence.get())
+                .mapToObj(sequence -> {
+                    Entry entry = ring.get((int) (sequence & mask));
+                    // The slot may already hold a newer entry, which is streamed at its own sequence number
+                    return entry != null && entry.sequence == sequence ? entry : null;
+                })
+                .filter(entry -> entry != null && isLive(entry, cutoff))
+                .map(entry -> entry.issue);
+    }
+
+    private Stream<Issue> stream(ConcurrentLinkedDeque<Entry> entries) {
+        if (entries == null) {
+            return Stream.empty();
+        }
+        long cutoff = clock.millis() - retentionMillis;
+        return entries.stream()
+                .filter(entry -> isLive(entry, cutoff))
+                .map(entry -> entry.issue);
+    }
+
+    private static boolean isLive(Entry entry, long cutoff) {
+        return !entry.evicted && entry.insertedAtMillis > cutoff;
+    }
+
+    /**
+     * @return The number of issues in the store, including expired issues that have not been evicted yet.
+     */
+    public int size() {
+        return byIssueID.size();
+    }
+
+    /**
+     * @return The maximum number of issues kept.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.lkast.time;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A clock that trades precision for speed by caching the current time.
+ * <p>
+ * A background daemon thread reads the source clock once per tick and publishes the result, truncated to
+ * milliseconds. Reading this clock is a single volatile read, and all readers within one tick share the same
+ * {@link Instant}, so no allocation happens per call. The returned time may lag behind the source clock by
+ * up to one resolution interval.
+ * <p>
+ * The background thread runs until {@link #close()} is called. Clocks obtained by {@link #withZone(ZoneId)}
+ * share the background thread with the clock they were derived from.
+ */
+public class CoarseClock extends Clock implements AutoCloseable {
+    private final Ticker ticker;
+    private final ZoneId zone;
+
+    /**
+     * Constructs a new CoarseClock that caches the system UTC clock.
+     *
+     * @param resolution The interval at which the cached time is refreshed.
+     * @throws IllegalArgumentException if the resolution is not positive.
+     */
+    public CoarseClock(Duration resolution) {
+        this(Clock.systemUTC(), resolution);
+    }
+
+    /**
+     * Constructs a new CoarseClock.
+     *
+     * @param source     The clock whose time is cached.
+     * @param resolution The interval at which the cached time is refreshed.
+     * @throws IllegalArgumentException if source is null or the resolution is not positive.
+     */
+    public CoarseClock(Clock source, Duration resolution) {
+        if (source == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        if (resolution == null || resolution.isZero() || resolution.isNegative()) {
+            throw new IllegalArgumentException("Resolution must be positive");
+        }
+        this.ticker = new Ticker(source, resolution.toNanos());
+        this.zone = source.getZone();
+        Thread thread = new Thread(ticker, "iml-coarse-clock");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private CoarseClock(Ticker ticker, ZoneId zone) {
+        this.ticker = ticker;
+        this.zone = zone;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        if (this.zone.equals(zone)) {
+            return this;
+        }
+        return new CoarseClock(ticker, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return ticker.current;
+    }
+
+    @Override
+    public long millis() {
+        return ticker.current.toEpochMilli();
+    }
+
+    @Override
+    public String toString() {
+        return "CoarseClock{" +
+                "source=" + ticker.source +
+                ", resolution=" + Duration.ofNanos(ticker.resolutionNanos) +
+                ", zone=" + zone +
+                '}';
+    }
+
+    /**
+     * Stops the background thread. Afterwards, this clock keeps returning the last cached time.
+     */
+    @Override
+    public void close() {
+        ticker.running = false;
+    }
+
+    private static final class Ticker implements Runnable {
+        private final Clock source;
+        private final long resolutionNanos;
+        private volatile Instant current;
+        private volatile boolean running = true;
+
+        private Ticker(Clock source, long resolutionNanos) {
+            this.source = source;
+            this.resolutionNanos = resolutionNanos;
+            this.current = Instant.ofEpochMilli(source.millis());
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                LockSupport.parkNanos(this, resolutionNanos);
+                long millis = source.millis();
+                if (millis != current.toEpochMilli()) {
+                    current = Instant.ofEpochMilli(millis);
+                }
+            }
+        }
+    }
+}
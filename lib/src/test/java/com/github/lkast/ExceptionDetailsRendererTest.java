@@ -0,0 +1,61 @@
+package com.github.lkast;
+
+import com.github.lkast.details.DetailsPolicy;
+import com.github.lkast.details.ExceptionDetailsRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExceptionDetailsRendererTest {
+
+    private static StackTraceElement frame(String className, String method) {
+        return new StackTraceElement(className, method, className + ".java", 1);
+    }
+
+    @Test
+    public void renderWithFullPolicyListsAllFrames() {
+        IllegalStateException exception = new IllegalStateException("boom");
+        String details = new ExceptionDetailsRenderer(DetailsPolicy.FULL).render(exception);
+        assertEquals("Caused by java.lang.IllegalStateException\n" +
+                "Exception message: boom\n" +
+                "Stack trace: " + Arrays.toString(exception.getStackTrace()), details);
+    }
+
+    @Test
+    public void renderLimitsAndFiltersFrames() {
+        IllegalStateException exception = new IllegalStateException("boom");
+        exception.setStackTrace(new StackTraceElement[]{
+                frame("com.example.A", "a"),
+                frame("org.framework.B", "b"),
+                frame("com.example.C", "c"),
+                frame("com.example.D", "d"),
+                frame("com.example.E", "e")
+        });
+        DetailsPolicy policy = new DetailsPolicy(2, List.of("org.framework."), false);
+        String details = new ExceptionDetailsRenderer(policy).render(exception);
+        assertTrue(details.endsWith("Stack trace: [com.example.A.a(com.example.A.java:1), com.example.C.c(com.example.C.java:1), ... 1 filtered, ... 2 more]"), details);
+    }
+
+    @Test
+    public void renderElidesFramesInCommonWithCause() {
+        StackTraceElement main = frame("com.example.Main", "main");
+        StackTraceElement service = frame("com.example.Service", "call");
+        IllegalStateException cause = new IllegalStateException("cause");
+        cause.setStackTrace(new StackTraceElement[]{frame("com.example.Dao", "query"), service, main});
+        RuntimeException exception = new RuntimeException("wrapper", cause);
+        exception.setStackTrace(new StackTraceElement[]{service, main});
+
+        String details = new ExceptionDetailsRenderer(DetailsPolicy.bounded(10)).render(exception);
+        assertTrue(details.endsWith("Cause stack trace: [com.example.Dao.query(com.example.Dao.java:1), ... 2 in common]"), details);
+    }
+
+    @Test
+    public void negativeMaxFramesIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new DetailsPolicy(-1, List.of(), false));
+    }
+}
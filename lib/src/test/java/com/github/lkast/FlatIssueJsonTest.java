@@ -0,0 +1,107 @@
+package com.github.lkast;
+
+import com.github.lkast.exceptions.IssueMappingException;
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Service;
+import com.github.lkast.model.Severity;
+import com.github.lkast.serialization.FlatIssueJson;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FlatIssueJsonTest {
+    private final IssueMapper mapper = new IssueMapper();
+
+    private Issue createIssue(Issue cause) {
+        return new Issue(UUID.randomUUID(), mapper.getIssueType(IssueName.SERVICE_ISSUE), Severity.ERROR,
+                new Service("service-1", "Test Service"), Instant.now(), cause, "details", null);
+    }
+
+    private static int depth(Issue issue) {
+        int depth = 0;
+        for (Issue current = issue; current != null; current = current.getCauseIssue()) {
+            depth++;
+        }
+        return depth;
+    }
+
+    @Test
+    public void sharedCausesAreWrittenOnce() {
+        Issue root = createIssue(null);
+        Issue first = createIssue(root);
+        Issue second = createIssue(root);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        new FlatIssueJson().write(List.of(first, second), outputStream);
+        String json = outputStream.toString(StandardCharsets.UTF_8);
+        assertEquals(json.indexOf("\"" + root.getIssueID() + "\":"), json.lastIndexOf("\"" + root.getIssueID() + "\":"));
+
+        List<Issue> issues = new FlatIssueJson().read(json);
+        assertEquals(2, issues.size());
+        assertEquals(first.getIssueID(), issues.get(0).getIssueID());
+        assertEquals(root.getIssueID(), issues.get(0).getCauseIssue().getIssueID());
+        assertSame(issues.get(0).getCauseIssue(), issues.get(1).getCauseIssue());
+        assertNull(issues.get(0).getCauseIssue().getCauseIssue());
+    }
+
+    @Test
+    public void knownIssuesAreSkippedAndResolved() {
+        Issue root = createIssue(null);
+        Issue issue = createIssue(createIssue(root));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        new FlatIssueJson().write(List.of(issue), Set.of(root.getIssueID()), outputStream);
+        assertFalse(outputStream.toString(StandardCharsets.UTF_8).contains("\"" + root.getIssueID() + "\":"));
+
+        List<Issue> issues = new FlatIssueJson().read(new ByteArrayInputStream(outputStream.toByteArray()), Map.of(root.getIssueID(), root));
+        assertSame(root, issues.get(0).getCauseIssue().getCauseIssue());
+    }
+
+    @Test
+    public void deepChainsRoundTripIteratively() {
+        Issue issue = null;
+        for (int i = 0; i < 5_000; i++) {
+            issue = createIssue(issue);
+        }
+        FlatIssueJson flatIssueJson = new FlatIssueJson(5_000);
+        Issue decoded = flatIssueJson.read(flatIssueJson.toJsonString(issue)).get(0);
+        assertEquals(5_000, depth(decoded));
+    }
+
+    @Test
+    public void chainsExceedingTheMaximumDepthAreRejected() {
+        Issue issue = createIssue(createIssue(createIssue(null)));
+        assertThrows(IssueMappingException.class, () -> new FlatIssueJson(2).toJsonString(issue));
+        String json = new FlatIssueJson().toJsonString(issue);
+        assertThrows(IssueMappingException.class, () -> new FlatIssueJson(2).read(json));
+    }
+
+    @Test
+    public void cyclesAreRejected() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        String entry = "{\"issueType\":{\"name\":\"SERVICE_ISSUE\",\"description\":\"d\",\"category\":\"DEPENDENCY_ISSUE\"}," +
+                "\"severity\":\"ERROR\",\"service\":{\"id\":\"1\",\"name\":\"s\"},\"timeStamp\":1714558530.0,\"causeIssueID\":\"%s\"}";
+        String json = "{\"roots\":[\"" + first + "\"],\"issues\":{" +
+                "\"" + first + "\":" + String.format(entry, second) + "," +
+                "\"" + second + "\":" + String.format(entry, first) + "}}";
+
+        IssueMappingException exception = assertThrows(IssueMappingException.class, () -> new FlatIssueJson().read(json));
+        assertTrue(exception.getMessage().startsWith("Cycle"), exception.getMessage());
+    }
+}
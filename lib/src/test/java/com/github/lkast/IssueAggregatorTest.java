@@ -0,0 +1,172 @@
+package com.github.lkast;
+
+import com.github.lkast.aggregation.AggregatedIssue;
+import com.github.lkast.aggregation.AggregatorConfig;
+import com.github.lkast.aggregation.IssueAggregator;
+import com.github.lkast.aggregation.IssueFingerprint;
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IssueAggregatorTest {
+    private final IssueManager issueManager = new IssueManager("service-1", "Test Service");
+    private final IssueMapper issueMapper = new IssueMapper();
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private final List<AggregatedIssue> emitted = new CopyOnWriteArrayList<>();
+
+    private IssueAggregator createAggregator(int maxFingerprints, int maxSampledCorrelationIDs) {
+        AggregatorConfig config = new AggregatorConfig(Duration.ofSeconds(10), maxFingerprints, maxSampledCorrelationIDs, List.of("java."));
+        return new IssueAggregator(config, clock, emitted::add);
+    }
+
+    private Issue createIssue(IssueName issueName) {
+        return issueManager.createIssue(issueMapper.getIssueType(issueName), Severity.ERROR, clock.instant(), null, null, UUID.randomUUID());
+    }
+
+    private static Exception newIllegalArgumentException() {
+        return new IllegalArgumentException();
+    }
+
+    @Test
+    public void collapsesDuplicatesWithinWindow() {
+        IssueAggregator aggregator = createAggregator(100, 4);
+        Issue first = createIssue(IssueName.SERVICE_ISSUE);
+        assertTrue(aggregator.offer(first));
+        for (int i = 0; i < 99; i++) {
+            clock.advance(Duration.ofMillis(10));
+            assertFalse(aggregator.offer(createIssue(IssueName.SERVICE_ISSUE)));
+        }
+        assertTrue(emitted.isEmpty());
+
+        clock.advance(Duration.ofSeconds(10));
+        aggregator.expireWindows();
+
+        assertEquals(1, emitted.size());
+        AggregatedIssue aggregatedIssue = emitted.get(0);
+        assertSame(first, aggregatedIssue.representative());
+        assertEquals(100, aggregatedIssue.count());
+        assertEquals(99, aggregatedIssue.suppressedCount());
+        assertEquals(first.getTimeStamp(), aggregatedIssue.firstTimeStamp());
+        assertEquals(first.getTimeStamp().plusMillis(990), aggregatedIssue.lastTimeStamp());
+        assertEquals(4, aggregatedIssue.sampleCorrelationIDs().size());
+        assertEquals(0, aggregator.getOpenWindowCount());
+    }
+
+    @Test
+    public void newWindowStartsAfterWindowEnds() {
+        IssueAggregator aggregator = createAggregator(100, 4);
+        assertTrue(aggregator.offer(createIssue(IssueName.SERVICE_ISSUE)));
+        clock.advance(Duration.ofSeconds(10));
+        assertTrue(aggregator.offer(createIssue(IssueName.SERVICE_ISSUE)));
+
+        assertEquals(1, emitted.size());
+        assertEquals(1, emitted.get(0).count());
+        assertEquals(1, aggregator.getOpenWindowCount());
+    }
+
+    @Test
+    public void distinguishesFingerprints() {
+        IssueAggregator aggregator = createAggregator(100, 0);
+        assertTrue(aggregator.offer(createIssue(IssueName.SERVICE_ISSUE)));
+        assertTrue(aggregator.offer(createIssue(IssueName.PERFORMANCE_ISSUE)));
+        assertTrue(aggregator.offer(createIssue(IssueName.SERVICE_ISSUE), new IllegalStateException()));
+        assertTrue(aggregator.offer(createIssue(IssueName.SERVICE_ISSUE), newIllegalArgumentException()));
+        // Thrown from the same place, so the top frame is the same
+        assertFalse(aggregator.offer(createIssue(IssueName.SERVICE_ISSUE), newIllegalArgumentException()));
+        assertEquals(4, aggregator.getOpenWindowCount());
+
+        aggregator.closeAll();
+        assertEquals(4, emitted.size());
+        assertTrue(emitted.get(0).sampleCorrelationIDs().isEmpty());
+    }
+
+    @Test
+    public void evictsOldestWindowWhenFull() {
+        IssueAggregator aggregator = createAggregator(2, 1);
+        aggregator.offer(createIssue(IssueName.SERVICE_ISSUE));
+        aggregator.offer(createIssue(IssueName.PERFORMANCE_ISSUE));
+        aggregator.offer(createIssue(IssueName.RESOURCE_ISSUE));
+
+        assertEquals(2, aggregator.getOpenWindowCount());
+        assertEquals(1, emitted.size());
+        assertEquals(IssueName.SERVICE_ISSUE, emitted.get(0).fingerprint().issueName());
+    }
+
+    @Test
+    public void fingerprintUsesTopApplicationFrame() {
+        Issue issue = createIssue(IssueName.SERVICE_ISSUE);
+        Exception exception = new IllegalStateException();
+        exception.setStackTrace(new StackTraceElement[]{
+                new StackTraceElement("java.net.Socket", "connect", "Socket.java", 10),
+                new StackTraceElement("com.example.Client", "send", "Client.java", 42)
+        });
+
+        IssueFingerprint fingerprint = IssueFingerprint.of(issue, exception, List.of("java."));
+        assertEquals(IssueName.SERVICE_ISSUE, fingerprint.issueName());
+        assertEquals("service-1", fingerprint.serviceId());
+        assertEquals(IllegalStateException.class.getName(), fingerprint.exceptionClass());
+        assertEquals("com.example.Client.send(Client.java:42)", fingerprint.topFrame());
+        assertNotEquals(fingerprint, IssueFingerprint.of(issue, exception, List.of()));
+        assertNull(IssueFingerprint.of(issue).exceptionClass());
+    }
+
+    @Test
+    public void concurrentOffersAreAllCounted() throws InterruptedException {
+        IssueAggregator aggregator = createAggregator(100, 4);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    aggregator.offer(createIssue(IssueName.SERVICE_ISSUE));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        aggregator.closeAll();
+
+        assertEquals(1, emitted.size());
+        assertEquals(4000, emitted.get(0).count());
+    }
+
+    @Test
+    public void duplicatesRecordedWhileClosingAreCountedOnce() throws InterruptedException {
+        IssueAggregator aggregator = createAggregator(100, 4);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    aggregator.offer(createIssue(IssueName.SERVICE_ISSUE));
+                }
+            });
+            threads[t].start();
+        }
+        while (threads[0].isAlive() || threads[1].isAlive() || threads[2].isAlive() || threads[3].isAlive()) {
+            aggregator.closeAll();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        aggregator.closeAll();
+
+        assertEquals(4000, emitted.stream().mapToLong(AggregatedIssue::count).sum());
+        assertTrue(emitted.stream().allMatch(aggregatedIssue ->
+                aggregatedIssue.sampleCorrelationIDs().size() == Math.min(4, aggregatedIssue.count())));
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.lkast;
+
+import com.github.lkast.model.Issue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Assertions shared by the tests of the issue serializations.
+ */
+final class IssueAssertions {
+    private IssueAssertions() {
+    }
+
+    /**
+     * Asserts that a deserialized issue has the same fields as the original, including its chain of causes.
+     */
+    static void assertSameIssue(Issue expected, Issue actual) {
+        assertEquals(expected.getIssueID(), actual.getIssueID());
+        assertEquals(expected.getIssueType(), actual.getIssueType());
+        assertEquals(expected.getSeverity(), actual.getSeverity());
+        assertEquals(expected.getService(), actual.getService());
+        assertEquals(expected.getTimeStamp(), actual.getTimeStamp());
+        assertEquals(expected.getDetails(), actual.getDetails());
+        assertEquals(expected.getCorrelationID(), actual.getCorrelationID());
+        if (expected.getCauseIssue() == null) {
+            assertNull(actual.getCauseIssue());
+        } else {
+            assertSameIssue(expected.getCauseIssue(), actual.getCauseIssue());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.lkast;
+
+import com.github.lkast.exceptions.IssueMappingException;
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Service;
+import com.github.lkast.model.Severity;
+import com.github.lkast.serialization.IssueBinaryCodec;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static com.github.lkast.IssueAssertions.assertSameIssue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IssueBinaryCodecTest {
+    private static IssueMapper mapper;
+    private static IssueBinaryCodec codec;
+
+    @BeforeAll
+    public static void setUp() {
+        mapper = new IssueMapper();
+        codec = new IssueBinaryCodec(mapper);
+    }
+
+    private static Issue createIssue(Issue cause, String details, UUID correlationID) {
+        return new Issue(UUID.randomUUID(), mapper.getIssueType(IssueName.SERVICE_TIMEOUT), Severity.ERROR,
+                new Service("svc-é中😀", "Order Service"), Instant.ofEpochSecond(1714558530L, 123456789),
+                cause, details, correlationID);
+    }
+
+    @Test
+    public void roundTripWithCauseChain() {
+        Issue root = createIssue(null, null, null);
+        Issue middle = createIssue(root, "middle", UUID.randomUUID());
+        Issue issue = createIssue(middle, "top ü", UUID.randomUUID());
+
+        byte[] encoded = codec.encode(issue);
+        assertEquals(codec.encodedSize(issue), encoded.length);
+
+        Issue decoded = codec.decode(encoded);
+        assertSameIssue(issue, decoded);
+        assertSameIssue(middle, decoded.getCauseIssue());
+        assertSameIssue(root, decoded.getCauseIssue().getCauseIssue());
+        assertNull(decoded.getCauseIssue().getCauseIssue().getCauseIssue());
+        assertSame(mapper.getIssueType(IssueName.SERVICE_TIMEOUT), decoded.getIssueType());
+    }
+
+    @Test
+    public void roundTripDeepCauseChainInDirectBuffer() {
+        Issue issue = null;
+        for (int i = 0; i < 10_000; i++) {
+            issue = createIssue(issue, null, null);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(codec.encodedSize(issue));
+        codec.encode(issue, buffer);
+        buffer.flip();
+
+        Issue decoded = codec.decode(buffer);
+        int depth = 0;
+        for (Issue current = decoded; current != null; current = current.getCauseIssue()) {
+            depth++;
+        }
+        assertEquals(10_000, depth);
+        assertEquals(issue.getIssueID(), decoded.getIssueID());
+    }
+
+    @Test
+    public void truncatedInputIsRejected() {
+        byte[] encoded = codec.encode(createIssue(null, "details", null));
+        assertThrows(IssueMappingException.class, () -> codec.decode(Arrays.copyOf(encoded, encoded.length - 1)));
+    }
+
+    @Test
+    public void unsupportedVersionIsRejected() {
+        byte[] encoded = codec.encode(createIssue(null, null, null));
+        encoded[0] = 42;
+        assertThrows(IssueMappingException.class, () -> codec.decode(encoded));
+    }
+
+    @Test
+    public void encodeIntoTooSmallBufferKeepsPosition() {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        assertThrows(IssueMappingException.class, () -> codec.encode(createIssue(null, null, null), buffer));
+        assertEquals(0, buffer.position());
+    }
+}
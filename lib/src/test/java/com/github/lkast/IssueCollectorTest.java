@@ -0,0 +1,169 @@
+package com.github.lkast;
+
+import com.github.lkast.collector.CollectorConfig;
+import com.github.lkast.collector.CollectorSink;
+import com.github.lkast.collector.IssueCollector;
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Severity;
+import com.github.lkast.publisher.IssuePublisher;
+import com.github.lkast.publisher.IssueSink;
+import com.github.lkast.publisher.OverflowPolicy;
+import com.github.lkast.publisher.PublisherConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IssueCollectorTest {
+    private final IssueManager issueManager = new IssueManager("service-1", "Test Service");
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private static InetSocketAddress localhost() {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    }
+
+    private Issue createIssue() {
+        return issueManager.createIssue(issueManager.getIssueMapper().getIssueType(IssueName.DATABASE_ISSUE), Severity.ERROR);
+    }
+
+    private HttpResponse<String> post(IssueCollector collector, String path, String body) throws IOException, InterruptedException {
+        URI uri = URI.create("http://localhost:" + collector.getAddress().getPort() + path);
+        HttpRequest request = HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void acceptsSingleIssuesAndBatches() throws IOException, InterruptedException {
+        List<Issue> received = new CopyOnWriteArrayList<>();
+        try (IssueCollector collector = new IssueCollector(localhost(), issueManager, received::addAll)) {
+            Issue issue = createIssue();
+            HttpResponse<String> response = post(collector, IssueCollector.ISSUE_PATH, issue.toJsonString());
+            assertEquals(202, response.statusCode());
+            assertEquals("{\"accepted\":1}", response.body());
+
+            List<Issue> batch = IntStream.range(0, 3).mapToObj(i -> createIssue()).collect(Collectors.toList());
+            String ndjson = batch.stream().map(Issue::toJsonString).collect(Collectors.joining("\r\n", "", "\n\n"));
+            response = post(collector, IssueCollector.BATCH_PATH, ndjson);
+            assertEquals(202, response.statusCode());
+            assertEquals("{\"accepted\":3}", response.body());
+
+            assertEquals(4, collector.getAcceptedCount());
+            assertEquals(issue.getIssueID(), received.get(0).getIssueID());
+            assertEquals(batch.get(2).getIssueID(), received.get(3).getIssueID());
+        }
+    }
+
+    @Test
+    public void rejectsMalformedAndOversizedRequests() throws IOException, InterruptedException {
+        List<Issue> received = new CopyOnWriteArrayList<>();
+        CollectorConfig config = new CollectorConfig(4096, 16, 0);
+        try (IssueCollector collector = new IssueCollector(localhost(), config, issueManager, received::addAll)) {
+            assertEquals(400, post(collector, IssueCollector.ISSUE_PATH, "{not json}").statusCode());
+            assertEquals(400, post(collector, IssueCollector.ISSUE_PATH, "null").statusCode());
+            HttpResponse<String> response = post(collector, IssueCollector.BATCH_PATH, createIssue().toJsonString() + "\n{not json}\n");
+            assertEquals(400, response.statusCode());
+            assertTrue(response.body().contains("line 2"));
+            assertEquals(413, post(collector, IssueCollector.BATCH_PATH, "x".repeat(4097)).statusCode());
+
+            HttpRequest get = HttpRequest.newBuilder(URI.create("http://localhost:" + collector.getAddress().getPort() + IssueCollector.ISSUE_PATH)).GET().build();
+            assertEquals(405, client.send(get, HttpResponse.BodyHandlers.ofString()).statusCode());
+
+            assertEquals(3, collector.getMalformedCount());
+            assertEquals(1, collector.getTooLargeCount());
+            assertEquals(0, received.size());
+        }
+    }
+
+    @Test
+    public void appliesBackpressure() throws IOException, InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CollectorSink blockingSink = issues -> {
+            entered.countDown();
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        };
+        CollectorConfig config = new CollectorConfig(4096, 1, 0);
+        try (IssueCollector collector = new IssueCollector(localhost(), config, issueManager, blockingSink)) {
+            String json = createIssue().toJsonString();
+            Thread blocked = Thread.ofVirtual().start(() -> {
+                try {
+                    post(collector, IssueCollector.ISSUE_PATH, json);
+                } catch (IOException | InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+            HttpResponse<String> response = post(collector, IssueCollector.ISSUE_PATH, json);
+            assertEquals(429, response.statusCode());
+            assertEquals("1", response.headers().firstValue("Retry-After").orElse(null));
+            release.countDown();
+            blocked.join();
+            assertEquals(1, collector.getThrottledCount());
+        }
+
+        try (IssueCollector collector = new IssueCollector(localhost(), issueManager, issues -> false)) {
+            assertEquals(503, post(collector, IssueCollector.ISSUE_PATH, createIssue().toJsonString()).statusCode());
+            assertEquals(1, collector.getSaturatedCount());
+            assertEquals(0, collector.getAcceptedCount());
+        }
+    }
+
+    @Test
+    public void publisherSinkRejectsRequestsWithoutRoomInsteadOfDropping() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Issue> delivered = new CopyOnWriteArrayList<>();
+        IssueSink blockingSink = batch -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.addAll(batch);
+        };
+        PublisherConfig publisherConfig = new PublisherConfig(4, 16, Duration.ofMillis(1), OverflowPolicy.DROP_OLDEST, 2, false);
+        try (IssuePublisher publisher = new IssuePublisher(publisherConfig, blockingSink);
+             IssueCollector collector = new IssueCollector(localhost(), issueManager, CollectorSink.of(publisher))) {
+            assertEquals(202, post(collector, IssueCollector.ISSUE_PATH, createIssue().toJsonString()).statusCode());
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+            assertEquals(202, post(collector, IssueCollector.BATCH_PATH, ndjson(3)).statusCode());
+            // The publisher would evict queued issues for these, so the whole request is rejected instead
+            HttpResponse<String> response = post(collector, IssueCollector.BATCH_PATH, ndjson(2));
+            assertEquals(503, response.statusCode());
+            assertEquals(1, collector.getSaturatedCount());
+            assertEquals(0, publisher.getDroppedCount());
+
+            release.countDown();
+            publisher.flush();
+            assertEquals(4, delivered.size());
+        }
+    }
+
+    private String ndjson(int count) {
+        return IntStream.range(0, count).mapToObj(i -> createIssue().toJsonString()).collect(Collectors.joining("\n"));
+    }
+}
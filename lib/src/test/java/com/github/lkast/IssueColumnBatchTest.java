@@ -0,0 +1,92 @@
+package com.github.lkast;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueCategory;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Service;
+import com.github.lkast.model.Severity;
+import com.github.lkast.store.IssueColumnBatch;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.github.lkast.IssueAssertions.assertSameIssue;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class IssueColumnBatchTest {
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final IssueManager issueManager = new IssueManager("service-1", "Test Service");
+    private final IssueMapper issueMapper = issueManager.getIssueMapper();
+
+    private Issue createIssue(IssueName issueName, Severity severity, long offsetMillis, Issue causeIssue, String details, UUID correlationID) {
+        return issueManager.createIssue(issueMapper.getIssueType(issueName), severity, START.plusMillis(offsetMillis), causeIssue, details, correlationID);
+    }
+
+    @Test
+    public void convertsIssuesWithCauseChains() {
+        UUID correlationID = UUID.randomUUID();
+        Issue root = createIssue(IssueName.DATABASE_ISSUE, Severity.FAILURE, 0, null, "Connection refused", correlationID);
+        Issue caused = createIssue(IssueName.SERVICE_ISSUE, Severity.ERROR, 5, root, null, correlationID);
+        Issue unrelated = createIssue(IssueName.VALIDATION_ISSUE, Severity.ISSUE, 10, null, "Connection refused", null);
+
+        // The cause is not passed in, but added before the issue it caused
+        IssueColumnBatch batch = IssueColumnBatch.of(List.of(caused, unrelated, root));
+
+        assertEquals(3, batch.size());
+        assertEquals(root.getIssueID(), batch.getIssueID(0));
+        assertEquals(0, batch.getCauseRow(1));
+        assertEquals(-1, batch.getCauseRow(0));
+        assertEquals(1, batch.getDistinctDetailsCount());
+        assertEquals(1, batch.getDistinctServiceCount());
+        assertEquals(IssueName.SERVICE_ISSUE, batch.getIssueName(1));
+        assertEquals(IssueCategory.DEPENDENCY_ISSUE, batch.getCategory(1));
+
+        List<Issue> issues = batch.toIssues();
+        assertSameIssue(root, issues.get(0));
+        assertSameIssue(caused, issues.get(1));
+        assertSameIssue(unrelated, issues.get(2));
+        assertSame(issues.get(0), issues.get(1).getCauseIssue());
+        // The batch keeps the canonical IssueTypes of the mapper
+        assertSame(caused.getIssueType(), issues.get(1).getIssueType());
+        assertSameIssue(caused, batch.toIssue(1));
+    }
+
+    @Test
+    public void aggregatesColumns() {
+        List<Issue> issues = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            IssueName issueName = i % 4 == 0 ? IssueName.DATABASE_ISSUE : IssueName.VALIDATION_ISSUE;
+            Severity severity = i % 10 == 0 ? Severity.FAILURE : Severity.ERROR;
+            issues.add(createIssue(issueName, severity, i * 100L, null, null, null));
+        }
+        IssueColumnBatch batch = IssueColumnBatch.of(issues);
+
+        long[] byName = batch.countByIssueName();
+        assertEquals(2_500, byName[IssueName.DATABASE_ISSUE.ordinal()]);
+        assertEquals(7_500, byName[IssueName.VALIDATION_ISSUE.ordinal()]);
+        assertEquals(1_000, batch.countBySeverity()[Severity.FAILURE.ordinal()]);
+        assertEquals(2_500, batch.countByCategory()[IssueCategory.DEPENDENCY_ISSUE.ordinal()]);
+        // Every 20th issue is both a database issue and a failure
+        assertEquals(500, batch.countByIssueNameAndSeverity()[IssueName.DATABASE_ISSUE.ordinal()][Severity.FAILURE.ordinal()]);
+        assertEquals(Map.of(new Service("service-1", "Test Service"), 10_000L), batch.countByService());
+
+        assertEquals(10_000, batch.count(null, null, null, null));
+        assertEquals(500, batch.count(IssueName.DATABASE_ISSUE, Severity.FAILURE, null, null));
+        // The first 100 seconds hold 1000 issues, a quarter of them database issues
+        assertEquals(250, batch.count(IssueName.DATABASE_ISSUE, null, START, START.plusSeconds(100)));
+
+        long[] buckets = batch.countByTimeBucket(START.plusSeconds(10), Duration.ofMinutes(1), 3);
+        assertArrayEquals(new long[]{600, 600, 600}, buckets);
+        long[] databaseBuckets = batch.countByTimeBucket(IssueName.DATABASE_ISSUE, START, Duration.ofSeconds(200), 10);
+        assertEquals(500, databaseBuckets[0]);
+        assertEquals(0, databaseBuckets[5]);
+    }
+}
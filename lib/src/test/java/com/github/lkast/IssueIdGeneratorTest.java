@@ -0,0 +1,61 @@
+package com.github.lkast;
+
+import com.github.lkast.id.IssueIdGenerator;
+import com.github.lkast.id.TimeOrderedIssueIdGenerator;
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IssueIdGeneratorTest {
+
+    @Test
+    public void timeOrderedIdsAreVersion7AndMonotonic() {
+        Clock fixedClock = Clock.fixed(Instant.ofEpochMilli(1_714_558_530_123L), ZoneOffset.UTC);
+        IssueIdGenerator generator = new TimeOrderedIssueIdGenerator(fixedClock);
+        UUID previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = generator.nextId();
+            assertEquals(7, next.version());
+            assertEquals(2, next.variant());
+            assertTrue(Long.compareUnsigned(previous.getMostSignificantBits(), next.getMostSignificantBits()) < 0,
+                    previous + " is not before " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    public void timeOrderedIdsContainTheTimestamp() {
+        Clock fixedClock = Clock.fixed(Instant.ofEpochMilli(1_714_558_530_123L), ZoneOffset.UTC);
+        UUID id = new TimeOrderedIssueIdGenerator(fixedClock).nextId();
+        assertEquals(1_714_558_530_123L, id.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    public void timeOrderedIdsAreUniqueAcrossThreads() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        IssueIdGenerator generator = IssueIdGenerator.timeOrdered();
+        IntStream.range(0, 100_000).parallel().forEach(i -> ids.add(generator.nextId()));
+        assertEquals(100_000, ids.size());
+    }
+
+    @Test
+    public void issueManagerUsesConfiguredGenerator() {
+        IssueManager issueManager = new IssueManager("service-1", "Test Service");
+        issueManager.setIssueIdGenerator(IssueIdGenerator.random());
+        Issue issue = issueManager.createIssue(new IssueMapper().getIssueType(IssueName.EXECUTION_ISSUE), Severity.ERROR);
+        assertEquals(4, issue.getIssueID().version());
+        assertEquals(issue.getIssueID(), issueManager.createIssueFromJson(issue.toJsonString()).getIssueID());
+    }
+}
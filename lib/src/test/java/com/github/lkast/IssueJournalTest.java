@@ -0,0 +1,236 @@
+package com.github.lkast;
+
+import com.github.lkast.journal.FsyncPolicy;
+import com.github.lkast.journal.IssueJournal;
+import com.github.lkast.journal.JournalConfig;
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Severity;
+import com.github.lkast.serialization.IssueBinaryCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IssueJournalTest {
+    private final IssueManager issueManager = new IssueManager("service-1", "Test Service");
+    private final IssueMapper issueMapper = new IssueMapper();
+    private final IssueBinaryCodec codec = new IssueBinaryCodec(issueMapper);
+
+    @TempDir
+    Path tempDir;
+
+    private Issue createIssue(Severity severity) {
+        return issueManager.createIssue(issueMapper.getIssueType(IssueName.SERVICE_ISSUE), severity);
+    }
+
+    private static JournalConfig config(int segmentSize, long maxRetainedBytes) {
+        return new JournalConfig(segmentSize, FsyncPolicy.PER_FAILURE, Duration.ofMillis(10), maxRetainedBytes, Duration.ofDays(1));
+    }
+
+    private List<Issue> replay(IssueJournal journal) {
+        List<Issue> issues = new ArrayList<>();
+        journal.replay((position, issue) -> issues.add(issue));
+        return issues;
+    }
+
+    @Test
+    public void replaysUnacknowledgedRecordsAfterRestart() throws IOException {
+        List<Issue> issues = new ArrayList<>();
+        try (IssueJournal journal = new IssueJournal(tempDir, config(4096, 1 << 20), codec)) {
+            long[] positions = new long[5];
+            for (int i = 0; i < 5; i++) {
+                Issue issue = createIssue(i == 4 ? Severity.FAILURE : Severity.ERROR);
+                issues.add(issue);
+                positions[i] = journal.append(issue);
+            }
+            journal.acknowledge(positions[1]);
+            // Acknowledging an older position does not move the watermark back
+            journal.acknowledge(positions[0]);
+        }
+
+        try (IssueJournal journal = new IssueJournal(tempDir, config(4096, 1 << 20), codec)) {
+            List<Issue> replayed = replay(journal);
+            assertEquals(3, replayed.size());
+            for (int i = 0; i < 3; i++) {
+                assertEquals(issues.get(i + 2).getIssueID(), replayed.get(i).getIssueID());
+                assertEquals(issues.get(i + 2).toJsonString(), replayed.get(i).toJsonString());
+            }
+
+            // New records go to a new segment
+            journal.append(createIssue(Severity.ERROR));
+            assertEquals(2, journal.getSegmentCount());
+            assertEquals(4, replay(journal).size());
+        }
+    }
+
+    @Test
+    public void rollsAndRetainsSegmentsBySize() throws IOException {
+        try (IssueJournal journal = new IssueJournal(tempDir, config(256, 3 * 256), codec)) {
+            Set<Long> segmentIndexes = new HashSet<>();
+            for (int i = 0; i < 50; i++) {
+                segmentIndexes.add(journal.append(createIssue(Severity.ERROR)) >>> 32);
+            }
+            assertTrue(segmentIndexes.size() > 3);
+            assertEquals(3, journal.getSegmentCount());
+            try (Stream<Path> files = Files.list(tempDir)) {
+                assertEquals(4, files.count());
+            }
+        }
+    }
+
+    @Test
+    public void skipsCorruptedRecords() throws IOException {
+        try (IssueJournal journal = new IssueJournal(tempDir, config(4096, 1 << 20), codec)) {
+            journal.append(createIssue(Severity.ERROR));
+            journal.append(createIssue(Severity.ERROR));
+            journal.append(createIssue(Severity.ERROR));
+        }
+        // Flip a byte in the payload of the first record
+        try (FileChannel channel = FileChannel.open(tempDir.resolve("segment-0000000000.journal"), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer bytes = ByteBuffer.allocate(1);
+            channel.read(bytes, 20);
+            bytes.put(0, (byte) (bytes.get(0) ^ 0xFF)).rewind();
+            channel.write(bytes, 20);
+        }
+
+        try (IssueJournal journal = new IssueJournal(tempDir, config(4096, 1 << 20), codec)) {
+            assertEquals(2, replay(journal).size());
+            assertEquals(1, journal.getCorruptedRecordCount());
+        }
+    }
+
+    @Test
+    public void concurrentAppendsAreAllRecovered() throws Exception {
+        Set<UUID> appended = ConcurrentHashMap.newKeySet();
+        try (IssueJournal journal = new IssueJournal(tempDir, config(8192, 1L << 30), codec)) {
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        Issue issue = createIssue(Severity.ERROR);
+                        journal.append(issue);
+                        appended.add(issue.getIssueID());
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        try (IssueJournal journal = new IssueJournal(tempDir, config(8192, 1L << 30), codec)) {
+            Set<UUID> replayed = new HashSet<>();
+            List<Long> positions = new ArrayList<>();
+            journal.replay((position, issue) -> {
+                replayed.add(issue.getIssueID());
+                positions.add(position);
+            });
+            assertEquals(appended, replayed);
+            for (int i = 1; i < positions.size(); i++) {
+                assertTrue(positions.get(i - 1) < positions.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void rejectsAppendAfterClose() throws IOException {
+        IssueJournal journal = new IssueJournal(tempDir, config(4096, 1 << 20), codec);
+        journal.close();
+        assertThrows(IllegalStateException.class, () -> journal.append(createIssue(Severity.ERROR)));
+    }
+
+    @Test
+    public void replaysRecordsAfterAnUncommittedRecord() throws IOException {
+        List<Issue> issues = new ArrayList<>();
+        try (IssueJournal journal = new IssueJournal(tempDir, config(4096, 1 << 20), codec)) {
+            for (int i = 0; i < 3; i++) {
+                issues.add(createIssue(i == 2 ? Severity.FAILURE : Severity.ERROR));
+                journal.append(issues.get(i));
+            }
+        }
+        // Zero the header of the first record, as if its producer died before writing it
+        try (FileChannel channel = FileChannel.open(tempDir.resolve("segment-0000000000.journal"), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(12), 0);
+        }
+
+        try (IssueJournal journal = new IssueJournal(tempDir, config(4096, 1 << 20), codec)) {
+            List<Issue> replayed = replay(journal);
+            assertEquals(List.of(issues.get(1).getIssueID(), issues.get(2).getIssueID()),
+                    replayed.stream().map(Issue::getIssueID).toList());
+            assertEquals(0, journal.getCorruptedRecordCount());
+        }
+    }
+
+    @Test
+    public void encodingFailureDoesNotHideLaterRecords() throws IOException {
+        Issue failing = createIssue(Severity.ERROR);
+        IssueBinaryCodec failingCodec = new IssueBinaryCodec(issueMapper) {
+            @Override
+            public int encode(Issue issue, ByteBuffer buffer) {
+                if (issue == failing) {
+                    throw new IllegalStateException("Encoding failed");
+                }
+                return super.encode(issue, buffer);
+            }
+        };
+        Issue first = createIssue(Severity.ERROR);
+        Issue last = createIssue(Severity.ERROR);
+        try (IssueJournal journal = new IssueJournal(tempDir, config(4096, 1 << 20), failingCodec)) {
+            journal.append(first);
+            assertThrows(IllegalStateException.class, () -> journal.append(failing));
+            journal.append(last);
+
+            assertEquals(List.of(first.getIssueID(), last.getIssueID()), replay(journal).stream().map(Issue::getIssueID).toList());
+        }
+        try (IssueJournal journal = new IssueJournal(tempDir, config(4096, 1 << 20), codec)) {
+            assertEquals(List.of(first.getIssueID(), last.getIssueID()), replay(journal).stream().map(Issue::getIssueID).toList());
+            assertEquals(0, journal.getCorruptedRecordCount());
+        }
+    }
+
+    @Test
+    public void retentionAfterRestartKeepsNewestSegment() throws IOException {
+        JournalConfig config = new JournalConfig(256, FsyncPolicy.PER_FAILURE, Duration.ofMillis(10), 1 << 20, Duration.ofHours(1));
+        try (IssueJournal journal = new IssueJournal(tempDir, config, codec)) {
+            long position = 0;
+            for (int i = 0; i < 10; i++) {
+                position = journal.append(createIssue(Severity.ERROR));
+            }
+            journal.acknowledge(position);
+        }
+
+        // All segments are older than the maximum age
+        Clock later = Clock.offset(Clock.systemUTC(), Duration.ofHours(2));
+        try (IssueJournal journal = new IssueJournal(tempDir, config, codec, later)) {
+            journal.applyRetention();
+            assertEquals(1, journal.getSegmentCount());
+        }
+
+        try (IssueJournal journal = new IssueJournal(tempDir, config, codec, later)) {
+            Issue issue = createIssue(Severity.ERROR);
+            long position = journal.append(issue);
+            assertTrue(position >= journal.getAcknowledgedPosition());
+            assertEquals(List.of(issue.getIssueID()), replay(journal).stream().map(Issue::getIssueID).toList());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.lkast;
+
+import com.github.lkast.exceptions.IssueMappingException;
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Severity;
+import com.github.lkast.serialization.IssueJson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+import static com.github.lkast.IssueAssertions.assertSameIssue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IssueJsonTest {
+    private IssueManager issueManager;
+    private Issue issue;
+
+    @BeforeEach
+    public void setUp() {
+        issueManager = new IssueManager("service-1", "Test Service");
+        IssueMapper mapper = new IssueMapper();
+        Issue cause = issueManager.createIssue(mapper.getIssueType(IssueName.DATABASE_ISSUE), Severity.FAILURE);
+        issue = issueManager.createIssue(mapper.getIssueType(IssueName.SERVICE_ISSUE), Severity.ERROR,
+                Instant.parse("2024-05-01T10:15:30.123456789Z"), cause, "details", UUID.randomUUID());
+    }
+
+    @Test
+    public void roundTripThroughOutputStream() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        issue.writeJson(outputStream);
+        assertSameIssue(issue, issueManager.createIssueFromJson(outputStream.toByteArray()));
+        assertSameIssue(issue, issueManager.createIssueFromJson(new ByteArrayInputStream(outputStream.toByteArray())));
+        assertEquals(issue.toJsonString(), outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void roundTripThroughWriter() {
+        StringWriter writer = new StringWriter();
+        issue.writeJson(writer);
+        assertSameIssue(issue, issueManager.createIssueFromJson(writer.toString()));
+    }
+
+    @Test
+    public void roundTripThroughReusedByteBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+        for (int i = 0; i < 2; i++) {
+            buffer.clear();
+            int written = issue.writeJson(buffer);
+            assertEquals(written, buffer.position());
+            buffer.flip();
+            assertSameIssue(issue, IssueJson.read(buffer));
+        }
+    }
+
+    @Test
+    public void writeToTooSmallBufferKeepsPosition() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.put((byte) 1);
+        assertThrows(IssueMappingException.class, () -> issue.writeJson(buffer));
+        assertEquals(1, buffer.position());
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.lkast;
+
+import com.github.lkast.details.DetailsPolicy;
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Service;
+import com.github.lkast.model.Severity;
+import com.github.lkast.ratelimit.IssueRateLimiter;
+import com.github.lkast.time.CoarseClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IssueManagerTest {
+    private IssueManager issueManager;
+
+    @BeforeEach
+    public void setUp() {
+        issueManager = new IssueManager("service-1", "Test Service");
+    }
+
+    @Test
+    public void createIssueFromExceptionUsesSuperclassMapping() {
+        Issue issue = issueManager.createIssueFromException(new NumberFormatException("not a number"));
+        assertEquals(IssueName.VALIDATION_ISSUE, issue.getIssueType().name());
+        assertEquals(Severity.ERROR, issue.getSeverity());
+        assertTrue(issue.getDetails().startsWith("Caused by java.lang.NumberFormatException\n"));
+    }
+
+    @Test
+    public void createIssueFromExceptionClass() {
+        Issue issue = issueManager.createIssueFromException(NumberFormatException.class, "not a number");
+        assertEquals(IssueName.VALIDATION_ISSUE, issue.getIssueType().name());
+        assertEquals("Caused by java.lang.NumberFormatException\nException message: not a number", issue.getDetails());
+    }
+
+    @Test
+    public void createIssueFromExceptionRendersDetailsWithPolicy() {
+        issueManager.setDetailsPolicy(DetailsPolicy.bounded(1));
+        Issue issue = issueManager.createIssueFromException(new IllegalArgumentException("invalid"));
+        assertTrue(issue.getDetails().contains("more]"), issue.getDetails());
+    }
+
+    @Test
+    public void lazyDetailsAreRenderedOnce() {
+        AtomicInteger renderings = new AtomicInteger();
+        Issue issue = new Issue(new IssueMapper().getIssueType(IssueName.EXECUTION_ISSUE), Severity.ERROR,
+                new Service("service-1", "Test Service"), Instant.now(), () -> "rendered " + renderings.incrementAndGet());
+        assertEquals(0, renderings.get());
+        assertEquals("rendered 1", issue.getDetails());
+        assertEquals("rendered 1", issue.getDetails());
+        assertEquals(1, renderings.get());
+    }
+
+    @Test
+    public void createIssueUsesConfiguredClock() {
+        Instant now = Instant.parse("2024-05-01T10:15:30Z");
+        issueManager.setClock(Clock.fixed(now, ZoneOffset.UTC));
+        assertEquals(now, issueManager.createIssueFromHttpStatus("404 Not Found").getTimeStamp());
+        assertEquals(now, issueManager.createIssueFromException(new IllegalStateException()).getTimeStamp());
+    }
+
+    @Test
+    public void coarseClockAdvances() throws InterruptedException {
+        try (CoarseClock clock = new CoarseClock(Duration.ofMillis(1))) {
+            issueManager.setClock(clock);
+            Instant first = issueManager.createIssue(new IssueMapper().getIssueType(IssueName.EXECUTION_ISSUE), Severity.ERROR).getTimeStamp();
+            Thread.sleep(20);
+            assertTrue(clock.instant().isAfter(first));
+            assertEquals(0, clock.instant().getNano() % 1_000_000);
+        }
+    }
+
+    @Test
+    public void createIssueFromHttpStatus() {
+        Issue fromString = issueManager.createIssueFromHttpStatus("404 Not Found");
+        Issue fromInt = issueManager.createIssueFromHttpStatus(404);
+        assertEquals(IssueName.RESOURCE_ISSUE, fromString.getIssueType().name());
+        assertEquals("Caused by HTTP Error: 404 Not Found", fromString.getDetails());
+        assertEquals(fromString.getIssueType(), fromInt.getIssueType());
+        assertEquals("Caused by HTTP Error: 404", fromInt.getDetails());
+    }
+
+    @Test
+    public void rateLimitedIssuesAreNotCreated() {
+        IssueRateLimiter rateLimiter = new IssueRateLimiter(1, 1);
+        rateLimiter.setAdaptiveSampling(false);
+        issueManager.setRateLimiter(rateLimiter);
+
+        assertNotNull(issueManager.createIssueFromException(new NumberFormatException("not a number")));
+        assertNull(issueManager.createIssueFromException(new NumberFormatException("not a number")));
+        assertNull(issueManager.createIssueFromException(NumberFormatException.class, "not a number"));
+        assertNotNull(issueManager.createIssue(new IssueMapper().getIssueType(IssueName.VALIDATION_ISSUE), Severity.FAILURE));
+        assertEquals(2, rateLimiter.getDroppedCount(IssueName.VALIDATION_ISSUE, Severity.ERROR));
+
+        issueManager.setRateLimiter(null);
+        assertNotNull(issueManager.createIssueFromException(new NumberFormatException("not a number")));
+    }
+}
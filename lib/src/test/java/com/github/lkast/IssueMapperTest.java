@@ -1,13 +1,30 @@
 package com.github.lkast;
 
+import com.github.lkast.exceptions.IssueMappingException;
 import com.github.lkast.model.IssueCategory;
 import com.github.lkast.model.IssueName;
 import com.github.lkast.model.IssueType;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class IssueMapperTest {
     private static IssueMapper mapper;
@@ -77,4 +94,185 @@ public class IssueMapperTest {
                         IssueCategory.INTERNAL_ISSUE)
                 , issueType);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getIssueTypeReturnsCanonicalInstance() {
+        IssueType fromHttp = mapper.getIssueTypeFromHttp("400");
+        IssueType fromException = mapper.getIssueTypeFromException("java.lang.IllegalArgumentException");
+        assertSame(mapper.getIssueType(IssueName.VALIDATION_ISSUE), fromHttp);
+        assertSame(fromHttp, fromException);
+    }
+
+    @Test
+    public void getIssueTypeIsDefinedForEveryIssueName() {
+        for (IssueName issueName : IssueName.values()) {
+            IssueType issueType = mapper.getIssueType(issueName);
+            assertEquals(issueName, issueType.name());
+            assertNotNull(issueType.description());
+        }
+    }
+
+    @Test
+    public void getExceptionsFromIssueNameKeepsDeclarationOrder() {
+        assertEquals(List.of("java.lang.IllegalArgumentException"), mapper.getExceptionsFromIssueName(IssueName.VALIDATION_ISSUE));
+        assertEquals(List.of(), mapper.getExceptionsFromIssueName(IssueName.SERVICE_TIMEOUT));
+    }
+
+    @Test
+    public void getHttpStatusFromIssueNameWithoutMapping() {
+        assertNull(mapper.getHttpStatusFromIssueName(IssueName.SERVICE_TIMEOUT));
+    }
+
+    @Test
+    public void getIssueNameFromExceptionClassResolvesSuperclass() {
+        assertEquals(IssueName.VALIDATION_ISSUE, mapper.getIssueNameFromException(IllegalArgumentException.class));
+        assertEquals(IssueName.VALIDATION_ISSUE, mapper.getIssueNameFromException(NumberFormatException.class));
+        assertEquals(IssueName.RESOURCE_ISSUE, mapper.getIssueNameFromException(java.util.InputMismatchException.class));
+    }
+
+    @Test
+    public void getIssueNameFromExceptionClassWithoutMapping() {
+        assertEquals(IssueName.UNSPECIFIED_ISSUE, mapper.getIssueNameFromException(IllegalStateException.class));
+    }
+
+    @Test
+    public void getIssueTypeFromHttpWithIntegerStatus() {
+        assertSame(mapper.getIssueType(IssueName.RESOURCE_ISSUE), mapper.getIssueTypeFromHttp(404));
+        assertSame(mapper.getIssueType(IssueName.UNSPECIFIED_ISSUE), mapper.getIssueTypeFromHttp(418));
+        assertSame(mapper.getIssueType(IssueName.UNSPECIFIED_ISSUE), mapper.getIssueTypeFromHttp(42));
+    }
+
+    @Test
+    public void getIssueNameFromHttpFallsBackToStatusClass() {
+        assertEquals(IssueName.SERVICE_ISSUE, mapper.getIssueNameFromHttp(503));
+        assertEquals(IssueName.SERVICE_ISSUE, mapper.getIssueNameFromHttp("500"));
+        assertEquals("500", mapper.getHttpStatusFromIssueName(IssueName.SERVICE_ISSUE));
+    }
+
+    private static void copyMappingFiles(Path directory) throws IOException {
+        for (String filename : List.of("issues.yaml", "httpCodeMappings.properties", "javaExceptionMappings.properties")) {
+            try (InputStream inputStream = IssueMapperTest.class.getClassLoader().getResourceAsStream(filename)) {
+                Files.copy(inputStream, directory.resolve(filename), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private static void writeAtomically(Path file, String content) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), "mapping", ".tmp");
+        Files.writeString(temp, content);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void awaitReload(IssueMapper mapper, long reloads, long errors) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (mapper.getReloadCount() < reloads || mapper.getReloadErrorCount() < errors) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("No reload observed");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void loadsMappingsFromDirectory(@TempDir Path directory) throws IOException {
+        copyMappingFiles(directory);
+        writeAtomically(directory.resolve("httpCodeMappings.properties"), "404=DATABASE_ISSUE\n");
+        try (IssueMapper directoryMapper = new IssueMapper(directory)) {
+            assertEquals(IssueName.DATABASE_ISSUE, directoryMapper.getIssueNameFromHttp(404));
+            assertEquals(IssueName.UNSPECIFIED_ISSUE, directoryMapper.getIssueNameFromHttp("400"));
+            assertEquals(directory, directoryMapper.getConfigDirectory());
+        }
+    }
+
+    @Test
+    public void rejectsMissingDirectory(@TempDir Path directory) {
+        assertThrows(IllegalArgumentException.class, () -> new IssueMapper(directory.resolve("missing")));
+    }
+
+    @Test
+    public void reloadsChangedMappings(@TempDir Path directory) throws IOException, InterruptedException {
+        copyMappingFiles(directory);
+        try (IssueMapper directoryMapper = new IssueMapper(directory)) {
+            IssueManager issueManager = new IssueManager("service-1", "Test Service", directoryMapper);
+            assertEquals(IssueName.RESOURCE_ISSUE, issueManager.createIssueFromHttpStatus(404).getIssueType().name());
+
+            writeAtomically(directory.resolve("httpCodeMappings.properties"), "404=DATABASE_ISSUE\n5xx=SERVICE_ISSUE\n");
+            awaitReload(directoryMapper, 1, 0);
+
+            assertEquals(IssueName.DATABASE_ISSUE, issueManager.createIssueFromHttpStatus(404).getIssueType().name());
+            assertEquals("404", directoryMapper.getHttpStatusFromIssueName(IssueName.DATABASE_ISSUE));
+            assertNull(directoryMapper.getHttpStatusFromIssueName(IssueName.RESOURCE_ISSUE));
+        }
+    }
+
+    @Test
+    public void invalidMappingsKeepPreviousSnapshot(@TempDir Path directory) throws IOException, InterruptedException {
+        copyMappingFiles(directory);
+        List<Exception> errors = new CopyOnWriteArrayList<>();
+        try (IssueMapper directoryMapper = new IssueMapper(directory, errors::add)) {
+            IssueType before = directoryMapper.getIssueTypeFromHttp(404);
+
+            writeAtomically(directory.resolve("javaExceptionMappings.properties"), "java.lang.IllegalStateException=NO_SUCH_ISSUE\n");
+            awaitReload(directoryMapper, 0, 1);
+
+            assertEquals(1, errors.size());
+            assertSame(errors.get(0), directoryMapper.getLastReloadError());
+            assertSame(before, directoryMapper.getIssueTypeFromHttp(404));
+            assertEquals(IssueName.VALIDATION_ISSUE, directoryMapper.getIssueNameFromException(IllegalArgumentException.class));
+            assertEquals(0, directoryMapper.getReloadCount());
+
+            Files.delete(directory.resolve("issues.yaml"));
+            assertFalse(directoryMapper.reload());
+            assertSame(before, directoryMapper.getIssueTypeFromHttp(404));
+
+            copyMappingFiles(directory);
+            assertTrue(directoryMapper.reload());
+            assertEquals(IssueName.VALIDATION_ISSUE, directoryMapper.getIssueNameFromException(IllegalArgumentException.class));
+        }
+    }
+
+    @Test
+    public void generatedMappingsMatchConfigurationFiles() throws IOException {
+        MappingSnapshot generated = MappingSnapshot.generated();
+        assumeTrue(generated != null, "Built without the generateMappings task");
+        MappingSnapshot parsed = MappingSnapshot.loadFromClasspath();
+
+        assertEquals(List.copyOf(parsed.httpCodeMappings.entrySet()), List.copyOf(generated.httpCodeMappings.entrySet()));
+        assertEquals(List.copyOf(parsed.javaExceptionMappings.entrySet()), List.copyOf(generated.javaExceptionMappings.entrySet()));
+        assertEquals(parsed.issueTypes, generated.issueTypes);
+        assertSame(generated, MappingSnapshot.generated());
+        assertSame(generated.issueTypes.get(IssueName.VALIDATION_ISSUE), new IssueMapper().getIssueType(IssueName.VALIDATION_ISSUE));
+    }
+
+    @Test
+    public void generatorRejectsWhatTheMapperRejects(@TempDir Path directory) throws IOException {
+        copyMappingFiles(directory);
+        Path output = directory.resolve("generated");
+        // Properties keep trailing whitespace, so the value is not a valid IssueName
+        writeAtomically(directory.resolve("httpCodeMappings.properties"), "404=RESOURCE_ISSUE \n");
+        assertThrows(IssueMappingException.class, () -> new IssueMapper(directory));
+        assertThrows(IssueMappingException.class, () -> MappingSourceGenerator.generate(directory, output));
+
+        writeAtomically(directory.resolve("httpCodeMappings.properties"), "504-500=SERVICE_ISSUE\n");
+        assertThrows(IssueMappingException.class, () -> new IssueMapper(directory));
+        assertThrows(IssueMappingException.class, () -> MappingSourceGenerator.generate(directory, output));
+        assertFalse(Files.exists(output));
+    }
+
+    @Test
+    public void generatorRendersConfigurationFiles(@TempDir Path directory) throws IOException {
+        copyMappingFiles(directory);
+        writeAtomically(directory.resolve("httpCodeMappings.properties"), "404=resource_issue\n5xx=SERVICE_ISSUE\n");
+
+        String source = Files.readString(MappingSourceGenerator.generate(directory, directory.resolve("generated")));
+        assertTrue(source.startsWith("package com.github.lkast;"));
+        assertTrue(source.contains("final class GeneratedMappings {"));
+        assertTrue(source.contains("httpCodeMappings.put(\"404\", IssueName.RESOURCE_ISSUE);\n" +
+                "        httpCodeMappings.put(\"5xx\", IssueName.SERVICE_ISSUE);\n"));
+        assertTrue(source.contains("javaExceptionMappings.put(\"java.lang.IllegalArgumentException\", IssueName.VALIDATION_ISSUE);"));
+        assertTrue(source.contains("issueTypes.put(IssueName.VALIDATION_ISSUE, new IssueType(IssueName.VALIDATION_ISSUE, " +
+                "\"Issues related to input validation or constraints not being met within the microservice.\", IssueCategory.INTERNAL_ISSUE));"));
+        assertEquals("\"a\\\"b\\\\c\\n\\u00e9\"", MappingSourceGenerator.literal("a\"b\\c\né"));
+        assertEquals("null", MappingSourceGenerator.literal(null));
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.lkast;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueCategory;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Severity;
+import com.github.lkast.monitoring.IssueCreationEvent;
+import com.github.lkast.monitoring.IssueMappingEvent;
+import com.github.lkast.monitoring.IssueMetrics;
+import com.github.lkast.monitoring.IssueMetricsSnapshot;
+import com.github.lkast.monitoring.IssueSerializationEvent;
+import com.github.lkast.ratelimit.IssueRateLimiter;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IssueMonitoringTest {
+    private final IssueManager issueManager = new IssueManager("service-1", "Test Service");
+
+    @Test
+    public void metricsCountCreatedAndRejectedIssues() {
+        IssueMetrics metrics = new IssueMetrics();
+        issueManager.setMetrics(metrics);
+        issueManager.createIssueFromHttpStatus(404);
+        issueManager.createIssueFromHttpStatus("404 Not Found");
+        issueManager.createIssueFromException(new IllegalArgumentException("Invalid"));
+        issueManager.setRateLimiter(new IssueRateLimiter(1, 1));
+        issueManager.createIssueFromHttpStatus(503);
+        assertNull(issueManager.createIssueFromHttpStatus(503));
+
+        IssueMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(2, snapshot.getCreatedCount(IssueName.RESOURCE_ISSUE, Severity.ERROR, IssueCategory.INTERNAL_ISSUE));
+        assertEquals(1, snapshot.getCreatedCount(IssueName.VALIDATION_ISSUE, Severity.ERROR, IssueCategory.INTERNAL_ISSUE));
+        assertEquals(1, snapshot.getCreatedCount(IssueName.SERVICE_ISSUE, Severity.ERROR, IssueCategory.DEPENDENCY_ISSUE));
+        assertEquals(1, snapshot.getRejectedCount(IssueName.SERVICE_ISSUE, Severity.ERROR, IssueCategory.DEPENDENCY_ISSUE));
+        assertEquals(4, snapshot.getTotalCreatedCount());
+        assertEquals(1, snapshot.getTotalRejectedCount());
+
+        List<String> series = new ArrayList<>();
+        snapshot.forEach((issueName, severity, category, created, rejected) ->
+                series.add(issueName + "/" + severity + "/" + category + "=" + created + "/" + rejected));
+        assertEquals(List.of(
+                "VALIDATION_ISSUE/ERROR/INTERNAL_ISSUE=1/0",
+                "RESOURCE_ISSUE/ERROR/INTERNAL_ISSUE=2/0",
+                "SERVICE_ISSUE/ERROR/DEPENDENCY_ISSUE=1/1"), series);
+    }
+
+    @Test
+    public void snapshotsAreImmutable() {
+        IssueMetrics metrics = new IssueMetrics();
+        issueManager.setMetrics(metrics);
+        IssueMetricsSnapshot before = metrics.snapshot();
+        issueManager.createIssueFromHttpStatus(404);
+        assertEquals(0, before.getTotalCreatedCount());
+        assertEquals(1, metrics.snapshot().getTotalCreatedCount());
+    }
+
+    @Test
+    public void flightRecorderEventsAreEmitted() throws IOException {
+        Path file = Files.createTempFile("issues", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(IssueCreationEvent.NAME).withoutThreshold();
+            recording.enable(IssueMappingEvent.NAME).withoutThreshold();
+            recording.enable(IssueSerializationEvent.NAME).withoutThreshold();
+            recording.start();
+            Issue issue = issueManager.createIssueFromException(new IllegalArgumentException("Invalid"));
+            String json = issue.toJsonString();
+            issueManager.createIssueFromJson(json.getBytes(StandardCharsets.UTF_8));
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            List<RecordedEvent> creations = ofType(events, IssueCreationEvent.NAME);
+            assertEquals(1, creations.size());
+            assertEquals("exception", creations.get(0).getString("source"));
+            assertEquals("VALIDATION_ISSUE", creations.get(0).getString("issueName"));
+            assertEquals("ERROR", creations.get(0).getString("severity"));
+            assertEquals("INTERNAL_ISSUE", creations.get(0).getString("issueCategory"));
+
+            List<RecordedEvent> mappings = ofType(events, IssueMappingEvent.NAME);
+            assertEquals(1, mappings.size());
+            assertEquals(IllegalArgumentException.class.getName(), mappings.get(0).getString("key"));
+
+            List<RecordedEvent> serializations = ofType(events, IssueSerializationEvent.NAME);
+            assertEquals(List.of("write", "read"), serializations.stream()
+                    .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                    .map(e -> e.getString("operation")).collect(Collectors.toList()));
+            assertTrue(serializations.stream().allMatch(e -> e.getLong("payloadSize") == json.length()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.lkast;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Severity;
+import com.github.lkast.serialization.IssueNdjson;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class IssueNdjsonTest {
+    private final IssueManager issueManager = new IssueManager("service-1", "Test Service");
+
+    private List<Issue> createIssues(int count) {
+        IssueMapper mapper = new IssueMapper();
+        return IntStream.range(0, count)
+                .mapToObj(i -> issueManager.createIssue(mapper.getIssueType(IssueName.values()[i % IssueName.values().length]), Severity.ISSUE))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void writeAndReadBatch() {
+        List<Issue> issues = createIssues(50);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        assertEquals(50, IssueNdjson.write(issues, outputStream));
+        String ndjson = outputStream.toString(StandardCharsets.UTF_8);
+        assertEquals(50, ndjson.lines().count());
+        assertEquals(issues.get(0).toJsonString() + "\n", ndjson.substring(0, ndjson.indexOf('\n') + 1));
+
+        List<Issue> read = IssueNdjson.read(new ByteArrayInputStream(outputStream.toByteArray()), (line, content, e) -> {
+            throw e;
+        }).collect(Collectors.toList());
+        assertEquals(issues.stream().map(Issue::getIssueID).collect(Collectors.toList()),
+                read.stream().map(Issue::getIssueID).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void writeStream() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertEquals(3, IssueNdjson.write(createIssues(3).stream(), outputStream));
+        assertEquals(3, outputStream.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
+    @Test
+    public void malformedLinesAreReportedAndSkipped() {
+        List<Issue> issues = createIssues(2);
+        String ndjson = issues.get(0).toJsonString() + "\n{not json}\n\n" + issues.get(1).toJsonString() + "\n";
+        List<Long> malformedLines = new ArrayList<>();
+
+        List<Issue> read = IssueNdjson.read(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+                (line, content, e) -> malformedLines.add(line)).collect(Collectors.toList());
+
+        assertEquals(List.of(2L), malformedLines);
+        assertEquals(2, read.size());
+        assertEquals(issues.get(1).getIssueID(), read.get(1).getIssueID());
+    }
+}
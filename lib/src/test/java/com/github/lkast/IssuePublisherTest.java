@@ -0,0 +1,374 @@
+package com.github.lkast;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Severity;
+import com.github.lkast.publisher.FlowSink;
+import com.github.lkast.publisher.InMemorySink;
+import com.github.lkast.publisher.IssuePublisher;
+import com.github.lkast.publisher.IssueSink;
+import com.github.lkast.publisher.OverflowPolicy;
+import com.github.lkast.publisher.PublisherConfig;
+import com.github.lkast.publisher.RollingFileSink;
+import com.github.lkast.publisher.StdoutSink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IssuePublisherTest {
+    private final IssueManager issueManager = new IssueManager("service-1", "Test Service");
+    private final IssueMapper issueMapper = new IssueMapper();
+
+    @TempDir
+    Path tempDir;
+
+    private Issue createIssue(Severity severity) {
+        return issueManager.createIssue(issueMapper.getIssueType(IssueName.SERVICE_ISSUE), severity);
+    }
+
+    private static PublisherConfig config(int capacity, OverflowPolicy overflowPolicy) {
+        return new PublisherConfig(capacity, 16, Duration.ofMillis(1), overflowPolicy, 2, false);
+    }
+
+    /**
+     * A sink that blocks in its first batch until released, so the queue can be filled deterministically.
+     */
+    private static class BlockingSink extends InMemorySink {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public void publish(List<Issue> batch) {
+            entered.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.publish(batch);
+        }
+    }
+
+    @Test
+    public void publishesAllIssuesFromManyThreads() throws Exception {
+        InMemorySink sink = new InMemorySink();
+        try (IssuePublisher publisher = new IssuePublisher(config(1024, OverflowPolicy.BLOCK), sink)) {
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        assertTrue(publisher.publish(createIssue(Severity.ERROR)));
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            publisher.flush();
+            assertEquals(4000, sink.size());
+            assertEquals(4000, publisher.getPublishedCount());
+            assertEquals(4000, publisher.getDeliveredCount());
+            assertEquals(0, publisher.getDroppedCount());
+            assertEquals(0, publisher.getQueueDepth());
+        }
+    }
+
+    @Test
+    public void evictingProducersDoNotLoseAcceptedIssues() throws Exception {
+        InMemorySink sink = new InMemorySink();
+        // Each lane holds exactly the capacity, so producers evicting while the delivery thread polls
+        // can find the slot they reserved not yet freed
+        IssuePublisher publisher = new IssuePublisher(config(4, OverflowPolicy.DROP_OLDEST), sink);
+        AtomicInteger rejected = new AtomicInteger();
+        // Created up front, so the producers spend their time contending for the queue
+        Severity[] severities = Severity.values();
+        Issue[] issues = new Issue[severities.length];
+        for (int i = 0; i < issues.length; i++) {
+            issues[i] = createIssue(severities[i]);
+        }
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    if (!publisher.publish(issues[i % issues.length])) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        publisher.close();
+
+        long accepted = 400_000 - rejected.get();
+        long evicted = publisher.getDroppedCount() - rejected.get();
+        assertEquals(accepted, publisher.getPublishedCount());
+        assertEquals(accepted, publisher.getDeliveredCount() + evicted);
+        assertEquals(publisher.getDeliveredCount(), sink.size());
+        assertEquals(0, publisher.getQueueDepth());
+    }
+
+    @Test
+    public void closeDeliversQueuedIssues() {
+        InMemorySink sink = new InMemorySink();
+        IssuePublisher publisher = new IssuePublisher(config(256, OverflowPolicy.BLOCK), sink);
+        for (int i = 0; i < 100; i++) {
+            publisher.publish(createIssue(Severity.ISSUE));
+        }
+        publisher.close();
+
+        assertEquals(100, sink.size());
+        assertTrue(publisher.isClosed());
+        assertFalse(publisher.publish(createIssue(Severity.ISSUE)));
+        assertEquals(1, publisher.getDroppedCount(Severity.ISSUE));
+    }
+
+    @Test
+    public void dropLowestSeverityEvictsLeastSevereIssue() throws Exception {
+        BlockingSink sink = new BlockingSink();
+        try (IssuePublisher publisher = new IssuePublisher(config(4, OverflowPolicy.DROP_LOWEST_SEVERITY), sink)) {
+            publisher.publish(createIssue(Severity.ISSUE));
+            assertTrue(sink.entered.await(5, TimeUnit.SECONDS));
+
+            Issue lowest = createIssue(Severity.ISSUE);
+            publisher.publish(lowest);
+            for (int i = 0; i < 3; i++) {
+                publisher.publish(createIssue(Severity.ERROR));
+            }
+            assertEquals(4, publisher.getQueueDepth());
+
+            assertTrue(publisher.publish(createIssue(Severity.FAILURE)));
+            assertEquals(1, publisher.getDroppedCount(Severity.ISSUE));
+            // No queued issue is less severe than ISSUE, so the new issue is dropped
+            assertFalse(publisher.publish(createIssue(Severity.ISSUE)));
+            assertEquals(2, publisher.getDroppedCount(Severity.ISSUE));
+
+            sink.released.countDown();
+            publisher.flush();
+            assertEquals(5, sink.size());
+            assertFalse(sink.getIssues().contains(lowest));
+            // The more severe issues are delivered first
+            assertEquals(Severity.FAILURE, sink.getIssues().get(1).getSeverity());
+        }
+    }
+
+    @Test
+    public void dropOldestEvictsOldestIssue() throws Exception {
+        BlockingSink sink = new BlockingSink();
+        try (IssuePublisher publisher = new IssuePublisher(config(2, OverflowPolicy.DROP_OLDEST), sink)) {
+            publisher.publish(createIssue(Severity.ISSUE));
+            assertTrue(sink.entered.await(5, TimeUnit.SECONDS));
+
+            Issue oldest = createIssue(Severity.FAILURE);
+            publisher.publish(oldest);
+            publisher.publish(createIssue(Severity.ISSUE));
+            assertTrue(publisher.publish(createIssue(Severity.ISSUE)));
+            assertEquals(1, publisher.getDroppedCount(Severity.FAILURE));
+
+            sink.released.countDown();
+            publisher.flush();
+            assertFalse(sink.getIssues().contains(oldest));
+            assertEquals(3, sink.size());
+        }
+    }
+
+    @Test
+    public void publishAllQueuesAllIssuesOrNone() throws Exception {
+        BlockingSink sink = new BlockingSink();
+        try (IssuePublisher publisher = new IssuePublisher(config(4, OverflowPolicy.DROP_OLDEST), sink)) {
+            publisher.publish(createIssue(Severity.ISSUE));
+            assertTrue(sink.entered.await(5, TimeUnit.SECONDS));
+
+            assertTrue(publisher.publishAll(List.of(createIssue(Severity.ERROR), createIssue(Severity.ISSUE), createIssue(Severity.FAILURE))));
+            assertFalse(publisher.publishAll(List.of(createIssue(Severity.ERROR), createIssue(Severity.ERROR))));
+            assertEquals(3, publisher.getQueueDepth());
+            assertEquals(0, publisher.getDroppedCount());
+            assertEquals(4, publisher.getPublishedCount());
+
+            sink.released.countDown();
+            publisher.flush();
+            assertEquals(4, sink.size());
+        }
+    }
+
+    @Test
+    public void sampleAcceptsFailuresAndDropsWhenFull() throws Exception {
+        BlockingSink sink = new BlockingSink();
+        IssuePublisher publisher = new IssuePublisher(config(8, OverflowPolicy.SAMPLE), sink);
+        try (publisher) {
+            publisher.publish(createIssue(Severity.ISSUE));
+            assertTrue(sink.entered.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 100; i++) {
+                publisher.publish(createIssue(Severity.ISSUE));
+            }
+            for (int i = 0; i < 8; i++) {
+                publisher.publish(createIssue(Severity.FAILURE));
+            }
+            assertTrue(publisher.getQueueDepth() <= 8);
+            assertEquals(109, publisher.getPublishedCount() + publisher.getDroppedCount());
+            assertTrue(publisher.getDroppedCount(Severity.ISSUE) > 0);
+
+            sink.released.countDown();
+        }
+        assertEquals(publisher.getPublishedCount(), sink.size());
+    }
+
+    @Test
+    public void flushWaitsForLessSevereIssuesPublishedBefore() throws Exception {
+        Set<UUID> delivered = ConcurrentHashMap.newKeySet();
+        IssueSink sink = batch -> batch.forEach(issue -> delivered.add(issue.getIssueID()));
+        try (IssuePublisher publisher = new IssuePublisher(config(1024, OverflowPolicy.BLOCK), sink)) {
+            AtomicBoolean running = new AtomicBoolean(true);
+            // Failures are delivered first and keep completing while the less severe issues wait in their lane
+            Thread producer = new Thread(() -> {
+                while (running.get()) {
+                    publisher.publish(createIssue(Severity.FAILURE));
+                }
+            });
+            producer.start();
+            try {
+                for (int i = 0; i < 200; i++) {
+                    Issue issue = createIssue(Severity.ISSUE);
+                    assertTrue(publisher.publish(issue));
+                    publisher.flush();
+                    assertTrue(delivered.contains(issue.getIssueID()), "Issue " + i + " was not delivered by flush");
+                }
+            } finally {
+                running.set(false);
+                producer.join();
+            }
+        }
+    }
+
+    @Test
+    public void blockWaitsForSpace() throws Exception {
+        BlockingSink sink = new BlockingSink();
+        try (IssuePublisher publisher = new IssuePublisher(config(1, OverflowPolicy.BLOCK), sink)) {
+            publisher.publish(createIssue(Severity.ISSUE));
+            assertTrue(sink.entered.await(5, TimeUnit.SECONDS));
+            publisher.publish(createIssue(Severity.ISSUE));
+
+            Thread producer = new Thread(() -> publisher.publish(createIssue(Severity.ISSUE)));
+            producer.start();
+            producer.join(50);
+            assertTrue(producer.isAlive());
+
+            sink.released.countDown();
+            producer.join();
+            publisher.flush();
+            assertEquals(3, sink.size());
+            assertEquals(0, publisher.getDroppedCount());
+        }
+    }
+
+    @Test
+    public void sinkErrorsDoNotStopDelivery() throws Exception {
+        InMemorySink sink = new InMemorySink();
+        IssueSink failingSink = issues -> {
+            throw new IOException("Sink unavailable");
+        };
+        try (IssuePublisher publisher = new IssuePublisher(config(16, OverflowPolicy.BLOCK), failingSink, sink)) {
+            publisher.publish(createIssue(Severity.ERROR));
+            publisher.flush();
+            publisher.publish(createIssue(Severity.ERROR));
+            publisher.flush();
+
+            assertEquals(2, sink.size());
+            assertEquals(2, publisher.getSinkErrorCount());
+            assertEquals("Sink unavailable", publisher.getLastSinkError().getMessage());
+        }
+    }
+
+    @Test
+    public void stdoutSinkWritesNdjson() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (IssuePublisher publisher = new IssuePublisher(config(16, OverflowPolicy.BLOCK), new StdoutSink(outputStream))) {
+            publisher.publish(createIssue(Severity.ERROR));
+            publisher.publish(createIssue(Severity.ERROR));
+            publisher.flush();
+        }
+        assertEquals(2, outputStream.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
+    @Test
+    public void rollingFileSinkRollsAndDeletesOldFiles() throws Exception {
+        RollingFileSink sink = new RollingFileSink(tempDir, "issues", 1, 3);
+        try (IssuePublisher publisher = new IssuePublisher(new PublisherConfig(16, 1, Duration.ofMillis(1), OverflowPolicy.BLOCK, 1, false), sink)) {
+            for (int i = 0; i < 5; i++) {
+                publisher.publish(createIssue(Severity.ERROR));
+            }
+        }
+        List<String> files;
+        try (Stream<Path> paths = Files.list(tempDir)) {
+            files = paths.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+        assertEquals(List.of("issues-00003.ndjson", "issues-00004.ndjson", "issues-00005.ndjson"), files);
+        assertEquals(1, Files.readAllLines(tempDir.resolve("issues-00005.ndjson")).size());
+
+        // A new sink continues after the existing files
+        RollingFileSink restarted = new RollingFileSink(tempDir, "issues", 1, 3);
+        restarted.publish(List.of(createIssue(Severity.ERROR)));
+        restarted.close();
+        assertEquals(tempDir.resolve("issues-00006.ndjson"), restarted.getCurrentFile());
+        assertFalse(Files.exists(tempDir.resolve("issues-00003.ndjson")));
+    }
+
+    @Test
+    public void flowSinkNotifiesSubscribers() throws Exception {
+        FlowSink sink = new FlowSink();
+        AtomicInteger received = new AtomicInteger();
+        CountDownLatch completed = new CountDownLatch(1);
+        sink.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(Issue item) {
+                received.incrementAndGet();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+                completed.countDown();
+            }
+        });
+        try (IssuePublisher publisher = new IssuePublisher(config(16, OverflowPolicy.BLOCK), sink)) {
+            for (int i = 0; i < 10; i++) {
+                publisher.publish(createIssue(Severity.ERROR));
+            }
+        }
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(10, received.get());
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.lkast;
+
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Severity;
+import com.github.lkast.ratelimit.IssueRateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IssueRateLimiterTest {
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void allowsBurstThenLimitsRate() {
+        IssueRateLimiter limiter = new IssueRateLimiter(10, 5);
+        limiter.setAdaptiveSampling(false);
+        long now = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(IssueName.VALIDATION_ISSUE, Severity.ISSUE, now));
+        }
+        assertFalse(limiter.tryAcquire(IssueName.VALIDATION_ISSUE, Severity.ISSUE, now));
+
+        // One permit every 100 milliseconds
+        assertFalse(limiter.tryAcquire(IssueName.VALIDATION_ISSUE, Severity.ISSUE, now + 50 * MILLI));
+        assertTrue(limiter.tryAcquire(IssueName.VALIDATION_ISSUE, Severity.ISSUE, now + 100 * MILLI));
+        assertFalse(limiter.tryAcquire(IssueName.VALIDATION_ISSUE, Severity.ISSUE, now + 100 * MILLI));
+
+        assertEquals(6, limiter.getPassedCount(IssueName.VALIDATION_ISSUE, Severity.ISSUE));
+        assertEquals(3, limiter.getDroppedCount(IssueName.VALIDATION_ISSUE, Severity.ISSUE));
+        assertEquals(9, limiter.getTotalCount());
+    }
+
+    @Test
+    public void bucketsAreIndependent() {
+        IssueRateLimiter limiter = new IssueRateLimiter(1, 1);
+        long now = System.nanoTime();
+        assertTrue(limiter.tryAcquire(IssueName.VALIDATION_ISSUE, Severity.ISSUE, now));
+        assertFalse(limiter.tryAcquire(IssueName.VALIDATION_ISSUE, Severity.ISSUE, now));
+        assertTrue(limiter.tryAcquire(IssueName.VALIDATION_ISSUE, Severity.ERROR, now));
+        assertTrue(limiter.tryAcquire(IssueName.SERVICE_ISSUE, Severity.ISSUE, now));
+    }
+
+    @Test
+    public void failuresAlwaysPass() {
+        IssueRateLimiter limiter = new IssueRateLimiter(1, 1);
+        long now = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(limiter.tryAcquire(IssueName.SERVICE_ISSUE, Severity.FAILURE, now));
+        }
+        assertEquals(0, limiter.getDroppedCount());
+        assertThrows(IllegalArgumentException.class, () -> limiter.setLimit(IssueName.SERVICE_ISSUE, Severity.FAILURE, 1, 1));
+    }
+
+    @Test
+    public void perBucketLimitOverridesDefault() {
+        IssueRateLimiter limiter = new IssueRateLimiter(Double.POSITIVE_INFINITY, 1);
+        limiter.setLimit(IssueName.VALIDATION_ISSUE, Severity.ISSUE, 1, 1);
+        long now = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire(IssueName.SERVICE_ISSUE, Severity.ISSUE, now));
+        }
+        assertTrue(limiter.tryAcquire(IssueName.VALIDATION_ISSUE, Severity.ISSUE, now));
+        assertFalse(limiter.tryAcquire(IssueName.VALIDATION_ISSUE, Severity.ISSUE, now));
+    }
+
+    @Test
+    public void adaptiveSamplingSpreadsPermitsOverFlood() {
+        IssueRateLimiter limiter = new IssueRateLimiter(100, 100);
+        long start = System.nanoTime();
+        int passedLate = 0;
+        // 10000 issues per second for 3 seconds
+        for (int i = 0; i < 30_000; i++) {
+            long now = start + i * 100_000L;
+            boolean passed = limiter.tryAcquire(IssueName.VALIDATION_ISSUE, Severity.ISSUE, now);
+            if (passed && i >= 25_000) {
+                passedLate++;
+            }
+        }
+        long passed = limiter.getPassedCount(IssueName.VALIDATION_ISSUE, Severity.ISSUE);
+        assertTrue(passed <= 100 + 300, "passed " + passed);
+        // Permits are not used up at the start of each second
+        assertTrue(passedLate > 10, "passed late " + passedLate);
+        assertEquals(30_000, limiter.getTotalCount());
+        assertTrue(limiter.getObservedRate(IssueName.VALIDATION_ISSUE, Severity.ISSUE) > 5000);
+    }
+}
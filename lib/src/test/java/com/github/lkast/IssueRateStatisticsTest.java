@@ -0,0 +1,102 @@
+package com.github.lkast;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueCategory;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Severity;
+import com.github.lkast.stats.IssueRateStatistics;
+import com.github.lkast.stats.RateSpike;
+import com.github.lkast.stats.SpikeListener;
+import com.github.lkast.stats.StatisticsConfig;
+import org.apache.commons.math3.stat.descriptive.StatisticalSummary;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IssueRateStatisticsTest {
+    private final IssueManager issueManager = new IssueManager("service-1", "Test Service");
+    private final IssueMapper issueMapper = new IssueMapper();
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private final List<RateSpike> spikes = new ArrayList<>();
+
+    private IssueRateStatistics createStatistics(SpikeListener listener) {
+        StatisticsConfig config = new StatisticsConfig(Duration.ofSeconds(1), 10, 0.2, 4.0, 5, 1.0);
+        return new IssueRateStatistics(config, clock, listener);
+    }
+
+    private void recordSecond(IssueRateStatistics statistics, IssueName issueName, int count) {
+        Issue issue = issueManager.createIssue(issueMapper.getIssueType(issueName), Severity.ISSUE);
+        for (int i = 0; i < count; i++) {
+            statistics.record(issue);
+        }
+        clock.advance(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void measuresRatesOverSlidingWindow() {
+        IssueRateStatistics statistics = createStatistics(spikes::add);
+        for (int second = 0; second < 20; second++) {
+            recordSecond(statistics, IssueName.VALIDATION_ISSUE, 10);
+        }
+        statistics.tick();
+
+        assertEquals(10.0, statistics.getRate(IssueName.VALIDATION_ISSUE), 0.001);
+        assertEquals(10.0, statistics.getRate(Severity.ISSUE), 0.001);
+        assertEquals(0.0, statistics.getRate(IssueName.DATABASE_ISSUE), 0.001);
+        IssueCategory category = issueMapper.getIssueType(IssueName.VALIDATION_ISSUE).category();
+        assertEquals(10.0, statistics.getRate(category), 0.001);
+
+        StatisticalSummary summary = statistics.getSummary(IssueName.VALIDATION_ISSUE);
+        assertEquals(20, summary.getN());
+        assertEquals(10.0, summary.getMean(), 0.001);
+        assertEquals(0.0, summary.getVariance(), 0.001);
+        assertTrue(spikes.isEmpty());
+
+        // After a pause the window is empty again
+        clock.advance(Duration.ofSeconds(30));
+        statistics.tick();
+        assertEquals(0.0, statistics.getRate(IssueName.VALIDATION_ISSUE), 0.001);
+        assertEquals(50, statistics.getSummary(IssueName.VALIDATION_ISSUE).getN());
+    }
+
+    @Test
+    public void detectsSpikeAgainstBaseline() {
+        IssueRateStatistics statistics = createStatistics(spikes::add);
+        for (int second = 0; second < 30; second++) {
+            recordSecond(statistics, IssueName.VALIDATION_ISSUE, 10 + second % 3);
+        }
+        assertTrue(spikes.isEmpty());
+
+        recordSecond(statistics, IssueName.VALIDATION_ISSUE, 200);
+        statistics.tick();
+
+        assertTrue(spikes.stream().anyMatch(spike -> spike.series() == IssueName.VALIDATION_ISSUE));
+        RateSpike spike = spikes.stream().filter(s -> s.series() == IssueName.VALIDATION_ISSUE).findFirst().orElseThrow();
+        assertEquals(200.0, spike.rate(), 0.001);
+        assertTrue(spike.zScore() >= 4.0);
+        assertTrue(spike.baselineMean() > 9 && spike.baselineMean() < 13);
+        assertTrue(spikes.stream().anyMatch(s -> s.series() == Severity.ISSUE));
+    }
+
+    @Test
+    public void reportsSpikesAsPerformanceIssues() {
+        List<Issue> issues = new ArrayList<>();
+        IssueRateStatistics statistics = createStatistics(SpikeListener.reportingIssues(issueManager, issues::add));
+        for (int second = 0; second < 10; second++) {
+            recordSecond(statistics, IssueName.DATABASE_ISSUE, 0);
+        }
+        recordSecond(statistics, IssueName.DATABASE_ISSUE, 50);
+        statistics.tick();
+
+        assertTrue(issues.size() >= 1);
+        Issue issue = issues.get(0);
+        assertEquals(IssueName.PERFORMANCE_ISSUE, issue.getIssueType().name());
+        assertTrue(issue.getDetails().startsWith("Issue rate spike for "));
+    }
+}
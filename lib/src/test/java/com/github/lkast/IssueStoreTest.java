@@ -0,0 +1,155 @@
+package com.github.lkast;
+
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Service;
+import com.github.lkast.model.Severity;
+import com.github.lkast.store.IssueStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IssueStoreTest {
+    private final IssueManager issueManager = new IssueManager("service-1", "Test Service");
+    private final IssueMapper issueMapper = new IssueMapper();
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+
+    private Issue createIssue(IssueName issueName, Severity severity, Issue causeIssue, UUID correlationID) {
+        return issueManager.createIssue(issueMapper.getIssueType(issueName), severity, clock.instant(), causeIssue, null, correlationID);
+    }
+
+    @Test
+    public void findsIssuesByIndexes() {
+        IssueStore store = new IssueStore(64, Duration.ofMinutes(5), clock);
+        UUID correlationID = UUID.randomUUID();
+        Issue root = createIssue(IssueName.DATABASE_ISSUE, Severity.FAILURE, null, correlationID);
+        Issue caused = createIssue(IssueName.SERVICE_ISSUE, Severity.ERROR, root, correlationID);
+        Issue unrelated = createIssue(IssueName.DATABASE_ISSUE, Severity.ERROR, null, null);
+        store.add(root);
+        store.add(caused);
+        store.add(unrelated);
+
+        assertSame(root, store.findByIssueID(root.getIssueID()).orElseThrow());
+        assertEquals(List.of(root, caused), store.findByCorrelationID(correlationID).collect(Collectors.toList()));
+        assertEquals(List.of(caused), store.findByCauseIssueID(root.getIssueID()).collect(Collectors.toList()));
+        assertEquals(List.of(root, unrelated), store.findByIssueName(IssueName.DATABASE_ISSUE).collect(Collectors.toList()));
+        assertEquals(List.of(caused, unrelated), store.findBySeverity(Severity.ERROR).collect(Collectors.toList()));
+        assertEquals(3, store.findByService(new Service("service-1", "Test Service")).count());
+        assertEquals(List.of(root), store.find(IssueName.DATABASE_ISSUE, Severity.FAILURE, root.getTimeStamp()).collect(Collectors.toList()));
+        assertEquals(0, store.find(null, null, root.getTimeStamp().plusSeconds(1)).count());
+        assertEquals(List.of(root, caused, unrelated), store.findAll().collect(Collectors.toList()));
+        assertEquals(0, store.findByCorrelationID(UUID.randomUUID()).count());
+    }
+
+    @Test
+    public void evictsOldestIssuesWhenFull() {
+        IssueStore store = new IssueStore(4, Duration.ofMinutes(5), clock);
+        UUID correlationID = UUID.randomUUID();
+        Issue first = createIssue(IssueName.DATABASE_ISSUE, Severity.ERROR, null, correlationID);
+        store.add(first);
+        for (int i = 0; i < 4; i++) {
+            store.add(createIssue(IssueName.SERVICE_ISSUE, Severity.ERROR, null, null));
+        }
+
+        assertEquals(4, store.size());
+        assertFalse(store.findByIssueID(first.getIssueID()).isPresent());
+        assertEquals(0, store.findByCorrelationID(correlationID).count());
+        assertEquals(0, store.findByIssueName(IssueName.DATABASE_ISSUE).count());
+        assertEquals(4, store.findAll().count());
+    }
+
+    @Test
+    public void keepsExactlyTheRequestedCapacity() {
+        IssueStore store = new IssueStore(5, Duration.ofMinutes(5), clock);
+        List<Issue> issues = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Issue issue = createIssue(IssueName.SERVICE_ISSUE, Severity.ERROR, null, null);
+            issues.add(issue);
+            store.add(issue);
+        }
+
+        assertEquals(5, store.getCapacity());
+        assertEquals(5, store.size());
+        assertEquals(issues.subList(3, 8), store.findAll().collect(Collectors.toList()));
+        assertEquals(issues.subList(3, 8), store.findByService(issues.get(0).getService()).collect(Collectors.toList()));
+        assertFalse(store.findByIssueID(issues.get(2).getIssueID()).isPresent());
+    }
+
+    @Test
+    public void evictsIssuesOlderThanRetention() {
+        IssueStore store = new IssueStore(64, Duration.ofMinutes(5), clock);
+        Issue old = createIssue(IssueName.DATABASE_ISSUE, Severity.ERROR, null, null);
+        store.add(old);
+        clock.advance(Duration.ofMinutes(3));
+        Issue recent = createIssue(IssueName.DATABASE_ISSUE, Severity.ERROR, null, null);
+        store.add(recent);
+        clock.advance(Duration.ofMinutes(3));
+
+        // Expired issues are not returned even before they are evicted
+        assertEquals(List.of(recent), store.findByIssueName(IssueName.DATABASE_ISSUE).collect(Collectors.toList()));
+        assertEquals(2, store.size());
+        store.evictExpired();
+        assertEquals(1, store.size());
+        assertTrue(store.findByIssueID(recent.getIssueID()).isPresent());
+    }
+
+    @Test
+    public void concurrentInsertsKeepIndexesConsistent() throws InterruptedException {
+        IssueStore store = new IssueStore(1024, Duration.ofMinutes(5), clock);
+        UUID correlationID = UUID.randomUUID();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    store.add(createIssue(IssueName.SERVICE_ISSUE, Severity.ERROR, null, correlationID));
+                    store.findByCorrelationID(correlationID).findFirst();
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1024, store.size());
+        assertEquals(1024, store.findByCorrelationID(correlationID).count());
+        assertEquals(1024, store.findBySeverity(Severity.ERROR).count());
+        assertEquals(1024, store.findAll().count());
+    }
+
+    @Test
+    public void concurrentInsertsAndEvictionsKeepCorrelationIndexConsistent() throws InterruptedException {
+        IssueStore store = new IssueStore(64, Duration.ofMinutes(5), clock);
+        // Few issues per correlation ID, so their deques are emptied and recreated all the time
+        List<UUID> correlationIDs = Stream.generate(UUID::randomUUID).limit(128).collect(Collectors.toList());
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    UUID correlationID = correlationIDs.get(ThreadLocalRandom.current().nextInt(correlationIDs.size()));
+                    store.add(createIssue(IssueName.SERVICE_ISSUE, Severity.ERROR, null, correlationID));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(64, store.size());
+        assertEquals(64, correlationIDs.stream().mapToLong(id -> store.findByCorrelationID(id).count()).sum());
+        store.findAll().forEach(issue -> assertTrue(store.findByCorrelationID(issue.getCorrelationID()).anyMatch(issue::equals)));
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.lkast;
+
+import com.github.lkast.analysis.CauseEffectEdge;
+import com.github.lkast.analysis.RootCause;
+import com.github.lkast.analysis.RootCauseAnalysis;
+import com.github.lkast.analysis.RootCauseAnalyzer;
+import com.github.lkast.model.Issue;
+import com.github.lkast.model.IssueName;
+import com.github.lkast.model.Service;
+import com.github.lkast.model.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class RootCauseAnalyzerTest {
+    private final IssueManager orders = new IssueManager("orders", "Orders");
+    private final IssueManager payments = new IssueManager("payments", "Payments");
+    private final IssueMapper issueMapper = new IssueMapper();
+    private final Instant start = Instant.parse("2024-01-01T00:00:00Z");
+
+    private Issue createIssue(IssueManager issueManager, IssueName issueName, int second, Issue causeIssue, UUID correlationID) {
+        return issueManager.createIssue(issueMapper.getIssueType(issueName), Severity.ERROR, start.plusSeconds(second), causeIssue, null, correlationID);
+    }
+
+    @Test
+    public void findsRootCausesAcrossCauseLinksAndCorrelationIDs() {
+        UUID request = UUID.randomUUID();
+        Issue database = createIssue(payments, IssueName.DATABASE_ISSUE, 0, null, request);
+        Issue payment = createIssue(payments, IssueName.SERVICE_ISSUE, 1, database, request);
+        // Only linked to the database issue by the correlation ID
+        Issue order = createIssue(orders, IssueName.SERVICE_ISSUE, 2, null, request);
+        Issue unrelated = createIssue(orders, IssueName.VALIDATION_ISSUE, 3, null, null);
+
+        // The database issue is only reachable as a cause
+        RootCauseAnalysis analysis = new RootCauseAnalyzer(new ForkJoinPool(2)).analyze(List.of(payment, order, unrelated));
+
+        assertEquals(4, analysis.getIssueCount());
+        assertEquals(2, analysis.getRootCauseCount());
+        assertSame(database, analysis.getRootCause(order.getIssueID()));
+        assertSame(database, analysis.getRootCause(payment.getIssueID()));
+        assertSame(unrelated, analysis.getRootCause(unrelated.getIssueID()));
+        assertNull(analysis.getRootCause(UUID.randomUUID()));
+
+        List<RootCause> rootCauses = analysis.getRootCauses(10);
+        assertEquals(2, rootCauses.size());
+        assertSame(database, rootCauses.get(0).issue());
+        assertEquals(3, rootCauses.get(0).blastRadius());
+        assertEquals(Set.of(new Service("orders", "Orders"), new Service("payments", "Payments")), rootCauses.get(0).affectedServices());
+        assertEquals(1, rootCauses.get(1).blastRadius());
+
+        assertEquals(2, analysis.getEdgeCount(IssueName.DATABASE_ISSUE, IssueName.SERVICE_ISSUE));
+        List<CauseEffectEdge> edges = analysis.getTopEdges(5);
+        assertEquals(List.of(new CauseEffectEdge(IssueName.DATABASE_ISSUE, IssueName.SERVICE_ISSUE, 2, 1)), edges);
+    }
+
+    @Test
+    public void earliestIssueWithoutCauseIsRootCause() {
+        UUID request = UUID.randomUUID();
+        Issue later = createIssue(orders, IssueName.SERVICE_ISSUE, 5, null, request);
+        Issue earlier = createIssue(payments, IssueName.CONFIGURATION_ISSUE, 1, null, request);
+
+        RootCauseAnalysis analysis = new RootCauseAnalyzer().analyze(List.of(later, earlier));
+        assertSame(earlier, analysis.getRootCause(later.getIssueID()));
+        assertEquals(1, analysis.getEdgeCount(IssueName.CONFIGURATION_ISSUE, IssueName.SERVICE_ISSUE));
+    }
+
+    @Test
+    public void analyzesLargeIncidentInParallel() {
+        List<Issue> issues = new ArrayList<>();
+        List<Issue> roots = new ArrayList<>();
+        for (int r = 0; r < 100; r++) {
+            Issue root = createIssue(payments, IssueName.DATABASE_ISSUE, r, null, null);
+            roots.add(root);
+            for (int i = 0; i < 1000; i++) {
+                UUID request = UUID.randomUUID();
+                Issue payment = createIssue(payments, IssueName.SERVICE_ISSUE, r + 1, root, request);
+                issues.add(payment);
+                issues.add(createIssue(orders, IssueName.SERVICE_ISSUE, r + 2, null, request));
+            }
+        }
+
+        RootCauseAnalysis analysis = new RootCauseAnalyzer().analyze(issues);
+        assertEquals(200_100, analysis.getIssueCount());
+        assertEquals(100, analysis.getRootCauseCount());
+        for (RootCause rootCause : analysis.getRootCauses(100)) {
+            assertEquals(2001, rootCause.blastRadius());
+        }
+        assertSame(roots.get(42), analysis.getRootCause(issues.get(42 * 2000 + 1).getIssueID()));
+        // The orders issues are implicit effects of the root causes in another service
+        assertEquals(List.of(new CauseEffectEdge(IssueName.DATABASE_ISSUE, IssueName.SERVICE_ISSUE, 200_000, 100_000)), analysis.getTopEdges(5));
+    }
+}
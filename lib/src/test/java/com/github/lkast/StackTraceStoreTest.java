@@ -0,0 +1,96 @@
+package com.github.lkast;
+
+import com.github.lkast.details.DetailsPolicy;
+import com.github.lkast.details.ExceptionDetailsRenderer;
+import com.github.lkast.details.StackTraceStore;
+import com.github.lkast.model.Issue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StackTraceStoreTest {
+
+    private static IllegalStateException exception(String message, String method) {
+        IllegalStateException exception = new IllegalStateException(message);
+        exception.setStackTrace(new StackTraceElement[]{
+                new StackTraceElement("com.example.Service", method, "Service.java", 1),
+                new StackTraceElement("com.example.Main", "main", "Main.java", 1)
+        });
+        return exception;
+    }
+
+    @Test
+    public void issuesFromTheSameThrowSiteShareOneStackTrace() {
+        IssueManager issueManager = new IssueManager("service-1", "Test Service");
+        StackTraceStore store = new StackTraceStore(16);
+        issueManager.setStackTraceStore(store);
+
+        List<Issue> issues = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            issues.add(issueManager.createIssueFromException(exception("attempt " + i, "call")));
+        }
+
+        String digest = StackTraceStore.digestOf(issues.get(0).getDetails());
+        assertEquals(2 * StackTraceStore.DIGEST_BYTES, digest.length());
+        assertEquals("Caused by java.lang.IllegalStateException\n" +
+                "Exception message: attempt 0\n" +
+                ExceptionDetailsRenderer.STACK_TRACE_DIGEST_PREFIX + digest, issues.get(0).getDetails());
+        assertEquals(digest, StackTraceStore.digestOf(issues.get(2).getDetails()));
+        assertTrue(issues.get(2).getDetails().contains("attempt 2"));
+
+        String trace = Arrays.toString(exception("", "call").getStackTrace());
+        assertEquals(1, store.size());
+        assertEquals(trace, store.find(digest).orElseThrow());
+        assertEquals(digest, StackTraceStore.digest(trace));
+        assertEquals(Map.of(digest, trace), store.tracesOf(issues));
+    }
+
+    @Test
+    public void differentStackTracesAreKeptSeparately() {
+        ExceptionDetailsRenderer renderer = new ExceptionDetailsRenderer(DetailsPolicy.FULL, new StackTraceStore(16));
+        String first = StackTraceStore.digestOf(renderer.render(exception("boom", "call")));
+        String second = StackTraceStore.digestOf(renderer.render(exception("boom", "retry")));
+
+        assertNotEquals(first, second);
+        assertEquals(2, renderer.getStackTraceStore().size());
+    }
+
+    @Test
+    public void evictsOldestStackTracesWhenFull() {
+        StackTraceStore store = new StackTraceStore(2);
+        ExceptionDetailsRenderer renderer = new ExceptionDetailsRenderer(DetailsPolicy.FULL, store);
+        String first = StackTraceStore.digestOf(renderer.render(exception("boom", "a")));
+        renderer.render(exception("boom", "b"));
+        renderer.render(exception("boom", "c"));
+
+        assertEquals(2, store.size());
+        assertEquals(1, store.getEvictionCount());
+        assertFalse(store.find(first).isPresent());
+
+        // The cached stack trace is added again when the exception recurs
+        assertEquals(first, StackTraceStore.digestOf(renderer.render(exception("boom", "a"))));
+        assertTrue(store.find(first).isPresent());
+    }
+
+    @Test
+    public void detailsWithoutDigestAreIgnored() {
+        IssueManager issueManager = new IssueManager("service-1", "Test Service");
+        Issue issue = issueManager.createIssueFromException(exception("boom", "call"));
+
+        assertTrue(issue.getDetails().contains("Stack trace: ["));
+        assertNull(StackTraceStore.digestOf(issue.getDetails()));
+        assertNull(StackTraceStore.digestOf(null));
+        assertTrue(new StackTraceStore(4).tracesOf(List.of(issue)).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new StackTraceStore(0));
+    }
+}